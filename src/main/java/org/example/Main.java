@@ -1,7 +1,171 @@
 package org.example;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Stream;
+
+/**
+ * Lanceur du {@link TestDaemon}. Préparation (une fois, puis après chaque changement de dépendances) :
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt -Dmdep.includeScope=test
+ * java -cp target/classes org.example.Main daemon            # JVM et navigateur chauds
+ * java -cp target/classes org.example.Main run LoginTest#testLoginPageElements
+ * java -cp target/classes org.example.Main stop
+ * </pre>
+ * Les dépendances (Selenium, JUnit...) restent chargées pour toute la vie du démon. Les classes de test le restent
+ * tant que {@code target/test-classes} ne change pas : après un {@code mvn test-compile}, la prochaine exécution
+ * arrête l'ancienne génération (sessions, serveur simulé, threads, chargeur de classes) et recharge les classes.
+ * Port {@code -Ddaemon.port} (7878) ; les propriétés système des tests ({@code -Dapp.stub=true}...) se passent
+ * au démon.
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello, World!");
+
+    private static final int DEFAULT_PORT = 7878;
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.getInteger("daemon.port", DEFAULT_PORT);
+        String command = args.length == 0 ? "" : args[0];
+        switch (command) {
+            case "daemon":
+                daemon(port);
+                break;
+            case "run":
+                System.exit(send(port, "RUN " + String.join(" ", Arrays.asList(args).subList(1, args.length))) ? 0 : 1);
+                break;
+            case "stop":
+                send(port, "STOP");
+                break;
+            default:
+                System.out.println("Usage: Main daemon | run <Classe|Classe#méthode>... | stop");
+        }
+    }
+
+    private static void daemon(int port) throws IOException {
+        List<URL> urls = new ArrayList<>();
+        for (String entry : Files.readString(Paths.get(System.getProperty("daemon.classpath", "target/classpath.txt")))
+                .trim().split(File.pathSeparator)) {
+            urls.add(Paths.get(entry).toUri().toURL());
+        }
+        ClassLoader dependencies = new URLClassLoader(urls.toArray(new URL[0]), Main.class.getClassLoader());
+        TestClasses testClasses = new TestClasses(
+                Paths.get(System.getProperty("daemon.test.classes", "target/test-classes")), dependencies);
+
+        try (TestDaemon testDaemon = new TestDaemon(port, testClasses::executor)) {
+            System.out.println("Démon de tests à l'écoute sur le port " + testDaemon.port());
+            testDaemon.serve();
+        }
+        testClasses.close();
+        // Rapports et historiques déjà écrits à la fermeture de l'exécuteur
+        System.exit(0);
+    }
+
+    /**
+     * Envoie une commande au démon et recopie les événements reçus jusqu'à la fin de l'exécution.
+     *
+     * @return true si l'exécution a réussi
+     */
+    static boolean send(int port, String command) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.println(command);
+            boolean ok = true;
+            String line;
+            while ((line = in.readLine()) != null) {
+                System.out.println(line);
+                if (line.startsWith("DONE ")) {
+                    ok = line.startsWith("DONE OK");
+                } else if (line.startsWith("ERROR")) {
+                    ok = false;
+                }
+            }
+            return ok;
+        }
+    }
+
+    /**
+     * Génération courante des classes de test, rechargée quand {@code target/test-classes} change.
+     */
+    static final class TestClasses implements AutoCloseable {
+        private final Path directory;
+        private final ClassLoader dependencies;
+        private String fingerprint;
+        private URLClassLoader loader;
+        private TestExecutor executor;
+
+        TestClasses(Path directory, ClassLoader dependencies) {
+            this.directory = directory;
+            this.dependencies = dependencies;
+        }
+
+        synchronized TestExecutor executor() {
+            String current = fingerprint();
+            if (executor == null || !current.equals(fingerprint)) {
+                if (executor != null) {
+                    System.out.println("Classes de test modifiées, rechargement");
+                }
+                // Les singletons de l'ancienne génération sont arrêtés et son chargeur fermé
+                close();
+                try {
+                    loader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, dependencies);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                Iterator<TestExecutor> found = ServiceLoader.load(TestExecutor.class, loader).iterator();
+                if (!found.hasNext()) {
+                    throw new IllegalStateException("Aucun TestExecutor dans " + directory + " (lancer mvn test-compile)");
+                }
+                executor = found.next();
+                fingerprint = current;
+            }
+            return executor;
+        }
+
+        // Nombre de fichiers et date de modification la plus récente
+        private String fingerprint() {
+            try (Stream<Path> files = Files.walk(directory)) {
+                long[] summary = new long[2];
+                files.filter(Files::isRegularFile).forEach(file -> {
+                    summary[0]++;
+                    summary[1] = Math.max(summary[1], file.toFile().lastModified());
+                });
+                return summary[0] + ":" + summary[1];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (executor != null) {
+                executor.close();
+                executor = null;
+            }
+            if (loader != null) {
+                try {
+                    loader.close();
+                } catch (IOException e) {
+                    System.err.println("Fermeture du chargeur de classes de test impossible: " + e.getMessage());
+                }
+                loader = null;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Démon de tests résident : une JVM chaude qui garde ses classes et ses sessions Chrome entre deux
+ * exécutions et reçoit des commandes sur une socket locale. Protocole texte, une ligne par message :
+ * <ul>
+ *     <li>{@code RUN <Classe|Classe#méthode>...} : les événements de l'exécution sont renvoyés au fil
+ *     de l'eau, puis {@code DONE OK|FAILED <ms> ms} ;</li>
+ *     <li>{@code PING} : {@code PONG} ;</li>
+ *     <li>{@code STOP} : arrête le démon.</li>
+ * </ul>
+ * Une seule exécution à la fois : les sessions du navigateur sont partagées.
+ */
+public class TestDaemon implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Supplier<TestExecutor> executors;
+    private volatile boolean running = true;
+
+    /**
+     * @param executors exécuteur à utiliser pour la prochaine exécution (le même tant que les classes de test
+     *                  n'ont pas changé)
+     */
+    public TestDaemon(int port, Supplier<TestExecutor> executors) throws IOException {
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.executors = executors;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Accepte les connexions jusqu'à {@code STOP} ou {@link #close()}.
+     */
+    public void serve() {
+        while (running) {
+            try (Socket socket = server.accept()) {
+                handle(socket);
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Connexion au démon interrompue: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        String line = in.readLine();
+        if (line == null) {
+            return;
+        }
+        List<String> words = Arrays.asList(line.trim().split("\\s+"));
+        switch (words.get(0)) {
+            case "PING":
+                out.println("PONG");
+                break;
+            case "STOP":
+                out.println("BYE");
+                close();
+                break;
+            case "RUN":
+                run(words.subList(1, words.size()), out);
+                break;
+            default:
+                out.println("ERROR commande inconnue: " + words.get(0));
+        }
+    }
+
+    private void run(List<String> selectors, PrintWriter out) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = executors.get().run(selectors, out::println);
+        } catch (Exception e) {
+            out.println("ERROR " + e);
+            ok = false;
+        }
+        out.println("DONE " + (ok ? "OK" : "FAILED") + " " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            server.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
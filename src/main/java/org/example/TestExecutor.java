@@ -0,0 +1,27 @@
+package org.example;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exécute des tests pour le {@link TestDaemon}. L'implémentation JUnit vit avec les tests
+ * (JUnit n'est disponible que dans le classpath de test) et est trouvée par {@link java.util.ServiceLoader}.
+ * Une instance par génération de classes de test : elle exécute les tests chargés par son propre chargeur.
+ */
+public interface TestExecutor extends AutoCloseable {
+
+    /**
+     * Exécute les tests sélectionnés ({@code Classe} ou {@code Classe#méthode}) en envoyant
+     * un événement par ligne à {@code events} au fil de l'exécution.
+     *
+     * @return true si tous les tests ont réussi
+     */
+    boolean run(List<String> selectors, Consumer<String> events) throws Exception;
+
+    /**
+     * Libère l'état résident (sessions du navigateur...) avant le rechargement des classes de test.
+     */
+    @Override
+    default void close() {
+    }
+}
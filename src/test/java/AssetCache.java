@@ -0,0 +1,197 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Cache disque adressé par contenu des bundles JS/CSS de l'application, servi par l'{@link AssetInterceptor}.
+ * Chaque corps est stocké une seule fois sous {@code objects/<sha256>} et lu par fichier mappé en mémoire ;
+ * {@code index.json} associe chaque URL à son contenu.
+ *
+ * <p>Une entrée n'est servie sans réseau que si son URL contient une empreinte de contenu
+ * ({@code main.3f2a9c1b.js}) ou si elle a déjà été revalidée auprès du serveur pendant cette exécution :
+ * un bundle modifié sans changer d'URL est donc toujours rechargé une fois par JVM.</p>
+ */
+public class AssetCache {
+
+    // Nom de fichier avec empreinte de contenu, comme en produisent webpack / vite
+    private static final Pattern FINGERPRINTED = Pattern.compile("[.-][0-9a-fA-F]{8,}\\.(js|mjs|css)([?#].*)?$");
+
+    private static AssetCache shared;
+
+    private final Path dir;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private final Map<String, Entry> added = new ConcurrentHashMap<>();
+    private final Set<String> revalidated = ConcurrentHashMap.newKeySet();
+    private final Map<String, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+    AssetCache(Path dir) {
+        this.dir = dir;
+        this.index.putAll(readIndex(dir.resolve("index.json")));
+    }
+
+    /**
+     * Cache de la JVM, dans {@code intercept.cache.dir} (par défaut {@code .asset-cache} à la racine du projet) ;
+     * l'index est fusionné sur disque à l'arrêt.
+     */
+    public static synchronized AssetCache shared() {
+        if (shared == null) {
+            shared = new AssetCache(Paths.get(System.getProperty("intercept.cache.dir", ".asset-cache")));
+            AssetCache cache = shared;
+            ShutdownHooks.register("asset-cache", () -> {
+                try {
+                    cache.saveIndex();
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'écriture de l'index du cache d'assets: " + e.getMessage());
+                }
+            });
+        }
+        return shared;
+    }
+
+    /**
+     * Entrée servable sans réseau pour cette URL, si elle existe.
+     */
+    public Optional<Entry> lookup(String url) {
+        Entry entry = index.get(url);
+        if (entry == null || !(revalidated.contains(url) || FINGERPRINTED.matcher(url).find())) {
+            return Optional.empty();
+        }
+        if (!Files.exists(object(entry.sha256))) {
+            index.remove(url);
+            return Optional.empty();
+        }
+        return Optional.of(entry);
+    }
+
+    /**
+     * Enregistre le corps reçu du serveur pour cette URL ; l'URL est considérée revalidée pour le reste de l'exécution.
+     */
+    public Entry store(String url, Map<String, String> headers, byte[] body) {
+        String sha256 = sha256(body);
+        Path object = object(sha256);
+        try {
+            if (!Files.exists(object)) {
+                Files.createDirectories(object.getParent());
+                // Écriture atomique : une autre JVM peut lire ou écrire le même objet en même temps
+                Path temp = Files.createTempFile(object.getParent(), sha256, ".tmp");
+                Files.write(temp, body);
+                Files.move(temp, object, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Entry entry = new Entry(sha256, headers);
+        index.put(url, entry);
+        added.put(url, entry);
+        revalidated.add(url);
+        return entry;
+    }
+
+    /**
+     * Contenu de l'entrée, mappé en mémoire (une seule projection par objet, partagée entre les lectures).
+     */
+    public ByteBuffer read(Entry entry) {
+        MappedByteBuffer buffer = mapped.computeIfAbsent(entry.sha256, sha256 -> {
+            try (FileChannel channel = FileChannel.open(object(sha256), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Fusionne les entrées ajoutées par cette JVM dans {@code index.json} ({@link SharedFile}).
+     */
+    public void saveIndex() throws IOException {
+        if (added.isEmpty()) {
+            return;
+        }
+        new SharedFile(dir.resolve("index.json")).updateJson(json -> {
+            added.forEach((url, entry) -> json.put(url, entry.toMap()));
+            return null;
+        });
+        added.clear();
+    }
+
+    private Path object(String sha256) {
+        return dir.resolve("objects").resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private static Map<String, Entry> readIndex(Path file) {
+        return parseIndex(new SharedFile(file).readJson());
+    }
+
+    private static Map<String, Entry> parseIndex(Map<String, Object> raw) {
+        Map<String, Entry> entries = new HashMap<>();
+        raw.forEach((url, value) -> {
+            if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                Map<String, String> headers = new LinkedHashMap<>();
+                if (map.get("headers") instanceof Map) {
+                    ((Map<?, ?>) map.get("headers")).forEach((k, v) -> headers.put(String.valueOf(k), String.valueOf(v)));
+                }
+                entries.put(url, new Entry(String.valueOf(map.get("sha256")), headers));
+            }
+        });
+        return entries;
+    }
+
+    static String sha256(byte[] body) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(body)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Entrée du cache : empreinte du contenu et en-têtes à rejouer (type de contenu, CORS).
+     */
+    public static final class Entry {
+        private final String sha256;
+        private final Map<String, String> headers;
+
+        Entry(String sha256, Map<String, String> headers) {
+            this.sha256 = sha256;
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+        }
+
+        public String sha256() {
+            return sha256;
+        }
+
+        public Map<String, String> headers() {
+            return headers;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sha256", sha256);
+            map.put("headers", headers);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du cache d'assets adressé par contenu et des règles d'interception.
+ */
+public class AssetCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static String text(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    @Test
+    public void testStoredBundleIsServedFromMappedFile() {
+        AssetCache cache = new AssetCache(folder.getRoot().toPath());
+        String url = "http://localhost:3005/static/js/main.js";
+        assertFalse(cache.lookup(url).isPresent());
+
+        cache.store(url, Map.of("content-type", "application/javascript"), "console.log(1);".getBytes(StandardCharsets.UTF_8));
+
+        AssetCache.Entry entry = cache.lookup(url).orElseThrow();
+        assertEquals("application/javascript", entry.headers().get("content-type"));
+        assertEquals("console.log(1);", text(cache.read(entry)));
+        assertEquals("Deux lectures partagent la même projection", "console.log(1);", text(cache.read(entry)));
+    }
+
+    @Test
+    public void testIdenticalBundlesShareOneObject() {
+        AssetCache cache = new AssetCache(folder.getRoot().toPath());
+        byte[] body = "body{}".getBytes(StandardCharsets.UTF_8);
+
+        AssetCache.Entry first = cache.store("http://localhost:3005/a.css", Map.of(), body);
+        AssetCache.Entry second = cache.store("http://localhost:3005/b.css", Map.of(), body);
+
+        assertEquals(first.sha256(), second.sha256());
+        assertEquals(AssetCache.sha256(body), first.sha256());
+    }
+
+    @Test
+    public void testOnlyFingerprintedUrlsSkipRevalidationInANewRun() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        AssetCache firstRun = new AssetCache(dir);
+        String plain = "http://localhost:3005/static/js/bundle.js";
+        String fingerprinted = "http://localhost:3005/static/js/main.3f2a9c1b.js";
+        firstRun.store(plain, Map.of(), "a".getBytes(StandardCharsets.UTF_8));
+        firstRun.store(fingerprinted, Map.of(), "b".getBytes(StandardCharsets.UTF_8));
+        firstRun.saveIndex();
+
+        AssetCache secondRun = new AssetCache(dir);
+        assertFalse("Un bundle sans empreinte est revalidé une fois par exécution", secondRun.lookup(plain).isPresent());
+        assertEquals("b", text(secondRun.read(secondRun.lookup(fingerprinted).orElseThrow())));
+    }
+
+    @Test
+    public void testRulesBlockAnalyticsAndImagesAndCacheBundles() {
+        AssetInterceptor.Rules rules = new AssetInterceptor.Rules(true, List.of("google-analytics.com"), "localhost",
+                false, true, false, true);
+
+        assertEquals(AssetInterceptor.Action.BLOCK, rules.decide("https://www.google-analytics.com/analytics.js", "Script"));
+        assertEquals(AssetInterceptor.Action.BLOCK, rules.decide("http://localhost:3005/logo.png", "Image"));
+        assertEquals(AssetInterceptor.Action.CACHE, rules.decide("http://localhost:3005/static/js/main.js", "Script"));
+        assertEquals(AssetInterceptor.Action.CONTINUE, rules.decide("http://localhost:3005/auth", "Fetch"));
+        assertEquals(AssetInterceptor.Action.CONTINUE, rules.decide("https://fonts.example.com/a.woff2", "Font"));
+    }
+
+    @Test
+    public void testThirdPartyBlockingKeepsApplicationHost() {
+        AssetInterceptor.Rules rules = new AssetInterceptor.Rules(true, List.of(), "localhost", true, false, false, true);
+
+        assertEquals(AssetInterceptor.Action.BLOCK, rules.decide("https://cdn.example.com/lib.js", "Script"));
+        assertEquals(AssetInterceptor.Action.CACHE, rules.decide("http://127.0.0.1:3005/static/js/main.js", "Script"));
+        assertEquals(1, rules.patterns().size());
+    }
+}
@@ -0,0 +1,328 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Interception des requêtes du navigateur par le domaine DevTools {@code Fetch} : les hôtes d'analytics
+ * (et, au choix, tous les hôtes tiers, les images et les polices) sont bloqués ; les scripts et feuilles
+ * de style déjà vus sont servis depuis l'{@link AssetCache} local au lieu d'être retéléchargés à chaque
+ * {@code open()} ou navigation de secours.
+ *
+ * <p>Installé une fois par session par {@link DriverPool.ChromeSessions} ; les règles viennent des
+ * propriétés système {@code intercept.*} (voir {@link Rules#fromSystemProperties()}).</p>
+ */
+public class AssetInterceptor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetInterceptor.class);
+    private static final Map<WebDriver, Optional<AssetInterceptor>> INSTANCES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Stats STATS = new Stats();
+
+    private static final List<String> FORWARDED_HEADERS = List.of("content-type", "access-control-allow-origin");
+
+    private final DevTools devTools;
+    private final Rules rules;
+    private final AssetCache cache;
+
+    private AssetInterceptor(DevTools devTools, Rules rules, AssetCache cache) {
+        this.devTools = devTools;
+        this.rules = rules;
+        this.cache = cache;
+    }
+
+    /**
+     * Intercepteur du driver, installé au premier appel ; vide si l'interception est désactivée
+     * ({@code -Dintercept.enabled=false}) ou si le driver n'expose pas DevTools.
+     */
+    public static Optional<AssetInterceptor> of(WebDriver driver) {
+        return INSTANCES.computeIfAbsent(driver, AssetInterceptor::install);
+    }
+
+    public static Stats stats() {
+        return STATS;
+    }
+
+    /**
+     * Interception installée sur les sessions de cette JVM ({@code intercept.enabled}, activée par défaut) :
+     * les pages mesurées ne sont alors plus celles que sert l'application.
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("intercept.enabled", "true"));
+    }
+
+    private static Optional<AssetInterceptor> install(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return Optional.empty();
+        }
+        Rules rules = Rules.fromSystemProperties();
+        if (!rules.enabled) {
+            return Optional.empty();
+        }
+        try {
+            Optional<DevTools> maybeDevTools = ((HasDevTools) driver).maybeGetDevTools();
+            if (maybeDevTools.isEmpty()) {
+                return Optional.empty();
+            }
+            DevTools devTools = maybeDevTools.get();
+            devTools.createSessionIfThereIsNotOne();
+
+            AssetInterceptor interceptor = new AssetInterceptor(devTools, rules, AssetCache.shared());
+            Function<JsonInput, Map<String, Object>> mapper = input -> input.read(Json.MAP_TYPE);
+            devTools.addListener(new Event<>("Fetch.requestPaused", mapper), interceptor::onRequestPaused);
+            interceptor.enable();
+            return Optional.of(interceptor);
+        } catch (Exception e) {
+            LOG.warn("DevTools indisponible, interception des requêtes désactivée: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Active l'interception sur la cible courante de la session DevTools ; à rappeler après
+     * {@link NetworkActivity#follow(String)} quand la session change d'onglet.
+     */
+    public void enable() {
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", rules.patterns())));
+    }
+
+    /**
+     * Suspend l'interception sur la cible courante, avant que la session DevTools ne change d'onglet :
+     * une requête suspendue sur une cible qui n'est plus suivie ne serait jamais reprise.
+     */
+    public void disable() {
+        devTools.send(new Command<>("Fetch.disable", Map.of()));
+    }
+
+    private void onRequestPaused(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        Map<?, ?> request = (Map<?, ?>) params.get("request");
+        String url = request == null ? "" : String.valueOf(request.get("url"));
+        String resourceType = String.valueOf(params.get("resourceType"));
+        try {
+            if (params.containsKey("responseStatusCode") || params.containsKey("responseErrorReason")) {
+                onResponse(requestId, url, params);
+                return;
+            }
+            switch (rules.decide(url, resourceType)) {
+                case BLOCK:
+                    STATS.blocked.incrementAndGet();
+                    send("Fetch.failRequest", Map.of("requestId", requestId, "errorReason", "BlockedByClient"));
+                    break;
+                case CACHE:
+                    Optional<AssetCache.Entry> entry = cache.lookup(url);
+                    if (entry.isPresent()) {
+                        STATS.servedFromCache.incrementAndGet();
+                        fulfill(requestId, entry.get());
+                    } else {
+                        // Laisser passer la requête et reprendre la main sur la réponse pour la mettre en cache
+                        send("Fetch.continueRequest", Map.of("requestId", requestId, "interceptResponse", true));
+                    }
+                    break;
+                default:
+                    send("Fetch.continueRequest", Map.of("requestId", requestId));
+            }
+        } catch (RuntimeException e) {
+            // Thread des événements DevTools : compté dans le rapport de fin, détail en debug seulement
+            STATS.failed.incrementAndGet();
+            LOG.debug("Interception de {} impossible: {}", url, e.getMessage());
+            continueQuietly(requestId);
+        }
+    }
+
+    private void onResponse(String requestId, String url, Map<String, Object> params) {
+        Object status = params.get("responseStatusCode");
+        if (status instanceof Number && ((Number) status).intValue() == 200) {
+            Map<String, Object> body = send("Fetch.getResponseBody", Map.of("requestId", requestId));
+            String raw = String.valueOf(body.get("body"));
+            byte[] bytes = Boolean.TRUE.equals(body.get("base64Encoded"))
+                    ? Base64.getDecoder().decode(raw)
+                    : raw.getBytes(StandardCharsets.UTF_8);
+            cache.store(url, forwardedHeaders(params.get("responseHeaders")), bytes);
+            STATS.stored.incrementAndGet();
+        }
+        send("Fetch.continueRequest", Map.of("requestId", requestId));
+    }
+
+    private void fulfill(String requestId, AssetCache.Entry entry) {
+        ByteBuffer base64 = Base64.getEncoder().encode(cache.read(entry));
+        List<Map<String, String>> headers = new ArrayList<>();
+        entry.headers().forEach((name, value) -> headers.add(Map.of("name", name, "value", value)));
+        Map<String, Object> fulfill = new LinkedHashMap<>();
+        fulfill.put("requestId", requestId);
+        fulfill.put("responseCode", 200);
+        fulfill.put("responseHeaders", headers);
+        fulfill.put("body", StandardCharsets.ISO_8859_1.decode(base64).toString());
+        send("Fetch.fulfillRequest", fulfill);
+    }
+
+    private static Map<String, String> forwardedHeaders(Object responseHeaders) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (responseHeaders instanceof List) {
+            for (Object header : (List<?>) responseHeaders) {
+                Map<?, ?> map = (Map<?, ?>) header;
+                String name = String.valueOf(map.get("name")).toLowerCase(Locale.ROOT);
+                if (FORWARDED_HEADERS.contains(name)) {
+                    headers.put(name, String.valueOf(map.get("value")));
+                }
+            }
+        }
+        return headers;
+    }
+
+    private void continueQuietly(String requestId) {
+        try {
+            send("Fetch.continueRequest", Map.of("requestId", requestId));
+        } catch (RuntimeException e) {
+            // Requête déjà reprise ou annulée par la navigation
+        }
+    }
+
+    private Map<String, Object> send(String method, Map<String, Object> params) {
+        return devTools.send(new Command<>(method, params, input -> input.read(Json.MAP_TYPE)));
+    }
+
+    enum Action {
+        BLOCK, CACHE, CONTINUE
+    }
+
+    /**
+     * Règles d'interception, lues depuis les propriétés système :
+     * {@code intercept.enabled} (true), {@code intercept.block.hosts} (hôtes d'analytics courants, séparés
+     * par des virgules), {@code intercept.block.third.party} (false : hôtes autres que celui de l'application),
+     * {@code intercept.block.fonts} (false) et {@code intercept.cache} (true). Les images suivent l'unique réglage
+     * {@code browser.block.images} du {@link BrowserProfile}.
+     */
+    static final class Rules {
+        static final String DEFAULT_BLOCKED_HOSTS = "google-analytics.com,googletagmanager.com,doubleclick.net,"
+                + "facebook.net,connect.facebook.net,hotjar.com,segment.io,segment.com,mixpanel.com,clarity.ms";
+
+        final boolean enabled;
+        final List<String> blockedHosts;
+        final String appHost;
+        final boolean blockThirdParty;
+        final boolean blockImages;
+        final boolean blockFonts;
+        final boolean cacheBundles;
+
+        Rules(boolean enabled, List<String> blockedHosts, String appHost, boolean blockThirdParty,
+              boolean blockImages, boolean blockFonts, boolean cacheBundles) {
+            this.enabled = enabled;
+            this.blockedHosts = blockedHosts;
+            this.appHost = appHost;
+            this.blockThirdParty = blockThirdParty;
+            this.blockImages = blockImages;
+            this.blockFonts = blockFonts;
+            this.cacheBundles = cacheBundles;
+        }
+
+        static Rules fromSystemProperties() {
+            return new Rules(
+                    isEnabled(),
+                    Arrays.stream(System.getProperty("intercept.block.hosts", DEFAULT_BLOCKED_HOSTS).split(","))
+                            .map(String::trim).filter(host -> !host.isEmpty()).collect(Collectors.toList()),
+                    host(TestEnvironment.baseUrl()),
+                    Boolean.getBoolean("intercept.block.third.party"),
+                    BrowserProfile.fromSystemProperties().blocksImages(),
+                    Boolean.getBoolean("intercept.block.fonts"),
+                    Boolean.parseBoolean(System.getProperty("intercept.cache", "true")));
+        }
+
+        /**
+         * Motifs {@code Fetch.enable} : seules les requêtes concernées par une règle sont suspendues.
+         */
+        List<Map<String, Object>> patterns() {
+            List<Map<String, Object>> patterns = new ArrayList<>();
+            if (blockThirdParty) {
+                patterns.add(Map.of("urlPattern", "*", "requestStage", "Request"));
+                return patterns;
+            }
+            for (String host : blockedHosts) {
+                patterns.add(Map.of("urlPattern", "*://*" + host + "/*", "requestStage", "Request"));
+            }
+            if (blockImages) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", "Image", "requestStage", "Request"));
+            }
+            if (blockFonts) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", "Font", "requestStage", "Request"));
+            }
+            if (cacheBundles) {
+                patterns.add(Map.of("urlPattern", "*", "resourceType", "Script", "requestStage", "Request"));
+                patterns.add(Map.of("urlPattern", "*", "resourceType", "Stylesheet", "requestStage", "Request"));
+            }
+            return patterns;
+        }
+
+        Action decide(String url, String resourceType) {
+            String host = host(url);
+            if (host.isEmpty()) {
+                return Action.CONTINUE;
+            }
+            boolean blockedHost = blockedHosts.stream().anyMatch(blocked -> host.equals(blocked) || host.endsWith("." + blocked));
+            if (blockedHost || (blockThirdParty && !isAppHost(host))) {
+                return Action.BLOCK;
+            }
+            if ((blockImages && "Image".equals(resourceType)) || (blockFonts && "Font".equals(resourceType))) {
+                return Action.BLOCK;
+            }
+            if (cacheBundles && Set.of("Script", "Stylesheet").contains(resourceType)) {
+                return Action.CACHE;
+            }
+            return Action.CONTINUE;
+        }
+
+        private boolean isAppHost(String host) {
+            return host.equals(appHost) || ("localhost".equals(appHost) && "127.0.0.1".equals(host));
+        }
+
+        static String host(String url) {
+            try {
+                String host = URI.create(url).getHost();
+                return host == null ? "" : host.toLowerCase(Locale.ROOT);
+            } catch (IllegalArgumentException e) {
+                return "";
+            }
+        }
+    }
+
+    /**
+     * Compteurs de la JVM : requêtes bloquées, servies depuis le cache et mises en cache.
+     */
+    public static final class Stats {
+        final AtomicLong blocked = new AtomicLong();
+        final AtomicLong servedFromCache = new AtomicLong();
+        final AtomicLong stored = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+
+        public String report() {
+            return "=== Interception des requêtes ===\n"
+                    + "  Bloquées           : " + blocked.get() + "\n"
+                    + "  Servies du cache   : " + servedFromCache.get() + "\n"
+                    + "  Mises en cache     : " + stored.get() + "\n"
+                    + "  Échecs             : " + failed.get();
+        }
+    }
+}
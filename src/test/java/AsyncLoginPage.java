@@ -0,0 +1,169 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Variante asynchrone de {@link LoginPage} sur une {@link CdpSession} : chaque méthode renvoie un
+ * {@link CompletableFuture} au lieu de bloquer le thread pendant les allers-retours vers chromedriver.
+ * Les lectures indépendantes partent ensemble ({@code snapshot().thenCombine(currentUrl(), ...)}) et les
+ * attentes sont des promesses évaluées dans la page : un seul thread peut piloter de nombreuses sessions.
+ *
+ * <p>La saisie passe par le setter natif de {@code value} suivi d'un événement {@code input}, ce que React
+ * traite comme une frappe ; pas de repli vers la navigation manuelle comme dans {@link LoginPage#login}.</p>
+ */
+public class AsyncLoginPage implements AutoCloseable {
+
+    private static final String ERROR_VISIBLE =
+            "(function () { var e = document.querySelector('" + LoginPage.ERROR_MESSAGE_CSS + "');"
+                    + " return !!e && !e.classList.contains('offscreen') && (e.innerText || '').trim() !== ''; })()";
+
+    private static final String FILL_AND_SUBMIT =
+            "(function (email, password) {"
+                    + "  var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;"
+                    + "  function fill(selector, value) {"
+                    + "    var el = document.querySelector(selector);"
+                    + "    if (!el) { throw new Error('Champ introuvable: ' + selector); }"
+                    + "    el.focus();"
+                    + "    setter.call(el, value);"
+                    + "    el.dispatchEvent(new Event('input', { bubbles: true }));"
+                    + "    el.dispatchEvent(new Event('change', { bubbles: true }));"
+                    + "  }"
+                    + "  fill('" + LoginPage.EMAIL_INPUT_CSS + "', email);"
+                    + "  fill('" + LoginPage.PASSWORD_INPUT_CSS + "', password);"
+                    + "  var submit = document.querySelector('" + LoginPage.SUBMIT_BUTTON_CSS + "');"
+                    + "  if (!submit) { throw new Error('Bouton de soumission introuvable'); }"
+                    + "  submit.click();"
+                    + "  return true;"
+                    + "})";
+
+    private final CdpSession cdp;
+    private final String baseUrl;
+    private final TimeoutCalibration timeouts;
+    private final Json json = new Json();
+
+    public AsyncLoginPage(CdpSession cdp, String baseUrl) {
+        this.cdp = cdp;
+        this.baseUrl = baseUrl;
+        this.timeouts = TimeoutCalibration.current();
+    }
+
+    /**
+     * Page asynchrone sur l'onglet courant du driver (le driver reste utilisable à côté).
+     */
+    public static CompletableFuture<AsyncLoginPage> attach(WebDriver driver, String baseUrl) {
+        return CdpSession.attach(driver).thenApply(cdp -> new AsyncLoginPage(cdp, baseUrl));
+    }
+
+    /**
+     * Navigue vers /login ; complété quand le document est chargé et le champ email présent.
+     */
+    public CompletableFuture<AsyncLoginPage> open() {
+        String url = baseUrl + "/login";
+        return timed("AsyncLoginPage.open", () -> cdp.send("Page.navigate", Map.of("url", url))
+                .thenCompose(navigation -> {
+                    if (navigation.get("errorText") != null && !String.valueOf(navigation.get("errorText")).isEmpty()) {
+                        throw new IllegalStateException("Navigation vers " + url + " impossible: " + navigation.get("errorText"));
+                    }
+                    return until("document.readyState === 'complete' && !!document.querySelector('" + LoginPage.EMAIL_INPUT_CSS + "')",
+                            TimeoutCalibration.Operation.ELEMENT, "Le champ email n'a pas été trouvé sur la page");
+                })
+                .thenApply(ready -> this));
+    }
+
+    /**
+     * État du formulaire lu en une évaluation (voir {@link LoginFormSnapshot}).
+     */
+    public CompletableFuture<LoginFormSnapshot> snapshot() {
+        return timed("AsyncLoginPage.snapshot", () -> cdp.evaluate(LoginFormSnapshot.expression()).thenApply(LoginFormSnapshot::fromValue));
+    }
+
+    public CompletableFuture<String> currentUrl() {
+        return cdp.evaluate("window.location.href").thenApply(String::valueOf);
+    }
+
+    public CompletableFuture<String> errorMessage() {
+        return cdp.evaluate("(function () { var e = document.querySelector('" + LoginPage.ERROR_MESSAGE_CSS + "');"
+                        + " return e ? (e.innerText || '').trim() : ''; })()")
+                .thenApply(String::valueOf);
+    }
+
+    public CompletableFuture<Boolean> isErrorVisible() {
+        return cdp.evaluate(ERROR_VISIBLE).thenApply(Boolean.TRUE::equals);
+    }
+
+    /**
+     * Remplit et soumet le formulaire, puis attend le résultat : départ de /login ou message d'erreur visible.
+     */
+    public CompletableFuture<Outcome> login(String email, String password) {
+        EventLog.registerSecret(password);
+        EventLog.info("AsyncLoginPage.login", email);
+        String fill = FILL_AND_SUBMIT + "(" + json.toJson(email) + ", " + json.toJson(password) + ")";
+        return timed("AsyncLoginPage.login", () -> cdp.evaluate(fill)
+                .thenCompose(submitted -> until("window.location.pathname.indexOf('/login') < 0 || " + ERROR_VISIBLE,
+                        TimeoutCalibration.Operation.LOGIN_OUTCOME, "Aucun résultat de connexion"))
+                .thenCompose(outcome -> currentUrl().thenCombine(errorMessage(), Outcome::new))
+                .whenComplete((outcome, error) -> {
+                    if (outcome != null) {
+                        EventLog.url("AsyncLoginPage.login", outcome.url());
+                    }
+                }));
+    }
+
+    /**
+     * Promesse résolue dès que la condition JavaScript est vraie, rejetée après le délai calibré de l'opération.
+     */
+    private CompletableFuture<Object> until(String condition, TimeoutCalibration.Operation operation, String message) {
+        Duration timeout = timeouts.timeout(operation);
+        String expression = "new Promise(function (resolve, reject) {"
+                + "  var deadline = Date.now() + " + timeout.toMillis() + ";"
+                + "  (function check() {"
+                + "    var ready = false;"
+                + "    try { ready = " + condition + "; } catch (e) { ready = false; }"
+                + "    if (ready) { resolve(true); }"
+                + "    else if (Date.now() > deadline) { reject(new Error(" + json.toJson(message) + ")); }"
+                + "    else { setTimeout(check, " + timeouts.initialPoll().toMillis() + "); }"
+                + "  })();"
+                + "})";
+        return cdp.evaluate(expression);
+    }
+
+    // Durée de l'opération enregistrée à sa complétion, comme les Span de LoginPage
+    private static <T> CompletableFuture<T> timed(String step, Supplier<CompletableFuture<T>> operation) {
+        long start = System.nanoTime();
+        return operation.get().whenComplete((result, error) -> LatencyRecorder.shared().record(step, System.nanoTime() - start));
+    }
+
+    @Override
+    public void close() {
+        cdp.close();
+    }
+
+    /**
+     * Résultat d'une connexion : URL atteinte et message d'erreur affiché (vide si aucun).
+     */
+    public static final class Outcome {
+        private final String url;
+        private final String errorMessage;
+
+        Outcome(String url, String errorMessage) {
+            this.url = url;
+            this.errorMessage = errorMessage;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public String errorMessage() {
+            return errorMessage;
+        }
+
+        public boolean isAuthenticated() {
+            return !url.contains("/login");
+        }
+    }
+}
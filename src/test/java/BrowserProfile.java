@@ -0,0 +1,128 @@
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Profil de lancement de Chrome, lu depuis les propriétés système :
+ * <ul>
+ *     <li>{@code headless} (transmise par le pom) : Chrome en {@code --headless=new} ;</li>
+ *     <li>{@code browser.fast.start} : options de démarrage rapide (sans extensions, GPU, réseau
+ *     d'arrière-plan, mises à jour de composants ni premier lancement), actives par défaut en headless ;</li>
+ *     <li>{@code browser.window.size} : fenêtre fixe {@code LxH} (par défaut 1366x768 en headless,
+ *     fenêtre maximisée sinon) ;</li>
+ *     <li>{@code browser.block.images} (false) : ne pas charger les images, ni dans Chrome ni à travers
+ *     l'{@link AssetInterceptor}.</li>
+ * </ul>
+ * Le temps de démarrage à froid de chaque profil est enregistré dans le {@link LatencyRecorder}
+ * sous {@code browser.start.<nom du profil>}.
+ */
+public final class BrowserProfile {
+
+    static final String DEFAULT_WINDOW_SIZE = "1366x768";
+
+    // Tout ce que Chrome fait au démarrage et dont les tests n'ont pas besoin
+    private static final List<String> FAST_START_ARGUMENTS = List.of(
+            "--disable-extensions",
+            "--disable-gpu",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-sync",
+            "--no-first-run",
+            "--no-default-browser-check");
+
+    private final boolean headless;
+    private final boolean fastStart;
+    private final String windowSize;
+    private final boolean blockImages;
+
+    BrowserProfile(boolean headless, boolean fastStart, String windowSize, boolean blockImages) {
+        this.headless = headless;
+        this.fastStart = fastStart;
+        this.windowSize = windowSize;
+        this.blockImages = blockImages;
+    }
+
+    public static BrowserProfile fromSystemProperties() {
+        return fromProperties(System.getProperties());
+    }
+
+    static BrowserProfile fromProperties(Properties properties) {
+        boolean headless = Boolean.parseBoolean(properties.getProperty("headless", "false"));
+        boolean fastStart = Boolean.parseBoolean(properties.getProperty("browser.fast.start", String.valueOf(headless)));
+        String windowSize = properties.getProperty("browser.window.size", headless ? DEFAULT_WINDOW_SIZE : "");
+        boolean blockImages = Boolean.parseBoolean(properties.getProperty("browser.block.images", "false"));
+        return new BrowserProfile(headless, fastStart, windowSize.isBlank() ? null : windowSize.trim(), blockImages);
+    }
+
+    /**
+     * Même profil en forçant le mode headless (le démarrage rapide et la fenêtre fixe suivent).
+     */
+    public BrowserProfile headless() {
+        if (headless) {
+            return this;
+        }
+        return new BrowserProfile(true, true, windowSize != null ? windowSize : DEFAULT_WINDOW_SIZE, blockImages);
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public boolean blocksImages() {
+        return blockImages;
+    }
+
+    /**
+     * Vrai si la fenêtre doit être maximisée après le démarrage (pas de taille fixe).
+     */
+    public boolean maximizeWindow() {
+        return windowSize == null;
+    }
+
+    /**
+     * Nom court du profil, utilisé comme clé des temps de démarrage.
+     */
+    public String name() {
+        List<String> parts = new ArrayList<>();
+        parts.add(headless ? "headless" : "headed");
+        if (fastStart) {
+            parts.add("fast");
+        }
+        if (blockImages) {
+            parts.add("noimages");
+        }
+        return String.join("-", parts);
+    }
+
+    public ChromeOptions toChromeOptions() {
+        ChromeOptions options = new ChromeOptions();
+        // Ajouter des options pour éviter les problèmes courants
+        options.addArguments("--remote-allow-origins=*");
+        options.addArguments("--no-sandbox");
+        options.addArguments("--disable-dev-shm-usage");
+        if (headless) {
+            options.addArguments("--headless=new");
+        }
+        if (fastStart) {
+            options.addArguments(FAST_START_ARGUMENTS);
+        }
+        if (windowSize != null) {
+            options.addArguments("--window-size=" + windowSize.replace('x', ','));
+        }
+        if (blockImages) {
+            options.setExperimentalOption("prefs",
+                    Collections.<String, Object>singletonMap("profile.managed_default_content_settings.images", 2));
+        }
+        return options;
+    }
+
+    @Override
+    public String toString() {
+        return name() + (windowSize != null ? " " + windowSize : " maximisé");
+    }
+
+}
@@ -0,0 +1,63 @@
+import org.junit.Test;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la construction des options Chrome à partir des propriétés système.
+ */
+public class BrowserProfileTest {
+
+    private static List<?> arguments(ChromeOptions options) {
+        return (List<?>) ((Map<?, ?>) options.asMap().get(ChromeOptions.CAPABILITY)).get("args");
+    }
+
+    @Test
+    public void testHeadlessPropertySelectsFastStartProfile() {
+        Properties properties = new Properties();
+        properties.setProperty("headless", "true");
+
+        BrowserProfile profile = BrowserProfile.fromProperties(properties);
+        List<?> args = arguments(profile.toChromeOptions());
+
+        assertEquals("headless-fast", profile.name());
+        assertFalse(profile.maximizeWindow());
+        assertTrue(args.contains("--headless=new"));
+        assertTrue(args.contains("--disable-extensions"));
+        assertTrue(args.contains("--disable-gpu"));
+        assertTrue(args.contains("--no-first-run"));
+        assertTrue(args.contains("--window-size=1366,768"));
+    }
+
+    @Test
+    public void testDefaultProfileKeepsHeadedMaximizedWindow() {
+        BrowserProfile profile = BrowserProfile.fromProperties(new Properties());
+        List<?> args = arguments(profile.toChromeOptions());
+
+        assertEquals("headed", profile.name());
+        assertTrue(profile.maximizeWindow());
+        assertFalse(profile.blocksImages());
+        assertFalse(args.contains("--headless=new"));
+        assertFalse(args.contains("--disable-extensions"));
+        assertTrue(args.contains("--remote-allow-origins=*"));
+    }
+
+    @Test
+    public void testImageBlockingUsesContentSettings() {
+        Properties properties = new Properties();
+        properties.setProperty("browser.block.images", "true");
+        properties.setProperty("browser.window.size", "800x600");
+
+        BrowserProfile profile = BrowserProfile.fromProperties(properties).headless();
+        Map<?, ?> chrome = (Map<?, ?>) profile.toChromeOptions().asMap().get(ChromeOptions.CAPABILITY);
+
+        assertEquals("headless-fast-noimages", profile.name());
+        assertTrue(profile.blocksImages());
+        assertTrue(arguments(profile.toChromeOptions()).contains("--window-size=800,600"));
+        assertEquals(2, ((Map<?, ?>) chrome.get("prefs")).get("profile.managed_default_content_settings.images"));
+    }
+}
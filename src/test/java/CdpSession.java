@@ -0,0 +1,251 @@
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Client Chrome DevTools Protocol non bloquant, directement sur la websocket d'un onglet
+ * ({@code java.net.http.WebSocket}) au lieu des allers-retours HTTP vers chromedriver. Chaque commande
+ * renvoie un {@link CompletableFuture} complété à l'arrivée de sa réponse : les commandes indépendantes
+ * partent sans attendre les précédentes et aucun thread n'est bloqué pendant l'aller-retour.
+ *
+ * <p>Toutes les sessions partagent un petit pool de threads ({@code cdp.threads}, 2 par défaut) qui reçoit
+ * les messages : les continuations ({@code thenApply}...) ne doivent pas y bloquer.</p>
+ */
+public class CdpSession implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CdpSession.class);
+    private static final long COMMAND_TIMEOUT_MILLIS = Long.getLong("cdp.command.timeout.ms", 30_000);
+
+    private static HttpClient client;
+
+    private final Function<String, CompletionStage<?>> transport;
+    private final Runnable closer;
+    private final Json json = new Json();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Long, CompletableFuture<Map<String, Object>>> pending = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<Map<String, Object>>>> listeners = new ConcurrentHashMap<>();
+    // Les envois sur une WebSocket ne doivent pas se chevaucher : chaque trame part après la précédente
+    private CompletableFuture<?> lastSend = CompletableFuture.completedFuture(null);
+    private volatile boolean closed;
+
+    /**
+     * @param transport envoie une trame texte (la suivante n'est envoyée qu'après complétion)
+     */
+    CdpSession(Function<String, CompletionStage<?>> transport, Runnable closer) {
+        this.transport = transport;
+        this.closer = closer;
+    }
+
+    static synchronized HttpClient client() {
+        if (client == null) {
+            AtomicInteger threads = new AtomicInteger();
+            client = HttpClient.newBuilder()
+                    .executor(Executors.newFixedThreadPool(Integer.getInteger("cdp.threads", 2), runnable -> {
+                        Thread thread = new Thread(runnable, "cdp-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }))
+                    .build();
+        }
+        return client;
+    }
+
+    /**
+     * Adresse DevTools ({@code hôte:port}) du Chrome piloté par ce driver, lue dans ses capacités.
+     */
+    public static Optional<String> debuggerAddress(WebDriver driver) {
+        WebDriver unwrapped = driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+        if (!(unwrapped instanceof HasCapabilities)) {
+            return Optional.empty();
+        }
+        Object options = ((HasCapabilities) unwrapped).getCapabilities().getCapability("goog:chromeOptions");
+        if (!(options instanceof Map) || ((Map<?, ?>) options).get("debuggerAddress") == null) {
+            return Optional.empty();
+        }
+        return Optional.of(String.valueOf(((Map<?, ?>) options).get("debuggerAddress")));
+    }
+
+    /**
+     * Session sur l'onglet courant du driver (chromedriver utilise l'identifiant de cible DevTools comme handle
+     * de fenêtre). Le driver reste utilisable en parallèle : Chrome accepte plusieurs clients par onglet.
+     */
+    public static CompletableFuture<CdpSession> attach(WebDriver driver) {
+        Optional<String> address = debuggerAddress(driver);
+        if (address.isEmpty()) {
+            return CompletableFuture.failedFuture(new WebDriverException("Driver sans adresse DevTools (Chrome requis)"));
+        }
+        return connect(URI.create("ws://" + address.get() + "/devtools/page/" + driver.getWindowHandle()));
+    }
+
+    public static CompletableFuture<CdpSession> connect(URI webSocketUrl) {
+        CompletableFuture<WebSocket> socket = new CompletableFuture<>();
+        CdpSession session = new CdpSession(
+                message -> socket.thenCompose(ws -> ws.sendText(message, true)),
+                () -> socket.thenAccept(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "")));
+        client().newWebSocketBuilder()
+                .buildAsync(webSocketUrl, new Receiver(session))
+                .whenComplete((ws, error) -> {
+                    if (error != null) {
+                        socket.completeExceptionally(error);
+                    } else {
+                        socket.complete(ws);
+                    }
+                });
+        return socket.thenApply(ws -> session);
+    }
+
+    /**
+     * Envoie une commande sans attendre les précédentes ; le résultat est le champ {@code result} de la réponse.
+     */
+    public CompletableFuture<Map<String, Object>> send(String method, Map<String, Object> params) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new WebDriverException("Session DevTools fermée"));
+        }
+        long id = ids.incrementAndGet();
+        CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+        pending.put(id, response);
+        String message = json.toJson(Map.of("id", id, "method", method, "params", params));
+        synchronized (this) {
+            lastSend = lastSend.handle((ignored, error) -> null)
+                    .thenCompose(ignored -> transport.apply(message))
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            fail(id, error);
+                        }
+                    });
+        }
+        return response.orTimeout(COMMAND_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> pending.remove(id));
+    }
+
+    /**
+     * Évalue une expression JavaScript dans la page ; une promesse est attendue côté navigateur,
+     * sans occuper de thread ici. Une exception JavaScript fait échouer le futur.
+     */
+    public CompletableFuture<Object> evaluate(String expression) {
+        return send("Runtime.evaluate", Map.of("expression", expression, "awaitPromise", true, "returnByValue", true))
+                .thenApply(result -> {
+                    if (result.get("exceptionDetails") instanceof Map) {
+                        Map<?, ?> details = (Map<?, ?>) result.get("exceptionDetails");
+                        Object exception = details.get("exception");
+                        Object description = exception instanceof Map ? ((Map<?, ?>) exception).get("description") : null;
+                        throw new WebDriverException("Erreur JavaScript: " + (description != null ? description : details.get("text")));
+                    }
+                    Object remote = result.get("result");
+                    return remote instanceof Map ? ((Map<?, ?>) remote).get("value") : null;
+                });
+    }
+
+    /**
+     * Abonnement à un événement DevTools ({@code Page.loadEventFired}...), appelé sur le thread de réception.
+     */
+    public void on(String event, Consumer<Map<String, Object>> listener) {
+        listeners.computeIfAbsent(event, e -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Message reçu : réponse à une commande (par son {@code id}) ou événement.
+     */
+    @SuppressWarnings("unchecked")
+    void receive(String text) {
+        Map<String, Object> message = json.toType(text, Json.MAP_TYPE);
+        Object id = message.get("id");
+        if (id instanceof Number) {
+            CompletableFuture<Map<String, Object>> response = pending.get(((Number) id).longValue());
+            if (response == null) {
+                return;
+            }
+            if (message.get("error") instanceof Map) {
+                response.completeExceptionally(new WebDriverException("DevTools: " + ((Map<?, ?>) message.get("error")).get("message")));
+            } else {
+                response.complete(message.get("result") instanceof Map ? (Map<String, Object>) message.get("result") : Map.of());
+            }
+        } else if (message.get("method") != null) {
+            Map<String, Object> params = message.get("params") instanceof Map ? (Map<String, Object>) message.get("params") : Map.of();
+            listeners.getOrDefault(String.valueOf(message.get("method")), List.of()).forEach(listener -> listener.accept(params));
+        }
+    }
+
+    private void fail(long id, Throwable error) {
+        CompletableFuture<Map<String, Object>> response = pending.get(id);
+        if (response != null) {
+            response.completeExceptionally(error);
+        }
+    }
+
+    void failAll(Throwable error) {
+        closed = true;
+        pending.values().forEach(response -> response.completeExceptionally(error));
+    }
+
+    public int pendingCommands() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            failAll(new WebDriverException("Session DevTools fermée"));
+            closer.run();
+        }
+    }
+
+    /**
+     * Réassemble les trames texte et les transmet à la session.
+     */
+    private static final class Receiver implements WebSocket.Listener {
+        private final CdpSession session;
+        private final StringBuilder buffer = new StringBuilder();
+
+        Receiver(CdpSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            buffer.append(data);
+            if (last) {
+                String text = buffer.toString();
+                buffer.setLength(0);
+                try {
+                    session.receive(text);
+                } catch (RuntimeException e) {
+                    LOG.warn("Message DevTools illisible: {}", e.getMessage());
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            session.failAll(new WebDriverException("Websocket DevTools fermée (" + statusCode + ") " + reason));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            session.failAll(error);
+        }
+    }
+}
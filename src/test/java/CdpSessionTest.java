@@ -0,0 +1,122 @@
+import org.junit.Test;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du client DevTools asynchrone et de la page asynchrone sur un transport factice :
+ * les messages envoyés sont conservés et les réponses injectées à la main, dans n'importe quel ordre.
+ */
+public class CdpSessionTest {
+
+    private final Json json = new Json();
+    private final List<Map<String, Object>> sent = Collections.synchronizedList(new ArrayList<>());
+    private final CdpSession session = new CdpSession(message -> {
+        sent.add(json.toType(message, Json.MAP_TYPE));
+        return CompletableFuture.completedFuture(null);
+    }, () -> {
+    });
+
+    private void reply(int index, String result) {
+        session.receive("{\"id\": " + sent.get(index).get("id") + ", \"result\": " + result + "}");
+    }
+
+    @Test
+    public void testIndependentCommandsArePipelinedAndMatchedById() throws Exception {
+        CompletableFuture<Object> first = session.evaluate("1 + 1");
+        CompletableFuture<Object> second = session.evaluate("'deux'");
+
+        // Les deux commandes sont parties avant toute réponse
+        assertEquals(2, sent.size());
+        assertEquals("Runtime.evaluate", sent.get(0).get("method"));
+        assertEquals(2, session.pendingCommands());
+
+        reply(1, "{\"result\": {\"type\": \"string\", \"value\": \"deux\"}}");
+        assertFalse(first.isDone());
+        assertEquals("deux", second.get());
+        reply(0, "{\"result\": {\"type\": \"number\", \"value\": 2}}");
+        assertEquals(2L, ((Number) first.get()).longValue());
+        assertEquals(0, session.pendingCommands());
+    }
+
+    @Test
+    public void testProtocolAndJavaScriptErrorsFailTheFuture() {
+        CompletableFuture<Map<String, Object>> unknown = session.send("Nope.nope", Map.of());
+        CompletableFuture<Object> thrown = session.evaluate("throw new Error('boum')");
+
+        session.receive("{\"id\": " + sent.get(0).get("id") + ", \"error\": {\"code\": -32601, \"message\": \"'Nope.nope' wasn't found\"}}");
+        reply(1, "{\"result\": {\"type\": \"object\"}, \"exceptionDetails\": {\"text\": \"Uncaught\", \"exception\": {\"description\": \"Error: boum\"}}}");
+
+        assertTrue(cause(unknown).getMessage().contains("wasn't found"));
+        assertTrue(cause(thrown).getMessage().contains("Error: boum"));
+    }
+
+    @Test
+    public void testEventsReachListenersAndCloseFailsPendingCommands() {
+        List<Object> frames = new ArrayList<>();
+        session.on("Page.frameNavigated", params -> frames.add(params.get("frame")));
+        session.receive("{\"method\": \"Page.frameNavigated\", \"params\": {\"frame\": \"principal\"}}");
+        assertEquals(List.of("principal"), frames);
+
+        CompletableFuture<Object> pending = session.evaluate("new Promise(function () {})");
+        session.close();
+        assertTrue(cause(pending) instanceof WebDriverException);
+        assertTrue(session.send("Page.reload", Map.of()).isCompletedExceptionally());
+    }
+
+    @Test
+    public void testAsyncPageSendsIndependentReadsTogether() throws Exception {
+        AsyncLoginPage page = new AsyncLoginPage(session, "http://localhost:3000");
+
+        CompletableFuture<String> combined = page.snapshot().thenCombine(page.currentUrl(), (snapshot, url) ->
+                snapshot.emailInput().getAttribute("placeholder") + " @ " + url);
+        assertEquals(2, sent.size());
+
+        reply(1, "{\"result\": {\"type\": \"string\", \"value\": \"http://localhost:3000/login\"}}");
+        reply(0, "{\"result\": {\"type\": \"object\", \"value\": {\"elements\": {\"email\": {\"text\": \"\", \"displayed\": true,"
+                + " \"classes\": [], \"attributes\": {\"placeholder\": \"email\"}}}, \"activeElementId\": \"username\","
+                + " \"url\": \"http://localhost:3000/login\"}}}");
+        assertEquals("email @ http://localhost:3000/login", combined.get());
+    }
+
+    @Test
+    public void testAsyncLoginWaitsInThePageThenReadsTheOutcome() throws Exception {
+        AsyncLoginPage page = new AsyncLoginPage(session, "http://localhost:3000");
+
+        CompletableFuture<AsyncLoginPage.Outcome> outcome = page.login("utilisateur@test.com", "mauvais_mot_de_passe");
+        String fill = String.valueOf(((Map<?, ?>) sent.get(0).get("params")).get("expression"));
+        assertTrue(fill.endsWith("(\"utilisateur@test.com\", \"mauvais_mot_de_passe\")"));
+        reply(0, "{\"result\": {\"type\": \"boolean\", \"value\": true}}");
+
+        // Attente évaluée comme une promesse côté navigateur
+        Map<?, ?> wait = (Map<?, ?>) sent.get(1).get("params");
+        assertTrue(String.valueOf(wait.get("expression")).startsWith("new Promise"));
+        assertEquals(true, wait.get("awaitPromise"));
+        reply(1, "{\"result\": {\"type\": \"boolean\", \"value\": true}}");
+
+        assertEquals(4, sent.size());
+        reply(2, "{\"result\": {\"type\": \"string\", \"value\": \"http://localhost:3000/login\"}}");
+        reply(3, "{\"result\": {\"type\": \"string\", \"value\": \"Email ou mot de passe invalide\"}}");
+        assertFalse(outcome.get().isAuthenticated());
+        assertEquals("Email ou mot de passe invalide", outcome.get().errorMessage());
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) {
+        try {
+            future.get();
+            throw new AssertionError("Échec attendu");
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Listener Selenium qui mesure chaque commande WebDriver brute (findElement, getAttribute, executeScript...)
+ * et l'enregistre dans le {@link LatencyRecorder} sous le nom {@code Interface.méthode}.
+ */
+public class CommandTimingListener implements WebDriverListener {
+
+    // Les appels peuvent s'imbriquer (WebElement obtenu d'un findElement) : une pile par thread
+    private final ThreadLocal<Deque<Long>> starts = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        starts.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        stop(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        stop(method);
+    }
+
+    private void stop(Method method) {
+        Long start = starts.get().poll();
+        if (start != null) {
+            LatencyRecorder.shared().record(
+                    method.getDeclaringClass().getSimpleName() + "." + method.getName(), System.nanoTime() - start);
+        }
+    }
+}
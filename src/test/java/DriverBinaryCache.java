@@ -0,0 +1,261 @@
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Résolution du binaire chromedriver sans réseau. La version de Chrome installée est détectée une fois,
+ * puis le chromedriver correspondant est choisi dans un répertoire local ({@code driver.binary.dir}) ;
+ * le résultat est inscrit dans {@code index.json}, partagé par les JVM forkées sous verrou exclusif.
+ *
+ * <p>Tant que le binaire de Chrome n'a pas changé (même chemin, même date de modification) et que le
+ * chromedriver retenu existe, aucune commande n'est lancée et le réseau n'est jamais sollicité.
+ * WebDriverManager n'est utilisé qu'en dernier recours, sauf avec {@code -Ddriver.offline=true}, et le
+ * binaire téléchargé est copié dans le répertoire local pour les exécutions suivantes.</p>
+ */
+public class DriverBinaryCache {
+
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.(\\d+)\\.(\\d+)(\\.\\d+)?");
+    private static final long VERSION_TIMEOUT_SECONDS = 10;
+
+    private static final List<String> CHROME_COMMANDS =
+            List.of("google-chrome", "google-chrome-stable", "chromium", "chromium-browser", "chrome");
+    private static final List<String> CHROME_PATHS = List.of(
+            "/Applications/Google Chrome.app/Contents/MacOS/Google Chrome",
+            "C:\\Program Files\\Google\\Chrome\\Application\\chrome.exe",
+            "C:\\Program Files (x86)\\Google\\Chrome\\Application\\chrome.exe");
+
+    private static DriverBinaryCache shared;
+
+    private final Path dir;
+    private final Path binaryDir;
+    private final boolean offline;
+
+    DriverBinaryCache(Path dir, Path binaryDir, boolean offline) {
+        this.dir = dir;
+        this.binaryDir = binaryDir;
+        this.offline = offline;
+    }
+
+    /**
+     * Cache de la JVM, dans {@code driver.cache.dir} (par défaut {@code .driver-cache} à la racine du projet) ;
+     * les binaires locaux sont cherchés dans {@code driver.binary.dir} (par défaut {@code .driver-cache/bin}).
+     */
+    public static synchronized DriverBinaryCache shared() {
+        if (shared == null) {
+            Path dir = Paths.get(System.getProperty("driver.cache.dir", ".driver-cache"));
+            shared = new DriverBinaryCache(dir,
+                    Paths.get(System.getProperty("driver.binary.dir", dir.resolve("bin").toString())),
+                    Boolean.getBoolean("driver.offline"));
+        }
+        return shared;
+    }
+
+    /**
+     * Chemin du chromedriver à utiliser, publié dans {@code webdriver.chrome.driver}.
+     * Un chemin déjà fixé avec {@code -Dwebdriver.chrome.driver=...} est conservé tel quel.
+     */
+    public synchronized Path setup() {
+        String pinned = System.getProperty("webdriver.chrome.driver");
+        if (pinned != null) {
+            return Paths.get(pinned);
+        }
+        Path driver = findChrome().map(this::resolve).orElseGet(() -> download(null));
+        System.setProperty("webdriver.chrome.driver", driver.toString());
+        return driver;
+    }
+
+    /**
+     * Chromedriver correspondant à ce binaire de Chrome, depuis l'index si possible.
+     */
+    Path resolve(Path chrome) {
+        try {
+            // Verrou tenu pendant toute la résolution : deux forks ne détectent ni ne téléchargent en double
+            return new SharedFile(dir.resolve("index.json")).updateJson(json -> {
+                String key = chrome.toAbsolutePath().toString();
+                long modified = Files.getLastModifiedTime(chrome).toMillis();
+
+                Entry entry = parseEntry(json.get(key));
+                if (entry != null && entry.browserModified == modified && Files.isExecutable(entry.driver)) {
+                    return entry.driver;
+                }
+
+                Optional<String> detected = version(chrome);
+                if (detected.isEmpty()) {
+                    // Chrome sous Windows n'affiche pas sa version : détection laissée à WebDriverManager
+                    return download(null);
+                }
+                String browserVersion = detected.get();
+                Path driver = findLocalDriver(browserVersion).orElseGet(() -> download(browserVersion));
+                json.put(key, new Entry(modified, browserVersion, driver.toAbsolutePath()).toMap());
+                return driver;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Chromedriver du répertoire local de même version majeure que Chrome, la version la plus proche en premier.
+     */
+    Optional<Path> findLocalDriver(String browserVersion) {
+        if (!Files.isDirectory(binaryDir)) {
+            return Optional.empty();
+        }
+        List<Path> candidates;
+        try (Stream<Path> files = Files.walk(binaryDir)) {
+            candidates = files
+                    .filter(file -> file.getFileName().toString().matches("chromedriver(\\.exe)?"))
+                    .filter(Files::isExecutable)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Path best = null;
+        int bestScore = 0;
+        for (Path candidate : candidates) {
+            int score = matchingComponents(browserVersion, version(candidate).orElse(""));
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private Path download(String browserVersion) {
+        if (offline) {
+            throw new IllegalStateException("Aucun chromedriver pour Chrome " + browserVersion + " dans " + binaryDir
+                    + " (driver.offline=true) : y déposer le binaire correspondant");
+        }
+        WebDriverManager manager = WebDriverManager.chromedriver();
+        if (browserVersion != null) {
+            manager.browserVersion(major(browserVersion));
+        }
+        manager.setup();
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        if (browserVersion == null) {
+            return downloaded;
+        }
+        // Copie dans le répertoire local : les exécutions suivantes n'ont plus besoin du réseau
+        try {
+            Path target = binaryDir.resolve(manager.getDownloadedDriverVersion()).resolve(downloaded.getFileName());
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), "chromedriver", ".tmp");
+            Files.copy(downloaded, temp, StandardCopyOption.REPLACE_EXISTING);
+            temp.toFile().setExecutable(true);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return target;
+        } catch (IOException e) {
+            System.err.println("Copie du chromedriver impossible: " + e.getMessage());
+            return downloaded;
+        }
+    }
+
+    private static Optional<Path> findChrome() {
+        String configured = System.getProperty("chrome.binary");
+        if (configured != null) {
+            return Optional.of(Paths.get(configured));
+        }
+        for (String entry : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+            for (String command : CHROME_COMMANDS) {
+                Path candidate = Paths.get(entry, command);
+                if (Files.isExecutable(candidate)) {
+                    return Optional.of(candidate);
+                }
+            }
+        }
+        return CHROME_PATHS.stream().map(Paths::get).filter(Files::isExecutable).findFirst();
+    }
+
+    /**
+     * Version affichée par {@code <binaire> --version} ("Google Chrome 116.0.5845.96", "ChromeDriver 116.0.5845.96 (...)").
+     */
+    static Optional<String> version(Path binary) {
+        try {
+            Process process = new ProcessBuilder(binary.toString(), "--version").redirectErrorStream(true).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return Optional.empty();
+            }
+            Matcher matcher = VERSION.matcher(output);
+            return matcher.find() ? Optional.of(matcher.group()) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    static String major(String version) {
+        int dot = version.indexOf('.');
+        return dot < 0 ? version : version.substring(0, dot);
+    }
+
+    /**
+     * Nombre de composants communs en tête des deux versions, 0 si les versions majeures diffèrent.
+     */
+    static int matchingComponents(String browserVersion, String driverVersion) {
+        String[] browser = browserVersion.split("\\.");
+        String[] driver = driverVersion.split("\\.");
+        int matching = 0;
+        while (matching < Math.min(browser.length, driver.length) && browser[matching].equals(driver[matching])) {
+            matching++;
+        }
+        return matching;
+    }
+
+    private static Entry parseEntry(Object value) {
+        if (!(value instanceof Map) || !(((Map<?, ?>) value).get("browserModified") instanceof Number)) {
+            return null;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        return new Entry(((Number) map.get("browserModified")).longValue(),
+                String.valueOf(map.get("browserVersion")), Paths.get(String.valueOf(map.get("driver"))));
+    }
+
+    /**
+     * Résolution mémorisée pour un binaire de Chrome.
+     */
+    static final class Entry {
+        private final long browserModified;
+        private final String browserVersion;
+        private final Path driver;
+
+        Entry(long browserModified, String browserVersion, Path driver) {
+            this.browserModified = browserModified;
+            this.browserVersion = browserVersion;
+            this.driver = driver;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("browserModified", browserModified);
+            map.put("browserVersion", browserVersion);
+            map.put("driver", driver.toString());
+            return map;
+        }
+    }
+}
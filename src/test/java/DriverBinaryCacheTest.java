@@ -0,0 +1,107 @@
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeFalse;
+
+/**
+ * Tests de la résolution hors ligne du chromedriver, avec de faux binaires (scripts shell) qui
+ * affichent leur version et comptent leurs appels.
+ */
+public class DriverBinaryCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+    private Path calls;
+
+    @Before
+    public void setUp() {
+        assumeFalse("Faux binaires en shell", System.getProperty("os.name").startsWith("Windows"));
+        root = folder.getRoot().toPath();
+        calls = root.resolve("calls.log");
+    }
+
+    private Path fakeBinary(String relativePath, String output) throws Exception {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "#!/bin/sh\necho \"$0\" >> '" + calls + "'\necho '" + output + "'\n");
+        assertTrue(file.toFile().setExecutable(true));
+        return file;
+    }
+
+    private List<String> calls() throws Exception {
+        return Files.exists(calls) ? Files.readAllLines(calls) : List.of();
+    }
+
+    private DriverBinaryCache cache() {
+        return new DriverBinaryCache(root.resolve("cache"), root.resolve("bin"), true);
+    }
+
+    @Test
+    public void testPicksLocalDriverWithClosestVersion() throws Exception {
+        fakeBinary("bin/115/chromedriver", "ChromeDriver 115.0.5790.170 (abc)");
+        fakeBinary("bin/116.0.5845.0/chromedriver", "ChromeDriver 116.0.5845.0 (abc)");
+        Path exact = fakeBinary("bin/116.0.5845.96/chromedriver", "ChromeDriver 116.0.5845.96 (abc)");
+        Path chrome = fakeBinary("chrome/google-chrome", "Google Chrome 116.0.5845.96");
+
+        assertEquals(exact.toAbsolutePath(), cache().resolve(chrome));
+    }
+
+    @Test
+    public void testCachedResolutionRunsNoCommand() throws Exception {
+        Path driver = fakeBinary("bin/116/chromedriver", "ChromeDriver 116.0.5845.96 (abc)");
+        Path chrome = fakeBinary("chrome/google-chrome", "Google Chrome 116.0.5845.96");
+        cache().resolve(chrome);
+        int afterFirst = calls().size();
+
+        // Nouvelle instance : comme une autre JVM, l'index est relu depuis le disque
+        assertEquals(driver.toAbsolutePath(), cache().resolve(chrome));
+        assertEquals(afterFirst, calls().size());
+    }
+
+    @Test
+    public void testBrowserUpgradeInvalidatesEntry() throws Exception {
+        fakeBinary("bin/116/chromedriver", "ChromeDriver 116.0.5845.96 (abc)");
+        Path newer = fakeBinary("bin/117/chromedriver", "ChromeDriver 117.0.5938.62 (abc)");
+        Path chrome = fakeBinary("chrome/google-chrome", "Google Chrome 116.0.5845.96");
+        cache().resolve(chrome);
+
+        fakeBinary("chrome/google-chrome", "Google Chrome 117.0.5938.62");
+        Files.setLastModifiedTime(chrome, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        assertEquals(newer.toAbsolutePath(), cache().resolve(chrome));
+    }
+
+    @Test
+    public void testOfflineWithoutMatchingDriverFails() throws Exception {
+        fakeBinary("bin/115/chromedriver", "ChromeDriver 115.0.5790.170 (abc)");
+        Path chrome = fakeBinary("chrome/google-chrome", "Google Chrome 116.0.5845.96");
+
+        try {
+            cache().resolve(chrome);
+            fail("Aucun chromedriver 116 : la résolution hors ligne devrait échouer");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("116.0.5845.96"));
+        }
+    }
+
+    @Test
+    public void testVersionParsing() throws Exception {
+        Path chrome = fakeBinary("chrome/chromium", "Chromium 116.0.5845.96 snap");
+        assertEquals(Optional.of("116.0.5845.96"), DriverBinaryCache.version(chrome));
+        assertEquals(Optional.empty(), DriverBinaryCache.version(root.resolve("absent")));
+        assertEquals("116", DriverBinaryCache.major("116.0.5845.96"));
+        assertEquals(0, DriverBinaryCache.matchingComponents("116.0.1", "115.0.1"));
+        assertEquals(3, DriverBinaryCache.matchingComponents("116.0.5845.96", "116.0.5845.110"));
+    }
+}
@@ -0,0 +1,58 @@
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Session Chrome prêtée par le {@link DriverPool}. La fermeture rend la session au pool.
+ */
+public class DriverLease implements AutoCloseable {
+    private final DriverPool pool;
+    private final WebDriver driver;
+    private int uses;
+    private long leasedAt;
+    private boolean broken;
+    private boolean leased;
+
+    DriverLease(DriverPool pool, WebDriver driver) {
+        this.pool = pool;
+        this.driver = driver;
+    }
+
+    public WebDriver driver() {
+        return driver;
+    }
+
+    public int uses() {
+        return uses;
+    }
+
+    /**
+     * Signale que la session ne doit pas être réutilisée (elle sera évincée à la fermeture).
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    void markLeased() {
+        uses++;
+        leased = true;
+        broken = false;
+        leasedAt = System.nanoTime();
+    }
+
+    long markReleased() {
+        leased = false;
+        return System.nanoTime() - leasedAt;
+    }
+
+    @Override
+    public void close() {
+        if (!leased) {
+            return;
+        }
+        if (broken) {
+            pool.stats().leaseNanos.addAndGet(markReleased());
+            pool.evict(this);
+        } else {
+            pool.release(this);
+        }
+    }
+}
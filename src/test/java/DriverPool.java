@@ -0,0 +1,302 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool de sessions Chrome "chaudes" partagées entre les classes de test.
+ * Les sessions sont prêtées aux tests puis réinitialisées (cookies, storage, about:blank)
+ * au lieu d'être fermées ; une session qui ne répond plus est évincée et remplacée.
+ */
+public class DriverPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DriverPool.class);
+    private static final int DEFAULT_SIZE = 1;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 120;
+    // Une éviction libère une place sans rien remettre dans la file : l'attente se fait par petits pas
+    private static final long ACQUIRE_POLL_MILLIS = 200;
+
+    private static DriverPool shared;
+
+    private final int size;
+    private final Supplier<WebDriver> factory;
+    private final BlockingQueue<DriverLease> idle = new LinkedBlockingQueue<>();
+    private final List<DriverLease> all = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger created = new AtomicInteger();
+    private final Stats stats = new Stats();
+    private volatile boolean closed;
+
+    DriverPool(int size, Supplier<WebDriver> factory) {
+        this.size = size;
+        this.factory = factory;
+    }
+
+    /**
+     * Pool unique de la JVM ; sa taille vient de la propriété système {@code driver.pool.size}
+     * (par défaut une session, ou une par thread en mode parallèle).
+     * Les sessions sont fermées et le rapport de temps est affiché à l'arrêt de la JVM.
+     */
+    public static synchronized DriverPool shared() {
+        if (shared == null) {
+            int defaultSize = Workers.isParallel() ? Workers.threadCount() : DEFAULT_SIZE;
+            shared = new DriverPool(Math.max(1, Integer.getInteger("driver.pool.size", defaultSize)), ChromeSessions::start);
+            ShutdownHooks.register("driver-pool-shutdown", shared::shutdown);
+        }
+        return shared;
+    }
+
+    /**
+     * Ferme le pool unique s'il a été créé (démon de tests qui recharge ses classes).
+     */
+    static synchronized void shutdownShared() {
+        if (shared != null) {
+            shared.shutdown();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Stats stats() {
+        return stats;
+    }
+
+    /**
+     * Prête une session saine. Crée une nouvelle session tant que la taille du pool n'est pas atteinte,
+     * sinon attend qu'une session soit rendue ou qu'une éviction libère une place.
+     */
+    public DriverLease acquire() {
+        if (closed) {
+            throw new IllegalStateException("Le pool de drivers est fermé");
+        }
+        long waitStart = System.nanoTime();
+        long deadline = waitStart + TimeUnit.SECONDS.toNanos(ACQUIRE_TIMEOUT_SECONDS);
+        try {
+            while (true) {
+                DriverLease lease = idle.poll();
+                if (lease == null && reserveSlot()) {
+                    lease = startSession();
+                }
+                if (lease == null) {
+                    if (System.nanoTime() - deadline >= 0) {
+                        throw new IllegalStateException("Aucune session disponible après " + ACQUIRE_TIMEOUT_SECONDS + " s");
+                    }
+                    lease = idle.poll(ACQUIRE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (lease == null) {
+                        continue;
+                    }
+                }
+                if (isHealthy(lease)) {
+                    stats.waitNanos.addAndGet(System.nanoTime() - waitStart);
+                    lease.markLeased();
+                    return lease;
+                }
+                evict(lease);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu en attendant une session", e);
+        }
+    }
+
+    /**
+     * Rend une session au pool après l'avoir réinitialisée. En cas d'échec du nettoyage la session est évincée.
+     */
+    public void release(DriverLease lease) {
+        stats.leaseNanos.addAndGet(lease.markReleased());
+        stats.leases.incrementAndGet();
+        if (closed) {
+            quit(lease);
+            return;
+        }
+        long resetStart = System.nanoTime();
+        try {
+            reset(lease.driver());
+            stats.resetNanos.addAndGet(System.nanoTime() - resetStart);
+            idle.add(lease);
+        } catch (Exception e) {
+            LOG.warn("Réinitialisation de la session impossible, éviction: {}", e.getMessage());
+            evict(lease);
+        }
+    }
+
+    /**
+     * Retire définitivement une session du pool (driver planté, fenêtre fermée...).
+     */
+    public void evict(DriverLease lease) {
+        stats.evictions.incrementAndGet();
+        quit(lease);
+        created.decrementAndGet();
+    }
+
+    public synchronized void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        List<DriverLease> snapshot;
+        synchronized (all) {
+            snapshot = new ArrayList<>(all);
+        }
+        for (DriverLease lease : snapshot) {
+            quit(lease);
+        }
+        LOG.info(stats.report());
+        LOG.info(AssetInterceptor.stats().report());
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = created.get();
+            if (current >= size) {
+                return false;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private DriverLease startSession() {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = factory.get();
+            long elapsed = System.nanoTime() - start;
+            stats.startupNanos.addAndGet(elapsed);
+            stats.starts.incrementAndGet();
+            EventLog.timing("DriverPool.startSession", elapsed);
+            DriverLease lease = new DriverLease(this, driver);
+            all.add(lease);
+            return lease;
+        } catch (RuntimeException e) {
+            created.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isHealthy(DriverLease lease) {
+        try {
+            lease.driver().getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            LOG.warn("Session Chrome défaillante détectée: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void reset(WebDriver driver) {
+        // Vider le storage de l'origine courante avant de la quitter
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception e) {
+            // Pages sans storage accessible (about:blank, data:) : rien à nettoyer
+        }
+        if (driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+        driver.get("about:blank");
+    }
+
+    private void quit(DriverLease lease) {
+        all.remove(lease);
+        try {
+            lease.driver().quit();
+        } catch (Exception e) {
+            LOG.warn("Erreur lors de la fermeture du WebDriver: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Création des sessions Chrome avec les options communes à toute la suite.
+     */
+    static final class ChromeSessions {
+        private static volatile boolean driverResolved;
+
+        private ChromeSessions() {
+        }
+
+        static WebDriver start() {
+            return start(BrowserProfile.fromSystemProperties());
+        }
+
+        static WebDriver start(BrowserProfile profile) {
+            resolveDriverBinary();
+
+            // Démarrage à froid mesuré par profil, pour comparer les profils sur les agents CI
+            WebDriver driver;
+            try (LatencyRecorder.Span ignored = LatencyRecorder.start("browser.start." + profile.name())) {
+                driver = new ChromeDriver(profile.toChromeOptions());
+            }
+            // Pas d'implicit wait : il s'ajoutait aux attentes explicites et ralentissait chaque recherche négative
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            if (profile.maximizeWindow()) {
+                driver.manage().window().maximize();
+            }
+
+            // Mesure de chaque commande WebDriver brute (désactivable avec -Dtiming.webdriver=false)
+            if (Boolean.parseBoolean(System.getProperty("timing.webdriver", "true"))) {
+                driver = new EventFiringDecorator<>(new CommandTimingListener()).decorate(driver);
+            }
+            // Analytics et images bloqués, bundles JS/CSS servis depuis le cache local (désactivable avec -Dintercept.enabled=false)
+            AssetInterceptor.of(driver);
+            return driver;
+        }
+
+        // Résolution du binaire chromedriver une fois par JVM, depuis l'index disque partagé entre forks
+        private static synchronized void resolveDriverBinary() {
+            if (!driverResolved) {
+                DriverBinaryCache.shared().setup();
+                driverResolved = true;
+            }
+        }
+    }
+
+    /**
+     * Compteurs de temps : démarrage des navigateurs, durée des prêts (temps de test),
+     * nettoyage entre deux prêts et attente d'une session libre.
+     */
+    public static final class Stats {
+        final AtomicLong startupNanos = new AtomicLong();
+        final AtomicLong leaseNanos = new AtomicLong();
+        final AtomicLong resetNanos = new AtomicLong();
+        final AtomicLong waitNanos = new AtomicLong();
+        final AtomicInteger starts = new AtomicInteger();
+        final AtomicInteger leases = new AtomicInteger();
+        final AtomicInteger evictions = new AtomicInteger();
+
+        public long startupMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(startupNanos.get());
+        }
+
+        public long leaseMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(leaseNanos.get());
+        }
+
+        public String report() {
+            return "=== Pool de drivers ===\n"
+                    + "  Sessions démarrées : " + starts.get() + " (" + startupMillis() + " ms de démarrage)\n"
+                    + "  Prêts              : " + leases.get() + " (" + leaseMillis() + " ms d'exécution des tests)\n"
+                    + "  Réinitialisations  : " + TimeUnit.NANOSECONDS.toMillis(resetNanos.get()) + " ms\n"
+                    + "  Attente de session : " + TimeUnit.NANOSECONDS.toMillis(waitNanos.get()) + " ms\n"
+                    + "  Évictions          : " + evictions.get();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du pool sans navigateur : les sessions sont simulées par des proxys.
+ */
+public class DriverPoolTest {
+
+    private final List<FakeSession> sessions = new ArrayList<>();
+
+    private WebDriver newFakeDriver() {
+        FakeSession session = new FakeSession();
+        sessions.add(session);
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getWindowHandle":
+                            if (session.crashed.get()) {
+                                throw new WebDriverException("session morte");
+                            }
+                            return "window-" + sessions.indexOf(session);
+                        case "get":
+                            session.lastUrl = (String) args[0];
+                            return null;
+                        case "quit":
+                            session.quits.incrementAndGet();
+                            return null;
+                        case "manage":
+                            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                    new Class<?>[]{WebDriver.Options.class}, (p, m, a) -> null);
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testSessionIsReusedAndResetBetweenLeases() {
+        DriverPool pool = new DriverPool(1, this::newFakeDriver);
+
+        DriverLease first = pool.acquire();
+        WebDriver driver = first.driver();
+        first.close();
+
+        DriverLease second = pool.acquire();
+        assertSame("La session devrait être réutilisée", driver, second.driver());
+        assertEquals("about:blank", sessions.get(0).lastUrl);
+        assertEquals(1, pool.stats().starts.get());
+        second.close();
+    }
+
+    @Test
+    public void testBrokenSessionIsEvictedAndReplaced() {
+        DriverPool pool = new DriverPool(1, this::newFakeDriver);
+
+        DriverLease lease = pool.acquire();
+        lease.close();
+        sessions.get(0).crashed.set(true);
+
+        DriverLease replacement = pool.acquire();
+        assertEquals("Une nouvelle session devrait être démarrée", 2, sessions.size());
+        assertEquals(1, sessions.get(0).quits.get());
+        assertEquals(1, pool.stats().evictions.get());
+        replacement.close();
+    }
+
+    @Test
+    public void testMarkBrokenEvictsOnClose() {
+        DriverPool pool = new DriverPool(1, this::newFakeDriver);
+
+        DriverLease lease = pool.acquire();
+        lease.markBroken();
+        lease.close();
+
+        pool.acquire().close();
+        assertEquals(2, sessions.size());
+        assertEquals(1, sessions.get(0).quits.get());
+    }
+
+    @Test
+    public void testWaitingAcquireStartsSessionWhenAnotherIsEvicted() throws Exception {
+        DriverPool pool = new DriverPool(1, this::newFakeDriver);
+        DriverLease lease = pool.acquire();
+
+        CompletableFuture<DriverLease> waiting = CompletableFuture.supplyAsync(pool::acquire);
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertFalse("Le pool est plein : l'emprunt devrait attendre", waiting.isDone());
+
+        // L'éviction ne rend rien à la file, mais libère une place
+        lease.markBroken();
+        lease.close();
+
+        DriverLease replacement = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(2, pool.stats().starts.get());
+        replacement.close();
+    }
+
+    @Test
+    public void testSessionRecycledOnLastTestIsEvictedAfterClass() throws Throwable {
+        DriverPool pool = new DriverPool(1, this::newFakeDriver);
+        PerWorkerDriverRule workerDrivers = new PerWorkerDriverRule(pool);
+        Statement lastTest = new Statement() {
+            @Override
+            public void evaluate() {
+                workerDrivers.driver();
+                // Seuil de ressources dépassé au dernier test de la classe
+                workerDrivers.recycleCurrent();
+            }
+        };
+        System.setProperty("timeouts.calibrate", "false");
+        try {
+            workerDrivers.apply(lastTest, Description.EMPTY).evaluate();
+        } finally {
+            System.clearProperty("timeouts.calibrate");
+        }
+
+        assertEquals(1, sessions.get(0).quits.get());
+        pool.acquire().close();
+        assertEquals("La classe suivante devrait recevoir une nouvelle session", 2, sessions.size());
+    }
+
+    @Test
+    public void testWorkerSessionIsReleasedAfterEachTestWhenParallel() throws Throwable {
+        DriverPool pool = new DriverPool(1, this::newFakeDriver);
+        PerWorkerDriverRule workerDrivers = new PerWorkerDriverRule(pool);
+        Statement test = new Statement() {
+            @Override
+            public void evaluate() {
+                workerDrivers.driver();
+            }
+        };
+        System.setProperty("test.parallel", "true");
+        System.setProperty("timeouts.calibrate", "false");
+        try {
+            workerDrivers.perTestWhenParallel().apply(test, Description.EMPTY).evaluate();
+        } finally {
+            System.clearProperty("test.parallel");
+            System.clearProperty("timeouts.calibrate");
+        }
+
+        // Pool d'une session : un emprunt par test d'une autre classe ne doit pas attendre la fin de la classe
+        DriverLease lease = pool.acquire();
+        assertEquals(1, sessions.size());
+        lease.close();
+    }
+
+    private static final class FakeSession {
+        final AtomicBoolean crashed = new AtomicBoolean();
+        final AtomicInteger quits = new AtomicInteger();
+        volatile String lastUrl;
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Journal d'événements en mémoire, un tampon circulaire préalloué par thread : enregistrer un événement
+ * ne fait qu'écrire des références et des {@code long} dans des tableaux, sans formatage ni console.
+ * Le tampon du test en cours n'est écrit dans un fichier qu'en cas d'échec ({@link EventLogRule}),
+ * avec les secrets masqués.
+ *
+ * <p>Capacité par thread {@code eventlog.capacity} (1024 événements, les plus anciens sont écrasés) ;
+ * {@code -Deventlog.echo=true} recopie en plus chaque événement sur la console.</p>
+ */
+public final class EventLog {
+
+    /**
+     * Type d'événement.
+     */
+    public enum Kind {
+        STEP, URL, TIMING, SELECTOR, INFO, ERROR
+    }
+
+    private static final int CAPACITY = Math.max(16, Integer.getInteger("eventlog.capacity", 1024));
+    private static final boolean ECHO = Boolean.getBoolean("eventlog.echo");
+    private static final String MASK = "****";
+
+    // Jetons qui ne doivent jamais apparaître en clair dans un fichier : JWT et paires clé=valeur sensibles
+    private static final Pattern JWT = Pattern.compile("eyJ[\\w-]+\\.[\\w-]+\\.[\\w-]+");
+    private static final Pattern SECRET_PAIR = Pattern.compile(
+            "(?i)((?:password|passwd|pwd|token|jwt|secret|authorization)[\"']?\\s*[:=]\\s*[\"']?)[^\\s\"',;&}]+");
+
+    private static final Set<String> SECRETS = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Buffer> BUFFERS = ThreadLocal.withInitial(() -> new Buffer(CAPACITY));
+
+    private EventLog() {
+    }
+
+    public static void step(String step) {
+        record(Kind.STEP, step, null, 0);
+    }
+
+    public static void url(String step, String url) {
+        record(Kind.URL, step, url, 0);
+    }
+
+    public static void timing(String step, long nanos) {
+        record(Kind.TIMING, step, null, nanos);
+    }
+
+    public static void selector(String step, String selector, boolean found) {
+        record(Kind.SELECTOR, step, selector, found ? 1 : 0);
+    }
+
+    public static void info(String step, String detail) {
+        record(Kind.INFO, step, detail, 0);
+    }
+
+    public static void error(String step, Throwable error) {
+        record(Kind.ERROR, step, error.getClass().getSimpleName() + ": " + error.getMessage(), 0);
+    }
+
+    public static void error(String step, String message) {
+        record(Kind.ERROR, step, message, 0);
+    }
+
+    /**
+     * Attente expirée que l'appelant absorbe au lieu de lever une exception : enregistrée comme erreur et comptée,
+     * pour qu'une assertion en échec qui la suit soit classée {@link FailureCategory#TIMEOUT} par la {@link RetryRule}.
+     */
+    public static void timeout(String step, String detail) {
+        BUFFERS.get().timeouts++;
+        record(Kind.ERROR, step, "délai dépassé: " + detail, 0);
+    }
+
+    /**
+     * Nombre d'attentes expirées ({@link #timeout}) sur le thread courant depuis {@link #begin()}.
+     */
+    public static int timeouts() {
+        return BUFFERS.get().timeouts;
+    }
+
+    /**
+     * Valeur à masquer dans les fichiers écrits (mot de passe saisi, jeton...).
+     */
+    public static void registerSecret(String secret) {
+        if (secret != null && !secret.isEmpty()) {
+            SECRETS.add(secret);
+        }
+    }
+
+    /**
+     * Vide le tampon du thread courant : début d'un test.
+     */
+    public static void begin() {
+        BUFFERS.get().clear();
+    }
+
+    public static int size() {
+        return BUFFERS.get().size();
+    }
+
+    /**
+     * Écrit le tampon du thread courant, du plus ancien au plus récent événement, secrets masqués.
+     */
+    public static void dump(Path file) throws IOException {
+        Buffer buffer = BUFFERS.get();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            int size = buffer.size();
+            if (buffer.dropped() > 0) {
+                writer.write("(" + buffer.dropped() + " événements plus anciens écrasés)\n");
+            }
+            for (int i = 0; i < size; i++) {
+                writer.write(buffer.format(i));
+                writer.write('\n');
+            }
+        }
+    }
+
+    static String mask(String text) {
+        if (text == null) {
+            return null;
+        }
+        String masked = text;
+        for (String secret : SECRETS) {
+            masked = masked.replace(secret, MASK);
+        }
+        masked = JWT.matcher(masked).replaceAll(MASK);
+        return SECRET_PAIR.matcher(masked).replaceAll("$1" + MASK);
+    }
+
+    private static void record(Kind kind, String step, String detail, long value) {
+        Buffer buffer = BUFFERS.get();
+        int slot = buffer.add(kind, step, detail, value);
+        if (ECHO) {
+            System.out.println(buffer.format(slot - buffer.first()));
+        }
+    }
+
+    /**
+     * Tampon circulaire d'un thread ; les tableaux sont alloués une fois pour toutes.
+     */
+    private static final class Buffer {
+        private final long[] nanos;
+        private final Kind[] kinds;
+        private final String[] steps;
+        private final String[] details;
+        private final long[] values;
+        private long start = System.nanoTime();
+        // Nombre total d'événements écrits depuis begin()
+        private int written;
+        private int timeouts;
+
+        Buffer(int capacity) {
+            nanos = new long[capacity];
+            kinds = new Kind[capacity];
+            steps = new String[capacity];
+            details = new String[capacity];
+            values = new long[capacity];
+        }
+
+        int add(Kind kind, String step, String detail, long value) {
+            int slot = written % nanos.length;
+            nanos[slot] = System.nanoTime();
+            kinds[slot] = kind;
+            steps[slot] = step;
+            details[slot] = detail;
+            values[slot] = value;
+            return written++;
+        }
+
+        void clear() {
+            Arrays.fill(steps, null);
+            Arrays.fill(details, null);
+            written = 0;
+            timeouts = 0;
+            start = System.nanoTime();
+        }
+
+        int size() {
+            return Math.min(written, nanos.length);
+        }
+
+        int dropped() {
+            return written - size();
+        }
+
+        // Index absolu du plus ancien événement encore présent
+        int first() {
+            return written - size();
+        }
+
+        // i-ème événement présent, du plus ancien au plus récent
+        String format(int i) {
+            int slot = (first() + i) % nanos.length;
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "+%10.3f ms %-8s %s",
+                    (nanos[slot] - start) / 1e6, kinds[slot], steps[slot]));
+            switch (kinds[slot]) {
+                case TIMING:
+                    line.append(String.format(Locale.ROOT, " %.3f ms", TimeUnit.NANOSECONDS.toMicros(values[slot]) / 1e3));
+                    break;
+                case SELECTOR:
+                    line.append(' ').append(details[slot]).append(values[slot] == 1 ? " trouvé" : " absent");
+                    break;
+                default:
+                    if (details[slot] != null) {
+                        line.append(' ').append(mask(details[slot]));
+                    }
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Règle JUnit qui repart d'un {@link EventLog} vide à chaque test et l'écrit dans
+ * {@code target/event-logs/<Classe>.<méthode>.log} uniquement si le test échoue.
+ */
+public class EventLogRule extends TestWatcher {
+
+    static Path logDir() {
+        return Paths.get(System.getProperty("eventlog.dir", "target/event-logs"));
+    }
+
+    @Override
+    protected void starting(Description description) {
+        EventLog.begin();
+        EventLog.step(description.getClassName() + "." + description.getMethodName());
+    }
+
+    @Override
+    protected void failed(Throwable e, Description description) {
+        EventLog.error("test", e);
+        Path file = logDir().resolve(description.getClassName() + "." + description.getMethodName() + ".log");
+        try {
+            EventLog.dump(file);
+            System.err.println("Journal du test en échec: " + file);
+        } catch (IOException io) {
+            System.err.println("Impossible d'écrire le journal du test: " + io.getMessage());
+        }
+    }
+}
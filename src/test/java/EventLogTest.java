@@ -0,0 +1,70 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du tampon circulaire d'événements et du masquage des secrets.
+ */
+public class EventLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDumpKeepsMostRecentEventsInOrder() throws Exception {
+        EventLog.begin();
+        for (int i = 0; i < 1030; i++) {
+            EventLog.info("step", "event-" + i);
+        }
+        assertEquals(1024, EventLog.size());
+
+        Path file = folder.getRoot().toPath().resolve("test.log");
+        EventLog.dump(file);
+        List<String> lines = Files.readAllLines(file);
+
+        assertEquals("(6 événements plus anciens écrasés)", lines.get(0));
+        assertTrue(lines.get(1).endsWith("INFO     step event-6"));
+        assertTrue(lines.get(1024).endsWith("INFO     step event-1029"));
+    }
+
+    @Test
+    public void testSecretsAreMaskedInDump() throws Exception {
+        EventLog.begin();
+        EventLog.registerSecret("s3cr3t-pass");
+        EventLog.error("LoginPage.fillLoginForm", "saisie refusée pour s3cr3t-pass");
+        EventLog.info("LoginPage.login", "Authorization: eyJhbGciOi.eyJzdWIiOiIx.c2lnbmF0dXJl");
+        EventLog.url("LoginPage.open", "http://localhost:3005/login?token=abc123&lang=fr");
+        EventLog.selector("LoginPage.waitForErrorMessage", ".errmsg", false);
+
+        Path file = folder.getRoot().toPath().resolve("secrets.log");
+        EventLog.dump(file);
+        String dump = Files.readString(file);
+
+        assertFalse(dump.contains("s3cr3t-pass"));
+        assertFalse(dump.contains("eyJhbGciOi"));
+        assertFalse(dump.contains("abc123"));
+        assertTrue(dump.contains("token=****&lang=fr"));
+        assertTrue(dump.contains(".errmsg absent"));
+    }
+
+    @Test
+    public void testLatencySpansAreRecordedAsTimingEvents() throws Exception {
+        EventLog.begin();
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.open")) {
+            EventLog.step("LoginPage.open");
+        }
+
+        Path file = folder.getRoot().toPath().resolve("timing.log");
+        EventLog.dump(file);
+        List<String> lines = Files.readAllLines(file);
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).matches(".*TIMING\\s+LoginPage\\.open [0-9.]+ ms"));
+    }
+}
@@ -0,0 +1,77 @@
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Catégorie d'un échec de test, déduite de l'exception et de ses causes. Les catégories sont
+ * essayées dans l'ordre de déclaration : un délai dépassé dont la cause est un navigateur planté
+ * est un {@link #DRIVER_CRASH}, une attente expirée sur un élément jamais apparu un {@link #ELEMENT_NOT_FOUND}.
+ */
+public enum FailureCategory {
+
+    // Session ou navigateur perdu : chromedriver injoignable, onglet planté, session supprimée
+    DRIVER_CRASH(t -> t instanceof NoSuchSessionException
+            || t instanceof SessionNotCreatedException
+            || t instanceof UnreachableBrowserException
+            || (t instanceof WebDriverException && mentionsCrash(t.getMessage()))),
+    STALE_ELEMENT(t -> t instanceof StaleElementReferenceException),
+    ELEMENT_NOT_FOUND(t -> t instanceof NoSuchElementException),
+    // Attente explicite expirée (WebDriverWait) ou script asynchrone trop long
+    TIMEOUT(t -> t instanceof TimeoutException || t instanceof ScriptTimeoutException),
+    ASSERTION(t -> t instanceof AssertionError),
+    OTHER(t -> true);
+
+    private static final String[] CRASH_MESSAGES = {
+            "chrome not reachable", "disconnected", "session deleted", "target crashed", "tab crashed", "invalid session id"};
+
+    private final Predicate<Throwable> matcher;
+
+    FailureCategory(Predicate<Throwable> matcher) {
+        this.matcher = matcher;
+    }
+
+    /**
+     * Catégorie de l'échec : la première (dans l'ordre de déclaration) qui correspond à l'exception ou à l'une de ses causes.
+     */
+    public static FailureCategory classify(Throwable failure) {
+        for (FailureCategory category : values()) {
+            for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+                if (category != OTHER && category.matcher.test(t)) {
+                    return category;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Comme {@link #classify(Throwable)}, mais une assertion qui suit une attente expirée et absorbée par la page
+     * ({@link EventLog#timeout}) est un {@link #TIMEOUT} : la redirection lente ou le message tardif en est la cause.
+     */
+    public static FailureCategory classify(Throwable failure, boolean waitTimedOut) {
+        FailureCategory category = classify(failure);
+        return category == ASSERTION && waitTimedOut ? TIMEOUT : category;
+    }
+
+    private static boolean mentionsCrash(String message) {
+        if (message == null) {
+            return false;
+        }
+        // Le message des exceptions Selenium se termine par des informations de build : seule la première ligne compte
+        String firstLine = message.split("\n", 2)[0].toLowerCase(Locale.ROOT);
+        for (String crash : CRASH_MESSAGES) {
+            if (firstLine.contains(crash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Driver simulé (sans navigateur) pour les tests unitaires : seules les méthodes déclarées avec
+ * {@link #on(String, Answer)} répondent, toute autre lève {@link UnsupportedOperationException}.
+ * {@code hashCode} et {@code equals} suivent l'identité, pour que le driver serve de clé (pools, moniteurs).
+ */
+final class FakeDriver<T> {
+
+    /**
+     * Réponse à un appel ; {@code args} est vide pour une méthode sans paramètre.
+     */
+    interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+
+    private final Class<T> type;
+    private final List<Class<?>> interfaces = new ArrayList<>();
+    private final Map<String, Answer> answers = new HashMap<>();
+
+    private FakeDriver(Class<T> type, Class<?>... extraInterfaces) {
+        this.type = type;
+        interfaces.add(type);
+        interfaces.addAll(List.of(extraInterfaces));
+    }
+
+    /**
+     * Driver implémentant aussi {@code extraInterfaces} ({@code JavascriptExecutor}, {@code HasCdp}...).
+     */
+    static FakeDriver<WebDriver> driver(Class<?>... extraInterfaces) {
+        return new FakeDriver<>(WebDriver.class, extraInterfaces);
+    }
+
+    /**
+     * Objet renvoyé par le driver ({@code WebDriver.TargetLocator}, {@code WebDriver.Options}...).
+     */
+    static <T> FakeDriver<T> of(Class<T> type) {
+        return new FakeDriver<>(type);
+    }
+
+    FakeDriver<T> on(String method, Answer answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    T build() {
+        return type.cast(Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                (proxy, method, args) -> {
+                    Answer answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.answer(args == null ? new Object[0] : args);
+                    }
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+    }
+}
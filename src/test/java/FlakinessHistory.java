@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Score d'instabilité de chaque test ({@code Classe#méthode}), conservé d'une exécution à l'autre :
+ * moyenne lissée des exécutions qui ont eu besoin d'un nouvel essai ou qui ont épuisé leurs essais sur un échec
+ * relançable (timing, environnement). Un échec déterministe (assertion, élément introuvable) est compté mais ne
+ * fait pas monter le score : une vraie régression reste rouge au lieu de partir en quarantaine. Un test
+ * chroniquement instable (score d'au moins {@code flaky.quarantine.threshold}, 0.3, sur au moins
+ * {@value #QUARANTINE_MIN_RUNS} exécutions) est mis en quarantaine par la {@link RetryRule}.
+ *
+ * <p>Fichier {@code flaky.history.file} (par défaut {@code flaky-tests.json} à la racine du projet, à conserver
+ * entre les exécutions CI). Les résultats de la JVM sont fusionnés dans le fichier à l'arrêt, sous verrou.</p>
+ */
+public class FlakinessHistory {
+
+    /**
+     * Issue d'une exécution de test.
+     */
+    public enum Outcome {
+        PASSED,
+        /** Échoué puis réussi à un nouvel essai. */
+        FLAKY,
+        /** Échec relançable (timing, environnement) encore présent au dernier essai. */
+        EXHAUSTED,
+        /** Échec déterministe, sans nouvel essai. */
+        FAILED;
+
+        boolean isUnstable() {
+            return this == FLAKY || this == EXHAUSTED;
+        }
+    }
+
+    // Poids de la nouvelle exécution dans le score lissé
+    private static final double SMOOTHING = 0.2;
+    private static final int QUARANTINE_MIN_RUNS = 5;
+
+    private static FlakinessHistory shared;
+
+    private final Path file;
+    private final double quarantineThreshold;
+    private final Map<String, Entry> entries;
+    private final Map<String, List<Outcome>> recorded = new HashMap<>();
+
+    FlakinessHistory(Path file, double quarantineThreshold) {
+        this.file = file;
+        this.quarantineThreshold = quarantineThreshold;
+        this.entries = read(file);
+    }
+
+    public static synchronized FlakinessHistory shared() {
+        if (shared == null) {
+            shared = new FlakinessHistory(Paths.get(System.getProperty("flaky.history.file", "flaky-tests.json")),
+                    Double.parseDouble(System.getProperty("flaky.quarantine.threshold", "0.3")));
+            FlakinessHistory history = shared;
+            ShutdownHooks.register("flaky-history", () -> {
+                try {
+                    history.save();
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'écriture de l'historique d'instabilité: " + e.getMessage());
+                }
+            });
+        }
+        return shared;
+    }
+
+    public synchronized void record(String test, Outcome outcome) {
+        recorded.computeIfAbsent(test, t -> new ArrayList<>()).add(outcome);
+    }
+
+    /**
+     * Score d'instabilité connu au démarrage de la JVM (0 pour un test inconnu).
+     */
+    public synchronized double score(String test) {
+        Entry entry = entries.get(test);
+        return entry == null ? 0 : entry.score;
+    }
+
+    public synchronized boolean isQuarantined(String test) {
+        Entry entry = entries.get(test);
+        return entry != null && entry.runs >= QUARANTINE_MIN_RUNS && entry.score >= quarantineThreshold;
+    }
+
+    /**
+     * Fusionne les résultats de cette JVM dans le fichier ({@link SharedFile}).
+     */
+    public void save() throws IOException {
+        Map<String, List<Outcome>> outcomes;
+        synchronized (this) {
+            if (recorded.isEmpty()) {
+                return;
+            }
+            outcomes = new HashMap<>(recorded);
+            recorded.clear();
+        }
+        Map<String, Entry> merged = new SharedFile(file).updateJson(json -> {
+            Map<String, Entry> current = parse(json);
+            outcomes.forEach((test, results) -> {
+                Entry entry = current.computeIfAbsent(test, t -> new Entry());
+                results.forEach(entry::add);
+            });
+            current.forEach((test, entry) -> json.put(test, entry.toMap()));
+            return current;
+        });
+        synchronized (this) {
+            entries.putAll(merged);
+        }
+    }
+
+    /**
+     * Tests en quarantaine, du plus instable au moins instable, pour le rapport de fin d'exécution.
+     */
+    public synchronized String quarantineReport() {
+        StringBuilder report = new StringBuilder();
+        entries.entrySet().stream()
+                .filter(e -> isQuarantined(e.getKey()))
+                .sorted((a, b) -> Double.compare(b.getValue().score, a.getValue().score))
+                .forEach(e -> report.append(String.format(Locale.ROOT, "%n  %s score=%.2f (%d exécutions, %d instables, %d échecs)",
+                        e.getKey(), e.getValue().score, e.getValue().runs, e.getValue().flaky, e.getValue().failed)));
+        return report.length() == 0 ? "Aucun test en quarantaine" : "Tests en quarantaine:" + report;
+    }
+
+    private static Map<String, Entry> read(Path file) {
+        return parse(new SharedFile(file).readJson());
+    }
+
+    private static Map<String, Entry> parse(Map<String, Object> raw) {
+        Map<String, Entry> entries = new HashMap<>();
+        raw.forEach((test, value) -> {
+            if (value instanceof Map) {
+                entries.put(test, Entry.from((Map<?, ?>) value));
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Historique d'un test : compteurs et score lissé.
+     */
+    static final class Entry {
+        private int runs;
+        private int flaky;
+        private int failed;
+        private double score;
+
+        void add(Outcome outcome) {
+            runs++;
+            if (outcome == Outcome.FLAKY) {
+                flaky++;
+            } else if (outcome == Outcome.EXHAUSTED || outcome == Outcome.FAILED) {
+                failed++;
+            }
+            // Un échec déterministe ne dit rien de l'instabilité du test : le score n'en tient pas compte
+            if (outcome != Outcome.FAILED) {
+                score = score * (1 - SMOOTHING) + (outcome.isUnstable() ? SMOOTHING : 0);
+            }
+        }
+
+        static Entry from(Map<?, ?> map) {
+            Entry entry = new Entry();
+            entry.runs = number(map.get("runs")).intValue();
+            entry.flaky = number(map.get("flaky")).intValue();
+            entry.failed = number(map.get("failed")).intValue();
+            entry.score = number(map.get("score")).doubleValue();
+            return entry;
+        }
+
+        private static Number number(Object value) {
+            return value instanceof Number ? (Number) value : 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("runs", runs);
+            map.put("flaky", flaky);
+            map.put("failed", failed);
+            map.put("score", Math.round(score * 1000) / 1000.0);
+            return map;
+        }
+    }
+}
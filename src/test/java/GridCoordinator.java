@@ -0,0 +1,392 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Coordinateur de la grille locale : distribue les méthodes de test aux {@link GridWorker} (JVM sur cette
+ * machine ou sur d'autres) selon leur capacité, avec vol de travail ({@link GridWorkQueue}), puis fusionne
+ * résultats, captures d'écran et latences dans {@code target/grid}. Sans Selenium Grid ni service externe.
+ * Protocole texte, une ligne par message :
+ * <ul>
+ *     <li>worker : {@code REGISTER <nom> <capacité>}, puis {@code RESULT <statut> <ms> <Classe#méthode> [message]}
+ *     pour chaque test, et après {@code DONE} ses fichiers {@code FILE <chemin relatif> <base64>} puis {@code BYE} ;</li>
+ *     <li>coordinateur : {@code TEST <Classe#méthode>} (au plus un par place libre du worker), {@code DONE} quand
+ *     il n'y a plus rien à exécuter.</li>
+ * </ul>
+ * Les tests d'un worker dont la connexion tombe sont redonnés aux autres.
+ */
+public class GridCoordinator implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final GridWorkQueue queue;
+    private final TestDurationHistory history;
+    private final Path outputDir;
+    private final int expectedWorkers;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<String, Integer> capacities = new ConcurrentHashMap<>();
+    private final List<Result> results = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean stopping;
+    private volatile boolean closed;
+    private long startNanos;
+
+    /**
+     * @param expectedWorkers nombre de workers attendus avant la répartition initiale ; ceux qui arrivent
+     *                        ensuite démarrent en volant du travail
+     */
+    public GridCoordinator(InetAddress bind, int port, GridWorkQueue queue, TestDurationHistory history,
+                           Path outputDir, int expectedWorkers) throws IOException {
+        this.server = new ServerSocket();
+        this.server.bind(new InetSocketAddress(bind, port));
+        this.queue = queue;
+        this.history = history;
+        this.outputDir = outputDir;
+        this.expectedWorkers = expectedWorkers;
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Accepte les workers en arrière-plan, un thread par connexion.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        Thread acceptor = new Thread(() -> {
+            while (!closed) {
+                try {
+                    Socket socket = server.accept();
+                    Thread handler = new Thread(() -> handle(socket), "grid-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    if (!closed) {
+                        System.err.println("Connexion d'un worker refusée: " + e.getMessage());
+                    }
+                }
+            }
+        }, "grid-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Attend les workers prévus (au plus {@code registerTimeoutMillis}), répartit les tests puis attend leur fin
+     * et les fichiers des workers. Si plus aucun worker n'est connecté pendant {@code idleTimeoutMillis},
+     * les tests restants sont comptés en échec.
+     */
+    public List<Result> await(long registerTimeoutMillis, long idleTimeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(registerTimeoutMillis);
+        synchronized (this) {
+            while (queue.workerCount() < expectedWorkers && System.nanoTime() < deadline) {
+                wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        }
+        queue.distribute();
+        System.out.println("Grille : " + queue.workerCount() + " worker(s) inscrit(s), capacité totale "
+                + capacities.values().stream().mapToInt(Integer::intValue).sum());
+        fillAll();
+
+        long idleSince = -1;
+        synchronized (this) {
+            while (!queue.isFinished()) {
+                if (!connections.isEmpty()) {
+                    idleSince = -1;
+                } else if (idleSince < 0) {
+                    idleSince = System.nanoTime();
+                } else if (System.nanoTime() - idleSince > TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis)) {
+                    for (String test : queue.remaining()) {
+                        results.add(new Result(test, "-", "FAILED", 0, "aucun worker disponible"));
+                    }
+                    break;
+                }
+                wait(Math.min(1000, Math.max(1, idleTimeoutMillis)));
+            }
+        }
+        stopping = true;
+        fillAll();
+
+        // Fichiers des workers (captures, latences) envoyés après DONE
+        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        synchronized (this) {
+            while (!connections.isEmpty() && System.nanoTime() < deadline) {
+                wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
+        }
+        return results();
+    }
+
+    public List<Result> results() {
+        synchronized (results) {
+            return new ArrayList<>(results);
+        }
+    }
+
+    private void handle(Socket socket) {
+        String name = null;
+        boolean bye = false;
+        try (socket) {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            String[] register = Optional.ofNullable(in.readLine()).orElse("").trim().split("\\s+");
+            if (register.length != 3 || !register[0].equals("REGISTER")) {
+                out.println("ERROR REGISTER <nom> <capacité> attendu");
+                return;
+            }
+            int capacity = Integer.parseInt(register[2]);
+            queue.register(register[1], capacity);
+            name = register[1];
+            capacities.put(name, capacity);
+            Connection connection = new Connection(name, out, capacity);
+            connections.put(name, connection);
+            System.out.println("Worker " + name + " inscrit (capacité " + capacity + ")");
+            signal();
+            fill(connection);
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("RESULT ")) {
+                    onResult(connection, line);
+                } else if (line.startsWith("FILE ")) {
+                    onFile(name, line);
+                } else if (line.equals("BYE")) {
+                    bye = true;
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Connexion au worker " + name + " interrompue: " + e.getMessage());
+        } finally {
+            if (name != null) {
+                connections.remove(name);
+                if (!bye) {
+                    List<String> requeued = queue.remove(name);
+                    if (!requeued.isEmpty()) {
+                        System.err.println("Worker " + name + " perdu, " + requeued.size() + " test(s) redistribué(s)");
+                    }
+                    fillAll();
+                }
+            }
+            signal();
+        }
+    }
+
+    private void onResult(Connection connection, String line) {
+        // RESULT <statut> <ms> <Classe#méthode> [message]
+        String[] parts = line.split(" ", 5);
+        String status = parts[1];
+        long millis = Long.parseLong(parts[2]);
+        String test = parts[3];
+        results.add(new Result(test, connection.name, status, millis, parts.length > 4 ? parts[4] : ""));
+        if (!status.equals("IGNORED")) {
+            history.record(test, TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        queue.complete(connection.name, test);
+        synchronized (connection) {
+            connection.idle++;
+        }
+        if (queue.isFinished()) {
+            fillAll();
+            signal();
+        } else {
+            fill(connection);
+        }
+    }
+
+    private void onFile(String worker, String line) throws IOException {
+        // FILE <chemin relatif> <base64>
+        String[] parts = line.split(" ", 3);
+        Path root = outputDir.resolve(worker).toAbsolutePath().normalize();
+        Path target = root.resolve(parts[1]).normalize();
+        if (!target.startsWith(root)) {
+            throw new IOException("Chemin refusé: " + parts[1]);
+        }
+        Files.createDirectories(target.getParent());
+        Files.write(target, Base64.getDecoder().decode(parts.length > 2 ? parts[2] : ""));
+    }
+
+    private void fillAll() {
+        connections.values().forEach(this::fill);
+    }
+
+    // Un test par place libre, puis DONE quand il n'y a plus rien à exécuter
+    private void fill(Connection connection) {
+        synchronized (connection) {
+            while (connection.idle > 0) {
+                Optional<String> test = queue.next(connection.name);
+                if (test.isEmpty()) {
+                    break;
+                }
+                connection.idle--;
+                connection.out.println("TEST " + test.get());
+            }
+            if (!connection.done && (stopping || queue.isFinished())) {
+                connection.done = true;
+                connection.out.println("DONE");
+            }
+        }
+    }
+
+    private synchronized void signal() {
+        notifyAll();
+    }
+
+    /**
+     * Écrit {@code results.csv}, {@code steps.csv} (latences des workers fusionnées) et {@code report.txt}.
+     *
+     * @return le résumé, aussi affiché en console
+     */
+    public String writeReport() throws IOException {
+        List<Result> snapshot = results();
+        snapshot.sort((a, b) -> a.test.compareTo(b.test));
+        Files.createDirectories(outputDir);
+
+        StringBuilder csv = new StringBuilder("test,worker,status,duration_ms,screenshots,message\n");
+        for (Result result : snapshot) {
+            csv.append(result.test).append(',').append(result.worker).append(',').append(result.status).append(',')
+                    .append(result.millis).append(',').append(String.join(" ", screenshots(result)))
+                    .append(',').append(csvField(result.message)).append('\n');
+        }
+        Files.writeString(outputDir.resolve("results.csv"), csv, StandardCharsets.UTF_8);
+        mergeSteps();
+
+        long failed = snapshot.stream().filter(result -> result.status.equals("FAILED")).count();
+        long passed = snapshot.stream().filter(result -> result.status.equals("PASSED")).count();
+        StringBuilder report = new StringBuilder("=== Grille locale ===\n");
+        report.append(String.format("  Tests   : %d (%d réussis, %d en échec, %d ignorés) en %d ms%n", snapshot.size(), passed, failed,
+                snapshot.size() - passed - failed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+        Map<String, int[]> counters = queue.counters();
+        for (Map.Entry<String, Integer> worker : new TreeMap<>(capacities).entrySet()) {
+            int[] counter = counters.getOrDefault(worker.getKey(), new int[2]);
+            long busy = snapshot.stream().filter(result -> result.worker.equals(worker.getKey())).mapToLong(result -> result.millis).sum();
+            report.append(String.format("  %-20s capacité %d : %d test(s), %d volé(s), %d ms de tests%n",
+                    worker.getKey(), worker.getValue(), counter[0], counter[1], busy));
+        }
+        snapshot.stream().filter(result -> result.status.equals("FAILED")).forEach(result ->
+                report.append("  ÉCHEC ").append(result.test).append(" (").append(result.worker).append(") : ")
+                        .append(result.message).append('\n'));
+        report.append("  Détail : ").append(outputDir.resolve("results.csv"));
+        Files.writeString(outputDir.resolve("report.txt"), report, StandardCharsets.UTF_8);
+        System.out.println(report);
+        return report.toString();
+    }
+
+    // Captures reçues du worker dont le nom commence par celui de la méthode (voir ScreenshotWriter)
+    private List<String> screenshots(Result result) throws IOException {
+        Path dir = outputDir.resolve(result.worker).resolve("screenshots");
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        String method = result.test.substring(result.test.indexOf('#') + 1) + "_";
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(method))
+                    .map(file -> outputDir.relativize(file).toString().replace('\\', '/'))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void mergeSteps() throws IOException {
+        StringBuilder merged = new StringBuilder();
+        for (String worker : new TreeMap<>(capacities).keySet()) {
+            Path steps = outputDir.resolve(worker).resolve("timing").resolve("steps.csv");
+            if (!Files.exists(steps)) {
+                continue;
+            }
+            List<String> lines = Files.readAllLines(steps, StandardCharsets.UTF_8);
+            if (merged.length() == 0 && !lines.isEmpty()) {
+                merged.append("worker,").append(lines.get(0)).append('\n');
+            }
+            lines.stream().skip(1).forEach(row -> merged.append(worker).append(',').append(row).append('\n'));
+        }
+        if (merged.length() > 0) {
+            Files.writeString(outputDir.resolve("steps.csv"), merged, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String csvField(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Connection {
+        private final String name;
+        private final PrintWriter out;
+        private int idle;
+        private boolean done;
+
+        Connection(String name, PrintWriter out, int capacity) {
+            this.name = name;
+            this.out = out;
+            this.idle = capacity;
+        }
+    }
+
+    /**
+     * Résultat d'un test exécuté sur la grille.
+     */
+    public static final class Result {
+        private final String test;
+        private final String worker;
+        private final String status;
+        private final long millis;
+        private final String message;
+
+        Result(String test, String worker, String status, long millis, String message) {
+            this.test = test;
+            this.worker = worker;
+            this.status = status;
+            this.millis = millis;
+            this.message = message;
+        }
+
+        public String test() {
+            return test;
+        }
+
+        public String worker() {
+            return worker;
+        }
+
+        public String status() {
+            return status;
+        }
+
+        public long millis() {
+            return millis;
+        }
+
+        public String message() {
+            return message;
+        }
+    }
+}
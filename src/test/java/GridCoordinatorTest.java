@@ -0,0 +1,157 @@
+import org.example.TestExecutor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la file de travail de la grille (répartition, vol, worker perdu) et du protocole coordinateur / workers.
+ */
+public class GridCoordinatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestDurationHistory history() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("durations.json");
+        Files.writeString(file, "{\"A#1\": 8000, \"A#2\": 4000, \"A#3\": 2000, \"A#4\": 2000}");
+        return new TestDurationHistory(file);
+    }
+
+    // Exécuteur factice : "Classe#fail" échoue, les autres tests réussissent
+    private static final TestExecutor FAKE_JUNIT = (selectors, events) -> {
+        for (String test : selectors) {
+            events.accept("STARTED " + test);
+            events.accept(test.endsWith("#fail") ? "FAILED " + test + " attendu" : "PASSED " + test);
+        }
+        return true;
+    };
+
+    @Test
+    public void testDistributionFollowsCapacityAndIdleWorkersSteal() throws Exception {
+        GridWorkQueue queue = new GridWorkQueue(List.of("A#4", "A#3", "A#2", "A#1"), history());
+        queue.register("big", 2);
+        queue.register("small", 1);
+
+        // Rien n'est donné avant la répartition
+        assertEquals(Optional.empty(), queue.next("small"));
+        queue.distribute();
+
+        assertEquals(Optional.of("A#2"), queue.next("small"));
+        // File vide : le plus court de la file la plus chargée est volé
+        assertEquals(Optional.of("A#4"), queue.next("small"));
+        assertEquals(Optional.of("A#1"), queue.next("big"));
+        assertEquals(Optional.of("A#3"), queue.next("big"));
+        assertEquals(Optional.empty(), queue.next("big"));
+
+        assertFalse(queue.isFinished());
+        List.of("A#1", "A#3").forEach(test -> queue.complete("big", test));
+        List.of("A#2", "A#4").forEach(test -> queue.complete("small", test));
+        assertTrue(queue.isFinished());
+        assertArrayEquals(new int[]{2, 1}, queue.counters().get("small"));
+        assertArrayEquals(new int[]{2, 0}, queue.counters().get("big"));
+    }
+
+    @Test
+    public void testLostWorkerTestsAreRequeuedFirst() throws Exception {
+        GridWorkQueue queue = new GridWorkQueue(List.of("A#1", "A#2", "A#3"), history());
+        queue.register("lost", 1);
+        queue.distribute();
+        assertEquals(Optional.of("A#1"), queue.next("lost"));
+
+        assertEquals(List.of("A#1", "A#2", "A#3"), queue.remove("lost"));
+        queue.register("late", 1);
+        assertEquals(Optional.of("A#1"), queue.next("late"));
+        assertEquals(List.of("A#1", "A#2", "A#3"), queue.remaining());
+    }
+
+    @Test
+    public void testWorkersRunAllTestsAndResultsAreMerged() throws Exception {
+        Path output = folder.newFolder("grid").toPath();
+        Path screenshots = folder.newFolder("screenshots-w1").toPath();
+        Files.write(screenshots.resolve("fail_20240101-120000-000.png"), new byte[]{1, 2, 3});
+        List<String> tests = List.of("T#a", "T#b", "T#c", "T#d", "T#e", "T#fail");
+
+        try (GridCoordinator coordinator = new GridCoordinator(InetAddress.getLoopbackAddress(), 0,
+                new GridWorkQueue(tests, history()), history(), output, 2)) {
+            coordinator.start();
+            CompletableFuture<Void> w1 = runWorker(new GridWorker("w1", 2, FAKE_JUNIT, Map.of("screenshots", screenshots)), coordinator.port());
+            CompletableFuture<Void> w2 = runWorker(new GridWorker("w2", 1, FAKE_JUNIT, Map.of()), coordinator.port());
+
+            List<GridCoordinator.Result> results = coordinator.await(5000, 5000);
+            w1.get();
+            w2.get();
+
+            assertEquals(tests, results.stream().map(GridCoordinator.Result::test).sorted().collect(Collectors.toList()));
+            GridCoordinator.Result failed = results.stream().filter(result -> result.test().equals("T#fail")).findFirst().orElseThrow();
+            assertEquals("FAILED", failed.status());
+            assertEquals("attendu", failed.message());
+            assertEquals(5, results.stream().filter(result -> result.status().equals("PASSED")).count());
+
+            // Captures renvoyées par le worker, rattachées au test dans le rapport
+            assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(output.resolve("w1/screenshots/fail_20240101-120000-000.png")));
+            String report = coordinator.writeReport();
+            assertTrue(report, report.contains("6 (5 réussis, 1 en échec, 0 ignorés)"));
+            List<String> csv = Files.readAllLines(output.resolve("results.csv"));
+            assertEquals(7, csv.size());
+            if (failed.worker().equals("w1")) {
+                assertTrue(csv.get(6), csv.get(6).contains("w1/screenshots/fail_20240101-120000-000.png"));
+            }
+        }
+    }
+
+    @Test
+    public void testTestsOfALostWorkerGoToAnotherWorker() throws Exception {
+        Path output = folder.newFolder("grid").toPath();
+        List<String> tests = List.of("T#a", "T#b", "T#c");
+
+        try (GridCoordinator coordinator = new GridCoordinator(InetAddress.getLoopbackAddress(), 0,
+                new GridWorkQueue(tests, history()), history(), output, 1)) {
+            coordinator.start();
+            CompletableFuture<List<GridCoordinator.Result>> done = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return coordinator.await(5000, 5000);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            // Worker qui reçoit un test puis disparaît sans répondre
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), coordinator.port())) {
+                new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8).println("REGISTER lost 1");
+                String line = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)).readLine();
+                assertTrue(line, line.startsWith("TEST T#"));
+            }
+            runWorker(new GridWorker("late", 1, FAKE_JUNIT, Map.of()), coordinator.port()).get();
+
+            List<GridCoordinator.Result> results = done.get();
+            assertEquals(3, results.size());
+            assertTrue(results.stream().allMatch(result -> result.worker().equals("late") && result.status().equals("PASSED")));
+        }
+    }
+
+    private static CompletableFuture<Void> runWorker(GridWorker worker, int port) {
+        return CompletableFuture.runAsync(() -> {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                worker.serve(socket);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,91 @@
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lance la suite sur la grille locale (profil Maven {@code grid}) : {@code mvn test -Pgrid -Dgrid.local.workers=4}.
+ * Un {@link GridCoordinator} distribue les méthodes de test à {@code grid.local.workers} JVM {@link GridWorker}
+ * de capacité {@code grid.capacity} (par défaut les cœurs partagés entre les workers). Pour ajouter d'autres
+ * machines : {@code -Dgrid.bind=0.0.0.0 -Dgrid.remote.workers=n} (port {@code grid.port}, 7879), puis
+ * {@code GridWorker <hôte>:7879} sur chacune. Rapport fusionné dans {@code target/grid}.
+ */
+public class GridRunLauncher {
+
+    private static final int DEFAULT_PORT = 7879;
+
+    @Test
+    public void runGrid() throws Exception {
+        Assume.assumeTrue("Grille locale désactivée (activer avec -Pgrid)", Boolean.getBoolean("grid.launch"));
+
+        int localWorkers = Integer.getInteger("grid.local.workers", 2);
+        int remoteWorkers = Integer.getInteger("grid.remote.workers", 0);
+        int capacity = Integer.getInteger("grid.capacity", Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, localWorkers)));
+        Path output = Files.createDirectories(Paths.get("target", "grid"));
+
+        GridWorkQueue queue = new GridWorkQueue(ShardRule.shardedTests(), TestDurationHistory.shared());
+        InetAddress bind = InetAddress.getByName(System.getProperty("grid.bind", InetAddress.getLoopbackAddress().getHostAddress()));
+        int port = Integer.getInteger("grid.port", remoteWorkers > 0 ? DEFAULT_PORT : 0);
+
+        List<Process> processes = new ArrayList<>();
+        try (GridCoordinator coordinator = new GridCoordinator(bind, port, queue, TestDurationHistory.shared(), output,
+                localWorkers + remoteWorkers)) {
+            coordinator.start();
+            System.out.println("Coordinateur de la grille sur " + bind.getHostAddress() + ":" + coordinator.port());
+            for (int i = 1; i <= localWorkers; i++) {
+                processes.add(command("local-" + i, capacity, coordinator.port())
+                        .redirectErrorStream(true)
+                        .redirectOutput(output.resolve("local-" + i + ".log").toFile())
+                        .start());
+            }
+
+            List<GridCoordinator.Result> results = coordinator.await(
+                    Long.getLong("grid.register.timeout.ms", 60_000), Long.getLong("grid.idle.timeout.ms", 120_000));
+            coordinator.writeReport();
+
+            List<String> failures = results.stream()
+                    .filter(result -> result.status().equals("FAILED"))
+                    .map(GridCoordinator.Result::test)
+                    .collect(Collectors.toList());
+            assertTrue("Tests en échec sur la grille, voir target/grid/report.txt : " + failures, failures.isEmpty());
+        } finally {
+            for (Process process : processes) {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+    }
+
+    private static ProcessBuilder command(String name, int capacity, int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        for (Map.Entry<Object, Object> property : System.getProperties().entrySet()) {
+            String key = String.valueOf(property.getKey());
+            if (ShardedRunLauncher.FORWARDED_PREFIXES.stream().anyMatch(key::startsWith)) {
+                command.add("-D" + key + "=" + property.getValue());
+            }
+        }
+        command.add("-Dgrid.worker=" + name);
+        command.add("-Dgrid.capacity=" + capacity);
+        // Durées fusionnées par le coordinateur seul ; latences du worker dans son propre dossier, puis renvoyées
+        Path workerDir = Paths.get("target", "grid-worker", name);
+        command.add("-Dtest.history.file=" + workerDir.resolve("test-durations.json"));
+        command.add("-Dtiming.report.dir=" + workerDir.resolve("timing"));
+        command.add(GridWorker.class.getName());
+        command.add(InetAddress.getLoopbackAddress().getHostAddress() + ":" + port);
+        return new ProcessBuilder(command);
+    }
+}
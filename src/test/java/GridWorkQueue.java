@@ -0,0 +1,175 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * File de travail de la grille locale ({@link GridCoordinator}) : une file par worker, remplie au départ
+ * d'après le {@link TestDurationHistory} (les tests les plus longs d'abord, chacun chez le worker le moins
+ * chargé rapporté à sa capacité). Un worker prend ses tests en tête de sa file ; quand elle est vide il vole
+ * en queue de la file la plus chargée, ce qui rattrape les erreurs d'estimation et les workers arrivés en retard.
+ * Les tests d'un worker perdu sont remis en attente et pris en priorité par les autres.
+ */
+public class GridWorkQueue {
+
+    private final TestDurationHistory history;
+    // Tests non attribués : avant la répartition, puis ceux des workers perdus
+    private final Deque<String> orphans = new ArrayDeque<>();
+    private final Map<String, Worker> workers = new LinkedHashMap<>();
+    private boolean distributed;
+
+    public GridWorkQueue(List<String> tests, TestDurationHistory history) {
+        this.history = history;
+        tests.stream()
+                .distinct()
+                .sorted(Comparator.comparingLong(history::estimateMillis).reversed().thenComparing(Comparator.naturalOrder()))
+                .forEach(orphans::add);
+    }
+
+    public synchronized void register(String worker, int capacity) {
+        if (workers.containsKey(worker)) {
+            throw new IllegalStateException("Worker déjà inscrit: " + worker);
+        }
+        workers.put(worker, new Worker(Math.max(1, capacity)));
+    }
+
+    public synchronized int workerCount() {
+        return workers.size();
+    }
+
+    /**
+     * Répartit les tests en attente entre les workers inscrits ; les suivants démarrent avec une file vide et volent.
+     */
+    public synchronized void distribute() {
+        distributed = true;
+        if (workers.isEmpty()) {
+            return;
+        }
+        while (!orphans.isEmpty()) {
+            String test = orphans.poll();
+            Worker lightest = workers.values().stream()
+                    .min(Comparator.comparingDouble(worker -> (double) (worker.loadMillis + history.estimateMillis(test)) / worker.capacity))
+                    .orElseThrow();
+            lightest.queue.add(test);
+            lightest.loadMillis += history.estimateMillis(test);
+        }
+    }
+
+    public synchronized boolean isDistributed() {
+        return distributed;
+    }
+
+    /**
+     * Prochain test du worker : sa file, puis les tests orphelins, puis un vol. Vide s'il n'y a rien à prendre
+     * pour l'instant (répartition pas encore faite, ou tous les tests restants en cours ailleurs).
+     */
+    public synchronized Optional<String> next(String name) {
+        Worker worker = workers.get(name);
+        if (worker == null || !distributed) {
+            return Optional.empty();
+        }
+        String test = worker.queue.poll();
+        if (test == null) {
+            test = orphans.poll();
+        }
+        if (test == null) {
+            test = steal(worker);
+        }
+        if (test == null) {
+            return Optional.empty();
+        }
+        worker.loadMillis -= Math.min(worker.loadMillis, history.estimateMillis(test));
+        worker.inFlight.add(test);
+        return Optional.of(test);
+    }
+
+    // Les tests sont rangés du plus long au plus court : le voleur prend le plus court de la file la plus chargée
+    private String steal(Worker thief) {
+        Worker victim = workers.values().stream()
+                .filter(worker -> worker != thief && !worker.queue.isEmpty())
+                .max(Comparator.comparingDouble(worker -> (double) worker.loadMillis / worker.capacity))
+                .orElse(null);
+        if (victim == null) {
+            return null;
+        }
+        String test = victim.queue.pollLast();
+        victim.loadMillis -= Math.min(victim.loadMillis, history.estimateMillis(test));
+        thief.stolen++;
+        return test;
+    }
+
+    public synchronized void complete(String name, String test) {
+        Worker worker = workers.get(name);
+        if (worker != null) {
+            worker.inFlight.remove(test);
+            worker.completed++;
+        }
+    }
+
+    /**
+     * Retire un worker perdu : ses tests en cours puis sa file repassent en tête des tests orphelins.
+     *
+     * @return les tests remis en attente
+     */
+    public synchronized List<String> remove(String name) {
+        Worker worker = workers.remove(name);
+        if (worker == null) {
+            return List.of();
+        }
+        List<String> requeued = new ArrayList<>(worker.inFlight);
+        requeued.addAll(worker.queue);
+        for (int i = requeued.size() - 1; i >= 0; i--) {
+            orphans.addFirst(requeued.get(i));
+        }
+        return requeued;
+    }
+
+    /**
+     * Vrai quand tous les tests ont été exécutés (plus rien en attente ni en cours).
+     */
+    public synchronized boolean isFinished() {
+        return orphans.isEmpty() && workers.values().stream().allMatch(worker -> worker.queue.isEmpty() && worker.inFlight.isEmpty());
+    }
+
+    /**
+     * Tests pas encore terminés, en attente ou en cours.
+     */
+    public synchronized List<String> remaining() {
+        Set<String> remaining = new HashSet<>(orphans);
+        workers.values().forEach(worker -> {
+            remaining.addAll(worker.queue);
+            remaining.addAll(worker.inFlight);
+        });
+        return remaining.stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * Tests exécutés et tests volés par worker, pour le rapport.
+     */
+    public synchronized Map<String, int[]> counters() {
+        Map<String, int[]> counters = new HashMap<>();
+        workers.forEach((name, worker) -> counters.put(name, new int[]{worker.completed, worker.stolen}));
+        return counters;
+    }
+
+    private static final class Worker {
+        private final int capacity;
+        private final Deque<String> queue = new ArrayDeque<>();
+        private final Set<String> inFlight = new HashSet<>();
+        private long loadMillis;
+        private int completed;
+        private int stolen;
+
+        Worker(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+}
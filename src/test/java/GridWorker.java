@@ -0,0 +1,196 @@
+import org.example.TestExecutor;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.runners.model.TestClass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Worker de la grille locale : se connecte au {@link GridCoordinator}, annonce sa capacité (nombre de tests,
+ * donc de sessions Chrome, menés en parallèle) et exécute les tests reçus avec le {@link JUnitTestExecutor}.
+ * À la fin il renvoie ses captures d'écran et son rapport de latences au coordinateur.
+ * <pre>
+ * java -cp &lt;classpath de test&gt; -Dgrid.capacity=4 GridWorker hôte-du-coordinateur:7879
+ * </pre>
+ * Nom {@code grid.worker} (par défaut hôte et pid), capacité {@code grid.capacity} (par défaut {@code parallel.threads}
+ * ou le nombre de cœurs). Les méthodes d'une classe à état de classe ({@code @ClassRule}, {@code @BeforeClass})
+ * ne s'exécutent pas en même temps sur un worker : cet état est partagé par tous ses threads.
+ */
+public class GridWorker {
+
+    private static final long ARTIFACT_FLUSH_SECONDS = 30;
+
+    private final String name;
+    private final int capacity;
+    private final TestExecutor executor;
+    // Répertoire local -> préfixe du chemin envoyé au coordinateur
+    private final Map<String, Path> artifacts;
+    private final Map<String, Optional<Object>> classLocks = new ConcurrentHashMap<>();
+
+    GridWorker(String name, int capacity, TestExecutor executor, Map<String, Path> artifacts) {
+        this.name = name;
+        this.capacity = capacity;
+        this.executor = executor;
+        this.artifacts = artifacts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1 || !args[0].contains(":")) {
+            System.out.println("Usage: GridWorker <hôte>:<port>");
+            System.exit(2);
+        }
+        String name = System.getProperty("grid.worker", InetAddress.getLocalHost().getHostName() + "-" + ProcessHandle.current().pid());
+        int capacity = Integer.getInteger("grid.capacity", Workers.threadCount());
+        // Un thread de test par place, chacun avec sa session et son dossier de captures
+        System.setProperty("grid.worker", name);
+        System.setProperty("test.parallel", "true");
+        if (System.getProperty("driver.pool.size") == null) {
+            System.setProperty("driver.pool.size", Integer.toString(capacity));
+        }
+
+        Map<String, Path> artifacts = new LinkedHashMap<>();
+        artifacts.put("screenshots", Workers.screenshotRoot());
+        artifacts.put("timing", Paths.get(System.getProperty("timing.report.dir", "target/grid-worker/" + name + "/timing")));
+
+        String host = args[0].substring(0, args[0].lastIndexOf(':'));
+        int port = Integer.parseInt(args[0].substring(args[0].lastIndexOf(':') + 1));
+        try (Socket socket = new Socket(host, port)) {
+            new GridWorker(name, capacity, new JUnitTestExecutor(), artifacts).serve(socket);
+        }
+        // Rapports et historiques déjà écrits à la fermeture de l'exécuteur
+        System.exit(0);
+    }
+
+    /**
+     * Exécute les tests envoyés par le coordinateur jusqu'à {@code DONE}.
+     */
+    public void serve(Socket socket) throws IOException, InterruptedException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService slots = Executors.newFixedThreadPool(capacity, runnable -> new Thread(runnable, "grid-slot-" + threads.incrementAndGet()));
+        try {
+            out.println("REGISTER " + name + " " + capacity);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("TEST ")) {
+                    String test = line.substring("TEST ".length()).trim();
+                    slots.submit(() -> {
+                        String result = execute(test);
+                        synchronized (out) {
+                            out.println(result);
+                        }
+                    });
+                } else if (line.equals("DONE")) {
+                    slots.shutdown();
+                    slots.awaitTermination(ARTIFACT_FLUSH_SECONDS, TimeUnit.SECONDS);
+                    sendArtifacts(out);
+                    out.println("BYE");
+                    return;
+                } else if (line.startsWith("ERROR")) {
+                    throw new IOException("Refusé par le coordinateur: " + line);
+                }
+            }
+        } finally {
+            slots.shutdownNow();
+            executor.close();
+        }
+    }
+
+    /**
+     * Exécute un test et renvoie sa ligne {@code RESULT}.
+     */
+    String execute(String test) {
+        List<String> events = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            Optional<Object> lock = classLock(test);
+            if (lock.isPresent()) {
+                synchronized (lock.get()) {
+                    executor.run(List.of(test), events::add);
+                }
+            } else {
+                executor.run(List.of(test), events::add);
+            }
+        } catch (Exception e) {
+            events.add("FAILED " + test + " " + e);
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Dernier verdict : une relance réussie (RetryRule) n'émet que le sien
+        String status = "FAILED";
+        String message = "test introuvable";
+        for (String event : events) {
+            for (String verdict : List.of("PASSED", "FAILED", "SKIPPED", "IGNORED")) {
+                String prefix = verdict + " " + test;
+                if (event.equals(prefix) || event.startsWith(prefix + " ")) {
+                    status = verdict;
+                    message = event.substring(prefix.length()).trim();
+                }
+            }
+        }
+        return ("RESULT " + status + " " + millis + " " + test + " " + message.replace('\n', ' ')).trim();
+    }
+
+    private Optional<Object> classLock(String test) {
+        String className = test.contains("#") ? test.substring(0, test.indexOf('#')) : test;
+        return classLocks.computeIfAbsent(className, c -> {
+            try {
+                TestClass testClass = new TestClass(Class.forName(c, false, executor.getClass().getClassLoader()));
+                boolean classState = !testClass.getAnnotatedFields(ClassRule.class).isEmpty()
+                        || !testClass.getAnnotatedMethods(ClassRule.class).isEmpty()
+                        || !testClass.getAnnotatedMethods(BeforeClass.class).isEmpty()
+                        || !testClass.getAnnotatedMethods(AfterClass.class).isEmpty();
+                return classState ? Optional.of(new Object()) : Optional.empty();
+            } catch (ClassNotFoundException | RuntimeException e) {
+                // Classe introuvable : l'exécuteur rapportera l'erreur
+                return Optional.empty();
+            }
+        });
+    }
+
+    // Captures et rapport de latences, renvoyés en base64 sous "<préfixe>/<chemin relatif>"
+    private void sendArtifacts(PrintWriter out) throws IOException, InterruptedException {
+        ScreenshotWriter.shared().flush(ARTIFACT_FLUSH_SECONDS, TimeUnit.SECONDS);
+        Path timing = artifacts.get("timing");
+        if (timing != null) {
+            LatencyRecorder.shared().writeReport(timing);
+        }
+        for (Map.Entry<String, Path> artifact : artifacts.entrySet()) {
+            if (!Files.isDirectory(artifact.getValue())) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(artifact.getValue())) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String relative = artifact.getKey() + "/" + artifact.getValue().relativize(file).toString().replace('\\', '/');
+                out.println("FILE " + relative + " " + Base64.getEncoder().encodeToString(Files.readAllBytes(file)));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Contexte de navigation isolé (équivalent d'une fenêtre de navigation privée) créé par DevTools dans
+ * le Chrome déjà lancé : cookies, storage et cache propres, un onglet, et tout est jeté à la fermeture.
+ * Le driver est basculé sur l'onglet du contexte puis ramené sur sa fenêtre d'origine.
+ *
+ * <p>Désactivable avec {@code -Dbrowser.isolated.contexts=false} ; sans DevTools, ou si Chrome
+ * refuse la création du contexte, {@link #open} renvoie un Optional vide et les tests partagent
+ * le contexte par défaut nettoyé par le {@link DriverPool}.</p>
+ */
+public final class IsolatedContext implements AutoCloseable {
+
+    private final WebDriver driver;
+    private final HasCdp cdp;
+    private final String homeHandle;
+    private final String browserContextId;
+    private final String windowHandle;
+    private boolean closed;
+
+    private IsolatedContext(WebDriver driver, String homeHandle, String browserContextId, String windowHandle) {
+        this.driver = driver;
+        this.cdp = (HasCdp) driver;
+        this.homeHandle = homeHandle;
+        this.browserContextId = browserContextId;
+        this.windowHandle = windowHandle;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("browser.isolated.contexts", "true"));
+    }
+
+    public static Optional<IsolatedContext> open(WebDriver driver) {
+        if (!isEnabled() || !(driver instanceof HasCdp)) {
+            return Optional.empty();
+        }
+        HasCdp cdp = (HasCdp) driver;
+        String browserContextId = null;
+        try {
+            String homeHandle = driver.getWindowHandle();
+            Set<String> handlesBefore = new HashSet<>(driver.getWindowHandles());
+
+            browserContextId = String.valueOf(cdp.executeCdpCommand("Target.createBrowserContext",
+                    Map.of("disposeOnDetach", true)).get("browserContextId"));
+            String targetId = String.valueOf(cdp.executeCdpCommand("Target.createTarget",
+                    Map.of("url", "about:blank", "browserContextId", browserContextId)).get("targetId"));
+
+            String windowHandle = windowHandleOf(driver, targetId, handlesBefore);
+            driver.switchTo().window(windowHandle);
+            AssetInterceptor.of(driver).ifPresent(AssetInterceptor::disable);
+            NetworkActivity.of(driver).ifPresent(network -> network.follow(windowHandle));
+            AssetInterceptor.of(driver).ifPresent(AssetInterceptor::enable);
+            return Optional.of(new IsolatedContext(driver, homeHandle, browserContextId, windowHandle));
+        } catch (WebDriverException | IllegalStateException e) {
+            EventLog.info("IsolatedContext", "contexte isolé indisponible, contexte partagé utilisé: " + e.getMessage());
+            if (browserContextId != null) {
+                dispose(cdp, browserContextId);
+            }
+            return Optional.empty();
+        }
+    }
+
+    // chromedriver utilise l'identifiant de cible comme handle de fenêtre ; sinon, la seule nouvelle fenêtre
+    private static String windowHandleOf(WebDriver driver, String targetId, Set<String> handlesBefore) {
+        Set<String> handles = driver.getWindowHandles();
+        if (handles.contains(targetId)) {
+            return targetId;
+        }
+        Set<String> created = new HashSet<>(handles);
+        created.removeAll(handlesBefore);
+        if (created.size() != 1) {
+            throw new IllegalStateException("Onglet du contexte isolé introuvable parmi " + handles);
+        }
+        return created.iterator().next();
+    }
+
+    public String windowHandle() {
+        return windowHandle;
+    }
+
+    /**
+     * Ferme l'onglet et supprime le contexte avec ses cookies et son storage.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            AssetInterceptor.of(driver).ifPresent(AssetInterceptor::disable);
+            driver.switchTo().window(homeHandle);
+            NetworkActivity.of(driver).ifPresent(network -> network.follow(homeHandle));
+            AssetInterceptor.of(driver).ifPresent(AssetInterceptor::enable);
+        } catch (WebDriverException e) {
+            EventLog.error("IsolatedContext", "retour à la fenêtre d'origine impossible: " + e.getMessage());
+        }
+        dispose(cdp, browserContextId);
+    }
+
+    private static void dispose(HasCdp cdp, String browserContextId) {
+        try {
+            cdp.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", browserContextId));
+        } catch (WebDriverException e) {
+            EventLog.error("IsolatedContext", "suppression du contexte isolé impossible: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+import org.junit.rules.ExternalResource;
+import org.openqa.selenium.WebDriver;
+
+import java.util.function.Supplier;
+
+/**
+ * Règle JUnit qui exécute chaque test dans un {@link IsolatedContext} neuf du driver fourni :
+ * isolation des cookies et du storage entre tests sans relancer Chrome.
+ * Doit englober les règles qui utilisent encore la page du test (captures d'écran).
+ */
+public class IsolatedContextRule extends ExternalResource {
+    private final Supplier<WebDriver> driver;
+    private IsolatedContext context;
+
+    public IsolatedContextRule(Supplier<WebDriver> driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Vrai si le test courant s'exécute dans un contexte isolé.
+     */
+    public boolean isIsolated() {
+        return context != null;
+    }
+
+    @Override
+    protected void before() {
+        context = IsolatedContext.open(driver.get()).orElse(null);
+    }
+
+    @Override
+    protected void after() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la création et de la suppression des contextes isolés, avec un driver simulé.
+ */
+public class IsolatedContextTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final Set<String> handles = new LinkedHashSet<>(List.of("home"));
+    private String current = "home";
+
+    private WebDriver fakeDriver(boolean contextsSupported) {
+        WebDriver.TargetLocator locator = FakeDriver.of(WebDriver.TargetLocator.class)
+                .on("window", args -> {
+                    current = (String) args[0];
+                    calls.add("switch:" + current);
+                    return null;
+                })
+                .build();
+        return FakeDriver.driver(HasCdp.class)
+                .on("getWindowHandle", args -> current)
+                .on("getWindowHandles", args -> new LinkedHashSet<>(handles))
+                .on("switchTo", args -> locator)
+                .on("executeCdpCommand", args -> {
+                    String command = (String) args[0];
+                    calls.add(command);
+                    if (!contextsSupported) {
+                        throw new WebDriverException("Not allowed");
+                    }
+                    if (command.equals("Target.createBrowserContext")) {
+                        return Map.of("browserContextId", "ctx-1");
+                    }
+                    if (command.equals("Target.createTarget")) {
+                        assertEquals("ctx-1", ((Map<?, ?>) args[1]).get("browserContextId"));
+                        handles.add("target-1");
+                        return Map.of("targetId", "target-1");
+                    }
+                    return Map.of();
+                })
+                .build();
+    }
+
+    @Test
+    public void testContextIsCreatedSwitchedToAndDisposed() {
+        WebDriver driver = fakeDriver(true);
+
+        Optional<IsolatedContext> context = IsolatedContext.open(driver);
+        assertTrue(context.isPresent());
+        assertEquals("target-1", driver.getWindowHandle());
+
+        context.get().close();
+        assertEquals("home", driver.getWindowHandle());
+        assertEquals(List.of("Target.createBrowserContext", "Target.createTarget", "switch:target-1",
+                "switch:home", "Target.disposeBrowserContext"), calls);
+    }
+
+    @Test
+    public void testRefusedContextFallsBackToSharedContext() {
+        WebDriver driver = fakeDriver(false);
+
+        assertFalse(IsolatedContext.open(driver).isPresent());
+        assertEquals("home", driver.getWindowHandle());
+    }
+}
@@ -0,0 +1,140 @@
+import org.example.TestExecutor;
+import org.junit.runner.Description;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.manipulation.Filter;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Exécuteur JUnit du démon de tests ({@code org.example.Main daemon}), déclaré dans
+ * {@code META-INF/services/org.example.TestExecutor}. Les événements sont émis au fil de l'exécution :
+ * {@code STARTED}, {@code PASSED}, {@code FAILED}, {@code SKIPPED}, {@code IGNORED} suivis de {@code Classe#méthode}.
+ */
+public class JUnitTestExecutor implements TestExecutor {
+
+    @Override
+    public boolean run(List<String> selectors, Consumer<String> events) throws Exception {
+        Set<String> classNames = new LinkedHashSet<>();
+        Set<String> selected = new LinkedHashSet<>();
+        for (String selector : selectors) {
+            classNames.add(selector.contains("#") ? selector.substring(0, selector.indexOf('#')) : selector);
+            selected.add(selector);
+        }
+        ClassLoader classes = getClass().getClassLoader();
+        List<Class<?>> testClasses = new ArrayList<>();
+        for (String className : classNames) {
+            testClasses.add(Class.forName(className, true, classes));
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classes);
+        try {
+            JUnitCore core = new JUnitCore();
+            core.addListener(new StreamingListener(events));
+            Request request = Request.classes(testClasses.toArray(new Class<?>[0])).filterWith(new SelectorFilter(selected));
+            Result result = core.run(request);
+            return result.wasSuccessful();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    /**
+     * Les classes de test vont être rechargées : les sessions Chrome de cette génération sont fermées, puis ses
+     * autres singletons (rapports écrits, historiques fusionnés, serveur simulé et écrivain de captures arrêtés).
+     */
+    @Override
+    public void close() {
+        DriverPool.shutdownShared();
+        ShutdownHooks.runNow();
+    }
+
+    static String key(Description description) {
+        return TestDurationHistory.key(description.getClassName(), description.getMethodName());
+    }
+
+    /**
+     * Garde les méthodes désignées ({@code Classe#méthode}) et toutes celles des classes désignées seules.
+     */
+    private static final class SelectorFilter extends Filter {
+        private final Set<String> selected;
+
+        SelectorFilter(Set<String> selected) {
+            this.selected = selected;
+        }
+
+        @Override
+        public boolean shouldRun(Description description) {
+            if (description.isTest()) {
+                return selected.contains(description.getClassName()) || selected.contains(key(description));
+            }
+            for (Description child : description.getChildren()) {
+                if (shouldRun(child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() {
+            return "tests " + selected;
+        }
+    }
+
+    @RunListener.ThreadSafe
+    private static final class StreamingListener extends RunListener {
+        private final Consumer<String> events;
+        private final Set<Description> finishedEarly = ConcurrentHashMap.newKeySet();
+
+        StreamingListener(Consumer<String> events) {
+            this.events = events;
+        }
+
+        private void emit(String line) {
+            synchronized (events) {
+                events.accept(line);
+            }
+        }
+
+        @Override
+        public void testStarted(Description description) {
+            emit("STARTED " + key(description));
+        }
+
+        @Override
+        public void testFailure(Failure failure) {
+            finishedEarly.add(failure.getDescription());
+            String message = failure.getMessage() == null ? failure.getException().toString() : failure.getMessage();
+            emit("FAILED " + key(failure.getDescription()) + " " + message.replace('\n', ' '));
+        }
+
+        @Override
+        public void testAssumptionFailure(Failure failure) {
+            finishedEarly.add(failure.getDescription());
+            emit("SKIPPED " + key(failure.getDescription()));
+        }
+
+        @Override
+        public void testIgnored(Description description) {
+            emit("IGNORED " + key(description));
+        }
+
+        @Override
+        public void testFinished(Description description) {
+            if (!finishedEarly.remove(description)) {
+                emit("PASSED " + key(description));
+            }
+        }
+    }
+}
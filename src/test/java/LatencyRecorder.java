@@ -0,0 +1,205 @@
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure des latences par étape (actions de {@link LoginPage}, commandes WebDriver) et par test.
+ * En fin d'exécution un rapport est écrit dans {@code target/timing/} (JSON et CSV) et un résumé
+ * est journalisé : p50 / p95 / p99 par étape.
+ *
+ * <pre>
+ * try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.open")) {
+ *     driver.get(...);
+ * }
+ * </pre>
+ */
+public final class LatencyRecorder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LatencyRecorder.class);
+    private static final LatencyRecorder SHARED = new LatencyRecorder();
+    private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+
+    static {
+        ShutdownHooks.register("latency-report",
+                () -> SHARED.writeReport(Paths.get(System.getProperty("timing.report.dir", "target/timing"))));
+    }
+
+    private final Map<String, Histogram> steps = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Histogram>> tests = new ConcurrentHashMap<>();
+
+    LatencyRecorder() {
+    }
+
+    public static LatencyRecorder shared() {
+        return SHARED;
+    }
+
+    /**
+     * Démarre la mesure d'une étape ; la durée est enregistrée à la fermeture du Span.
+     */
+    public static Span start(String step) {
+        return new Span(SHARED, step);
+    }
+
+    /**
+     * Associe les mesures suivantes du thread courant à un test (null pour détacher).
+     */
+    public static void setCurrentTest(String testName) {
+        if (testName == null) {
+            CURRENT_TEST.remove();
+        } else {
+            CURRENT_TEST.set(testName);
+        }
+    }
+
+    public void record(String step, long nanos) {
+        steps.computeIfAbsent(step, s -> new Histogram()).add(nanos);
+        String test = CURRENT_TEST.get();
+        if (test != null) {
+            tests.computeIfAbsent(test, t -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(step, s -> new Histogram()).add(nanos);
+        }
+    }
+
+    public Histogram histogram(String step) {
+        return steps.get(step);
+    }
+
+    /**
+     * Écrit {@code report.json} et {@code steps.csv} puis journalise le résumé par étape.
+     */
+    public void writeReport(Path dir) {
+        if (steps.isEmpty()) {
+            return;
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("steps", summaries(steps));
+        Map<String, Object> perTest = new TreeMap<>();
+        tests.forEach((test, histograms) -> perTest.put(test, summaries(histograms)));
+        report.put("tests", perTest);
+
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("report.json"), new Json().toJson(report), StandardCharsets.UTF_8);
+            try (Writer csv = Files.newBufferedWriter(dir.resolve("steps.csv"), StandardCharsets.UTF_8)) {
+                csv.write("scope,step,count,p50_ms,p95_ms,p99_ms,max_ms,total_ms\n");
+                writeCsvRows(csv, "all", steps);
+                for (Map.Entry<String, Map<String, Histogram>> test : new TreeMap<>(tests).entrySet()) {
+                    writeCsvRows(csv, test.getKey(), test.getValue());
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Impossible d'écrire le rapport de latences dans {}: {}", dir, e.getMessage());
+        }
+
+        StringBuilder summary = new StringBuilder("Latences par étape (ms) :\n");
+        summary.append(String.format("  %-40s %7s %9s %9s %9s %10s%n", "étape", "n", "p50", "p95", "p99", "total"));
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(steps).entrySet()) {
+            Histogram h = entry.getValue();
+            summary.append(String.format("  %-40s %7d %9.1f %9.1f %9.1f %10.1f%n", entry.getKey(), h.count(),
+                    millis(h.percentile(50)), millis(h.percentile(95)), millis(h.percentile(99)), millis(h.total())));
+        }
+        LOG.info("{}Rapport complet: {}", summary, dir.resolve("report.json"));
+    }
+
+    private static Map<String, Object> summaries(Map<String, Histogram> histograms) {
+        Map<String, Object> result = new TreeMap<>();
+        histograms.forEach((step, h) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", h.count());
+            stats.put("p50_ms", millis(h.percentile(50)));
+            stats.put("p95_ms", millis(h.percentile(95)));
+            stats.put("p99_ms", millis(h.percentile(99)));
+            stats.put("max_ms", millis(h.percentile(100)));
+            stats.put("total_ms", millis(h.total()));
+            result.put(step, stats);
+        });
+        return result;
+    }
+
+    private static void writeCsvRows(Writer csv, String scope, Map<String, Histogram> histograms) throws IOException {
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram h = entry.getValue();
+            csv.write(String.format(Locale.ROOT, "%s,%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                    scope, entry.getKey(), h.count(), millis(h.percentile(50)), millis(h.percentile(95)),
+                    millis(h.percentile(99)), millis(h.percentile(100)), millis(h.total())));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Mesure en cours, à fermer par try-with-resources.
+     */
+    public static final class Span implements AutoCloseable {
+        private final LatencyRecorder recorder;
+        private final String step;
+        private final long start = System.nanoTime();
+
+        Span(LatencyRecorder recorder, String step) {
+            this.recorder = recorder;
+            this.step = step;
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - start;
+            recorder.record(step, nanos);
+            EventLog.timing(step, nanos);
+        }
+    }
+
+    /**
+     * Échantillons bruts d'une étape ; les percentiles sont exacts (tri à la lecture).
+     */
+    public static final class Histogram {
+        private long[] samples = new long[16];
+        private int count;
+        private long total;
+
+        synchronized void add(long nanos) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            total += nanos;
+        }
+
+        public synchronized int count() {
+            return count;
+        }
+
+        public synchronized long total() {
+            return total;
+        }
+
+        /**
+         * Percentile par la méthode du rang le plus proche, en nanosecondes.
+         */
+        public synchronized long percentile(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(p / 100.0 * count);
+            return sorted[Math.min(count - 1, Math.max(0, rank - 1))];
+        }
+    }
+}
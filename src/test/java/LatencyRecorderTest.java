@@ -0,0 +1,55 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests des percentiles et du rapport de latences.
+ */
+public class LatencyRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPercentilesUseNearestRank() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 1; i <= 100; i++) {
+            recorder.record("LoginPage.open", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        LatencyRecorder.Histogram histogram = recorder.histogram("LoginPage.open");
+        assertEquals(100, histogram.count());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), histogram.percentile(50));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(95), histogram.percentile(95));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(99), histogram.percentile(99));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), histogram.percentile(100));
+    }
+
+    @Test
+    public void testReportGroupsStepsPerTest() throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        LatencyRecorder.setCurrentTest("LoginTest.testSuccessfulLogin");
+        try {
+            recorder.record("LoginPage.login", TimeUnit.MILLISECONDS.toNanos(120));
+        } finally {
+            LatencyRecorder.setCurrentTest(null);
+        }
+        recorder.record("WebDriver.get", TimeUnit.MILLISECONDS.toNanos(30));
+
+        Path dir = folder.getRoot().toPath();
+        recorder.writeReport(dir);
+
+        List<String> csv = Files.readAllLines(dir.resolve("steps.csv"));
+        assertEquals("scope,step,count,p50_ms,p95_ms,p99_ms,max_ms,total_ms", csv.get(0));
+        assertTrue(csv.contains("all,LoginPage.login,1,120.000,120.000,120.000,120.000,120.000"));
+        assertTrue(csv.contains("LoginTest.testSuccessfulLogin,LoginPage.login,1,120.000,120.000,120.000,120.000,120.000"));
+        assertTrue(Files.readString(dir.resolve("report.json")).contains("\"WebDriver.get\""));
+    }
+}
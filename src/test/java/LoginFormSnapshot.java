@@ -0,0 +1,185 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * État de tous les éléments du formulaire de connexion lu en un seul {@code executeScript} :
+ * texte, attributs, classes et visibilité de chaque élément, plus l'élément actif et l'URL.
+ * Remplace une dizaine d'allers-retours findElement / isDisplayed / getAttribute vers chromedriver.
+ */
+public class LoginFormSnapshot {
+
+    // Noms logiques -> sélecteurs CSS de LoginPage
+    private static final Map<String, String> SELECTORS = new LinkedHashMap<>();
+
+    static {
+        SELECTORS.put("title", LoginPage.TITLE_CSS);
+        SELECTORS.put("email", LoginPage.EMAIL_INPUT_CSS);
+        SELECTORS.put("password", LoginPage.PASSWORD_INPUT_CSS);
+        SELECTORS.put("submit", LoginPage.SUBMIT_BUTTON_CSS);
+        SELECTORS.put("error", LoginPage.ERROR_MESSAGE_CSS);
+    }
+
+    private static final List<String> ATTRIBUTES = Arrays.asList("id", "type", "placeholder", "value", "name", "aria-live");
+
+    private static final String SNAPSHOT_SCRIPT =
+            "var selectors = arguments[0], attributes = arguments[1], result = {};"
+                    + "function displayed(el) {"
+                    + "  var style = window.getComputedStyle(el);"
+                    + "  return el.getClientRects().length > 0 && style.visibility !== 'hidden'"
+                    + "      && style.display !== 'none' && style.opacity !== '0';"
+                    + "}"
+                    + "Object.keys(selectors).forEach(function (name) {"
+                    + "  var el = document.querySelector(selectors[name]);"
+                    + "  if (!el) { result[name] = null; return; }"
+                    + "  var attrs = {};"
+                    + "  attributes.forEach(function (a) { if (el.hasAttribute(a)) { attrs[a] = el.getAttribute(a); } });"
+                    + "  if ('value' in el) { attrs.value = el.value; }"
+                    + "  result[name] = {"
+                    + "    text: (el.innerText || '').trim(),"
+                    + "    displayed: displayed(el),"
+                    + "    classes: Array.prototype.slice.call(el.classList),"
+                    + "    attributes: attrs"
+                    + "  };"
+                    + "});"
+                    + "return {"
+                    + "  elements: result,"
+                    + "  activeElementId: document.activeElement ? document.activeElement.id : '',"
+                    + "  url: window.location.href"
+                    + "};";
+
+    private final Map<String, ElementState> elements;
+    private final String activeElementId;
+    private final String url;
+
+    private LoginFormSnapshot(Map<String, ElementState> elements, String activeElementId, String url) {
+        this.elements = elements;
+        this.activeElementId = activeElementId;
+        this.url = url;
+    }
+
+    public static LoginFormSnapshot capture(WebDriver driver) {
+        return fromValue(((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, SELECTORS, ATTRIBUTES));
+    }
+
+    /**
+     * Le même script sous forme d'expression, pour une évaluation directe par DevTools ({@link AsyncLoginPage}).
+     */
+    static String expression() {
+        Json json = new Json();
+        return "(function () {" + SNAPSHOT_SCRIPT + "}).apply(null, [" + json.toJson(SELECTORS) + ", " + json.toJson(ATTRIBUTES) + "])";
+    }
+
+    /**
+     * Instantané construit à partir de la valeur renvoyée par le script.
+     */
+    static LoginFormSnapshot fromValue(Object raw) {
+        Map<?, ?> map = raw instanceof Map ? (Map<?, ?>) raw : Collections.emptyMap();
+        Map<?, ?> rawElements = map.get("elements") instanceof Map ? (Map<?, ?>) map.get("elements") : Collections.emptyMap();
+
+        Map<String, ElementState> elements = new LinkedHashMap<>();
+        for (String name : SELECTORS.keySet()) {
+            Object state = rawElements.get(name);
+            elements.put(name, state instanceof Map ? ElementState.from((Map<?, ?>) state) : ElementState.MISSING);
+        }
+        return new LoginFormSnapshot(elements,
+                map.get("activeElementId") == null ? "" : String.valueOf(map.get("activeElementId")),
+                String.valueOf(map.get("url")));
+    }
+
+    public ElementState title() {
+        return elements.get("title");
+    }
+
+    public ElementState emailInput() {
+        return elements.get("email");
+    }
+
+    public ElementState passwordInput() {
+        return elements.get("password");
+    }
+
+    public ElementState submitButton() {
+        return elements.get("submit");
+    }
+
+    public ElementState errorMessage() {
+        return elements.get("error");
+    }
+
+    public String activeElementId() {
+        return activeElementId;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    /**
+     * État figé d'un élément au moment de la capture.
+     */
+    public static final class ElementState {
+        static final ElementState MISSING = new ElementState(false, "", false, Collections.emptyList(), Collections.emptyMap());
+
+        private final boolean present;
+        private final String text;
+        private final boolean displayed;
+        private final List<String> classes;
+        private final Map<String, String> attributes;
+
+        private ElementState(boolean present, String text, boolean displayed, List<String> classes, Map<String, String> attributes) {
+            this.present = present;
+            this.text = text;
+            this.displayed = displayed;
+            this.classes = classes;
+            this.attributes = attributes;
+        }
+
+        static ElementState from(Map<?, ?> state) {
+            Map<String, String> attributes = new LinkedHashMap<>();
+            if (state.get("attributes") instanceof Map) {
+                ((Map<?, ?>) state.get("attributes")).forEach((k, v) -> attributes.put(String.valueOf(k), String.valueOf(v)));
+            }
+            List<String> classes = Collections.emptyList();
+            if (state.get("classes") instanceof List) {
+                classes = Collections.unmodifiableList(
+                        ((List<?>) state.get("classes")).stream().map(String::valueOf).collect(Collectors.toList()));
+            }
+            return new ElementState(true,
+                    state.get("text") == null ? "" : String.valueOf(state.get("text")),
+                    Boolean.TRUE.equals(state.get("displayed")),
+                    classes,
+                    Collections.unmodifiableMap(attributes));
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public boolean isDisplayed() {
+            return displayed;
+        }
+
+        public boolean hasClass(String className) {
+            return classes.contains(className);
+        }
+
+        /**
+         * Valeur de l'attribut, ou null s'il est absent.
+         */
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la lecture groupée du formulaire, avec un driver simulé (sans navigateur).
+ */
+public class LoginFormSnapshotTest {
+
+    private final AtomicInteger scripts = new AtomicInteger();
+
+    private WebDriver fakeDriver() {
+        Map<String, Object> email = Map.of(
+                "text", "",
+                "displayed", true,
+                "classes", List.of(),
+                "attributes", Map.of("id", "username", "placeholder", "email", "value", ""));
+        Map<String, Object> error = Map.of(
+                "text", "",
+                "displayed", true,
+                "classes", List.of("errmsg", "offscreen"),
+                "attributes", Map.of());
+        Map<String, Object> title = Map.of(
+                "text", "Se connecter",
+                "displayed", true,
+                "classes", List.of(),
+                "attributes", Map.of());
+        Map<String, Object> result = Map.of(
+                "elements", Map.of("title", title, "email", email, "error", error),
+                "activeElementId", "username",
+                "url", "http://localhost:3005/login");
+
+        return FakeDriver.driver(JavascriptExecutor.class)
+                .on("executeScript", args -> {
+                    scripts.incrementAndGet();
+                    return result;
+                })
+                .on("get", args -> null)
+                .build();
+    }
+
+    @Test
+    public void testSnapshotReadsAllElementsInOneScript() {
+        LoginFormSnapshot form = LoginFormSnapshot.capture(fakeDriver());
+
+        assertEquals(1, scripts.get());
+        assertEquals("Se connecter", form.title().getText());
+        assertTrue(form.emailInput().isDisplayed());
+        assertEquals("email", form.emailInput().getAttribute("placeholder"));
+        assertTrue(form.errorMessage().hasClass("offscreen"));
+        assertFalse("Un élément absent est signalé comme tel", form.passwordInput().isPresent());
+        assertNull(form.passwordInput().getAttribute("placeholder"));
+        assertEquals("username", form.activeElementId());
+    }
+
+    @Test
+    public void testLoginPageCachesSnapshotUntilNavigation() {
+        LoginPage loginPage = new LoginPage(fakeDriver(), "http://localhost:3005");
+
+        assertEquals("Se connecter", loginPage.getTitle());
+        assertSame(loginPage.snapshot(), loginPage.snapshot());
+        assertEquals(1, scripts.get());
+
+        loginPage.open();
+        loginPage.snapshot();
+        assertEquals("La navigation invalide l'état mis en cache", 2, scripts.get());
+    }
+}
@@ -0,0 +1,304 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Générateur de charge sur le parcours de connexion : N utilisateurs virtuels, chacun avec sa
+ * session Chrome headless et sa {@link LoginPage}, enchaînent {@code open()} / {@code login()} /
+ * {@code waitForRedirect()} avec un mélange d'identifiants valides et invalides.
+ *
+ * <p>Deux modèles : boucle fermée (chaque utilisateur enchaîne les itérations) ou, si un débit cible
+ * est donné, arrivées ouvertes à cadence fixe. Dans ce second cas la latence est mesurée depuis
+ * l'instant d'arrivée prévu, pour inclure l'attente d'un utilisateur libre.</p>
+ */
+public class LoginLoadGenerator {
+
+    static final String INVALID_EMAIL = "utilisateur@test.com";
+    static final String INVALID_PASSWORD = "mauvais_mot_de_passe";
+
+    private static final long END_OF_ARRIVALS = Long.MIN_VALUE;
+
+    private final Config config;
+    private final Supplier<WebDriver> sessions;
+
+    private final LatencyRecorder.Histogram validLatency = new LatencyRecorder.Histogram();
+    private final LatencyRecorder.Histogram invalidLatency = new LatencyRecorder.Histogram();
+    private final AtomicLong validErrors = new AtomicLong();
+    private final AtomicLong invalidErrors = new AtomicLong();
+
+    public LoginLoadGenerator(Config config, Supplier<WebDriver> sessions) {
+        this.config = config;
+        this.sessions = sessions;
+    }
+
+    /**
+     * Lance la charge et bloque jusqu'à la fin (durée écoulée ou itérations épuisées).
+     */
+    public Result run() throws InterruptedException {
+        ExecutorService users = Executors.newFixedThreadPool(config.users);
+        // Arrivées ouvertes : instant prévu de chaque arrivée ; en boucle fermée la file n'est pas utilisée.
+        // Le nombre d'itérations borne alors les arrivées planifiées, pas les tours de boucle des utilisateurs.
+        BlockingQueue<Long> arrivals = new LinkedBlockingQueue<>();
+        AtomicLong remainingIterations = new AtomicLong(config.iterations > 0 ? config.iterations : Long.MAX_VALUE);
+        long start = System.nanoTime();
+        long end = config.durationSeconds > 0 ? start + TimeUnit.SECONDS.toNanos(config.durationSeconds) : Long.MAX_VALUE;
+
+        System.out.println("Charge: " + config);
+        for (int i = 0; i < config.users; i++) {
+            long startDelayNanos = config.users > 1
+                    ? TimeUnit.SECONDS.toNanos(config.rampUpSeconds) * i / (config.users - 1) : 0;
+            users.submit(() -> runUser(start + startDelayNanos, end, remainingIterations, arrivals));
+        }
+
+        if (config.arrivalsPerSecond > 0) {
+            scheduleArrivals(arrivals, start, end, remainingIterations);
+        }
+        users.shutdown();
+        users.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        // Arrivées prévues qu'aucun utilisateur n'a servies avant la fin : l'arriéré que la boucle fermée masquerait
+        long unservedArrivals = arrivals.stream().filter(arrival -> arrival != END_OF_ARRIVALS).count();
+        return new Result(config, System.nanoTime() - start, validLatency, invalidLatency,
+                validErrors.get(), invalidErrors.get(), unservedArrivals);
+    }
+
+    private void scheduleArrivals(BlockingQueue<Long> arrivals, long start, long end, AtomicLong remainingIterations)
+            throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.arrivalsPerSecond);
+        long next = start;
+        while (next < end && remainingIterations.getAndDecrement() > 0) {
+            long sleepNanos = next - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+            arrivals.put(next);
+            next += intervalNanos;
+        }
+        // Fin des arrivées : un marqueur par utilisateur
+        for (int i = 0; i < config.users; i++) {
+            arrivals.put(END_OF_ARRIVALS);
+        }
+    }
+
+    private void runUser(long startAt, long end, AtomicLong remainingIterations, BlockingQueue<Long> arrivals) {
+        try {
+            long delay = startAt - System.nanoTime();
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        WebDriver driver = sessions.get();
+        try {
+            TimeoutCalibration.calibrateOnce(driver, config.baseUrl);
+            LoginPage loginPage = new LoginPage(driver, config.baseUrl);
+            while (System.nanoTime() < end) {
+                long intendedStart = System.nanoTime();
+                if (config.arrivalsPerSecond > 0) {
+                    // Chaque arrivée a déjà été décomptée par le planificateur
+                    intendedStart = arrivals.take();
+                    if (intendedStart == END_OF_ARRIVALS) {
+                        return;
+                    }
+                } else if (remainingIterations.getAndDecrement() <= 0) {
+                    return;
+                }
+                boolean valid = ThreadLocalRandom.current().nextDouble() >= config.invalidRatio;
+                boolean ok = iteration(driver, loginPage, valid);
+                (valid ? validLatency : invalidLatency).add(System.nanoTime() - intendedStart);
+                if (!ok) {
+                    (valid ? validErrors : invalidErrors).incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                System.err.println("Erreur lors de la fermeture du WebDriver: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Une connexion complète ; renvoie true si le résultat est celui attendu pour ces identifiants.
+     */
+    private boolean iteration(WebDriver driver, LoginPage loginPage, boolean valid) {
+        try {
+            // Repartir d'une session vierge : cookies et storage de l'itération précédente
+            driver.manage().deleteAllCookies();
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            loginPage.open();
+            if (valid) {
+                loginPage.login(TestEnvironment.VALID_EMAIL, TestEnvironment.VALID_PASSWORD).waitForRedirect();
+                return !loginPage.getCurrentUrl().contains("/login");
+            }
+            loginPage.login(INVALID_EMAIL, INVALID_PASSWORD);
+            return loginPage.getCurrentUrl().contains("/login") && loginPage.isErrorVisible();
+        } catch (Exception e) {
+            System.err.println("Itération en erreur: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Paramètres de charge, lus depuis les propriétés système {@code load.*}.
+     */
+    public static final class Config {
+        final String baseUrl;
+        final int users;
+        final long durationSeconds;
+        final long iterations;
+        final long rampUpSeconds;
+        final double arrivalsPerSecond;
+        final double invalidRatio;
+
+        Config(String baseUrl, int users, long durationSeconds, long iterations, long rampUpSeconds,
+               double arrivalsPerSecond, double invalidRatio) {
+            this.baseUrl = baseUrl;
+            this.users = Math.max(1, users);
+            this.durationSeconds = durationSeconds;
+            this.iterations = iterations;
+            this.rampUpSeconds = rampUpSeconds;
+            this.arrivalsPerSecond = arrivalsPerSecond;
+            this.invalidRatio = invalidRatio;
+        }
+
+        public static Config fromSystemProperties() {
+            long iterations = Long.getLong("load.iterations", 0);
+            return new Config(
+                    System.getProperty("load.baseUrl", TestEnvironment.baseUrl()),
+                    Integer.getInteger("load.users", 4),
+                    Long.getLong("load.duration.seconds", iterations > 0 ? 0 : 60),
+                    iterations,
+                    Long.getLong("load.rampup.seconds", 10),
+                    Double.parseDouble(System.getProperty("load.rate", "0")),
+                    Double.parseDouble(System.getProperty("load.invalid.ratio", "0.3")));
+        }
+
+        @Override
+        public String toString() {
+            return users + " utilisateurs, "
+                    + (durationSeconds > 0 ? durationSeconds + " s" : iterations + " itérations")
+                    + ", montée en charge " + rampUpSeconds + " s, "
+                    + (arrivalsPerSecond > 0 ? arrivalsPerSecond + " arrivées/s" : "boucle fermée")
+                    + ", " + Math.round(invalidRatio * 100) + " % d'identifiants invalides, cible " + baseUrl;
+        }
+    }
+
+    /**
+     * Résultat d'une campagne : débit, taux d'erreur et distribution des latences de bout en bout.
+     */
+    public static final class Result {
+        private final Config config;
+        private final long elapsedNanos;
+        private final LatencyRecorder.Histogram validLatency;
+        private final LatencyRecorder.Histogram invalidLatency;
+        private final long validErrors;
+        private final long invalidErrors;
+        private final long unservedArrivals;
+
+        Result(Config config, long elapsedNanos, LatencyRecorder.Histogram validLatency,
+               LatencyRecorder.Histogram invalidLatency, long validErrors, long invalidErrors, long unservedArrivals) {
+            this.config = config;
+            this.elapsedNanos = elapsedNanos;
+            this.validLatency = validLatency;
+            this.invalidLatency = invalidLatency;
+            this.validErrors = validErrors;
+            this.invalidErrors = invalidErrors;
+            this.unservedArrivals = unservedArrivals;
+        }
+
+        public long iterations() {
+            return validLatency.count() + invalidLatency.count();
+        }
+
+        public double throughputPerSecond() {
+            return iterations() / (elapsedNanos / 1e9);
+        }
+
+        public double errorRate() {
+            long total = iterations();
+            return total == 0 ? 0 : (validErrors + invalidErrors) / (double) total;
+        }
+
+        /**
+         * Arrivées planifiées restées en file à la fin (arrivées ouvertes seulement) : la charge que les
+         * utilisateurs n'ont pas pu absorber, absente des latences mesurées.
+         */
+        public long unservedArrivals() {
+            return unservedArrivals;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("config", config.toString());
+            map.put("elapsed_s", elapsedNanos / 1e9);
+            map.put("iterations", iterations());
+            map.put("throughput_per_s", throughputPerSecond());
+            map.put("error_rate", errorRate());
+            map.put("unserved_arrivals", unservedArrivals);
+            map.put("valid", scenario(validLatency, validErrors));
+            map.put("invalid", scenario(invalidLatency, invalidErrors));
+            return map;
+        }
+
+        private static Map<String, Object> scenario(LatencyRecorder.Histogram latency, long errors) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", latency.count());
+            map.put("errors", errors);
+            map.put("error_rate", latency.count() == 0 ? 0 : errors / (double) latency.count());
+            map.put("p50_ms", latency.percentile(50) / 1e6);
+            map.put("p95_ms", latency.percentile(95) / 1e6);
+            map.put("p99_ms", latency.percentile(99) / 1e6);
+            map.put("max_ms", latency.percentile(100) / 1e6);
+            return map;
+        }
+
+        public void write(Path dir) throws IOException {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("report.json"), new Json().toJson(toMap()), StandardCharsets.UTF_8);
+        }
+
+        public String summary() {
+            List<String> lines = new ArrayList<>();
+            lines.add("=== Test de charge de la connexion ===");
+            lines.add(String.format("  Itérations : %d en %.1f s (%.2f connexions/s)",
+                    iterations(), elapsedNanos / 1e9, throughputPerSecond()));
+            lines.add(String.format("  Erreurs    : %.1f %%", errorRate() * 100));
+            if (unservedArrivals > 0) {
+                lines.add(String.format("  Arriéré    : %d arrivées non servies à la fin", unservedArrivals));
+            }
+            lines.add(line("valides", validLatency, validErrors));
+            lines.add(line("invalides", invalidLatency, invalidErrors));
+            return String.join("\n", lines);
+        }
+
+        private static String line(String name, LatencyRecorder.Histogram latency, long errors) {
+            return String.format("  %-10s : n=%d erreurs=%d p50=%.0f ms p95=%.0f ms p99=%.0f ms", name,
+                    latency.count(), errors, latency.percentile(50) / 1e6, latency.percentile(95) / 1e6,
+                    latency.percentile(99) / 1e6);
+        }
+    }
+}
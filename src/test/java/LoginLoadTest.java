@@ -0,0 +1,30 @@
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.Assert.*;
+
+/**
+ * Point d'entrée du test de charge de la connexion (profil Maven {@code load}) :
+ * {@code mvn test -Pload -Dload.users=8 -Dload.duration.seconds=120 -Dload.rate=4}.
+ * Ignoré lors d'un {@code mvn test} normal.
+ */
+public class LoginLoadTest {
+
+    @Test
+    public void testLoginUnderLoad() throws Exception {
+        Assume.assumeTrue("Test de charge désactivé (activer avec -Pload)", Boolean.getBoolean("load.test"));
+
+        LoginLoadGenerator.Config config = LoginLoadGenerator.Config.fromSystemProperties();
+        BrowserProfile profile = BrowserProfile.fromSystemProperties().headless();
+        LoginLoadGenerator.Result result = new LoginLoadGenerator(config, () -> DriverPool.ChromeSessions.start(profile)).run();
+
+        System.out.println(result.summary());
+        result.write(Paths.get("target", "load"));
+
+        assertTrue("Aucune connexion n'a été effectuée", result.iterations() > 0);
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max.error.rate", "1.0"));
+        assertTrue("Taux d'erreur trop élevé: " + result.errorRate(), result.errorRate() <= maxErrorRate);
+    }
+}
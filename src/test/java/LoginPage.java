@@ -1,13 +1,17 @@
 import org.openqa.selenium.By;
 import org.openqa.selenium.Cookie;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public class LoginPage {
@@ -16,57 +20,125 @@ public class LoginPage {
     private final WebDriverWait longWait;
     private final String baseUrl;
 
-    // Sélecteurs
-    private final By titleSelector = By.cssSelector(".connexion h2");
-    private final By emailInputSelector = By.id("username");
-    private final By passwordInputSelector = By.id("password");
-    private final By submitButtonSelector = By.cssSelector(".form-submit");
-    private final By errorMessageSelector = By.className("errmsg");
+    // Délais des attentes, calibrés sur les temps de réponse de l'application (la méthode rend la main dès que la page est prête)
+    private final TimeoutCalibration timeouts;
+    private static final Duration NETWORK_QUIET_PERIOD = Duration.ofMillis(250);
+
+    // Suivi réseau DevTools (vide si le driver ne l'expose pas) et dernière réponse d'authentification
+    private final Optional<NetworkActivity> network;
+    private int loginMark = -1;
+    private NetworkActivity.ApiResponse lastAuthResponse;
+    private int formSubmissions;
+
+    // État du formulaire lu en un seul executeScript, valable jusqu'à la prochaine navigation ou saisie
+    private LoginFormSnapshot formSnapshot;
+
+    // Sélecteurs CSS du formulaire, partagés avec les scripts (LoginFormSnapshot, AsyncLoginPage, ReadinessWait)
+    static final String TITLE_CSS = ".connexion h2";
+    static final String EMAIL_INPUT_CSS = "#username";
+    static final String PASSWORD_INPUT_CSS = "#password";
+    static final String SUBMIT_BUTTON_CSS = ".form-submit";
+    static final String ERROR_MESSAGE_CSS = ".errmsg";
+
+    private final By emailInputSelector = By.cssSelector(EMAIL_INPUT_CSS);
+    private final By passwordInputSelector = By.cssSelector(PASSWORD_INPUT_CSS);
+    private final By submitButtonSelector = By.cssSelector(SUBMIT_BUTTON_CSS);
+    private final By errorMessageSelector = By.cssSelector(ERROR_MESSAGE_CSS);
 
     public LoginPage(WebDriver driver, String baseUrl) {
         this.driver = driver;
         this.baseUrl = baseUrl;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        this.longWait = new WebDriverWait(driver, Duration.ofSeconds(20));
+        this.timeouts = TimeoutCalibration.current();
+        this.wait = new WebDriverWait(driver, timeouts.timeout(TimeoutCalibration.Operation.ELEMENT), timeouts.initialPoll());
+        this.longWait = new WebDriverWait(driver, timeouts.timeout(TimeoutCalibration.Operation.REDIRECT), timeouts.maxPoll());
+        this.network = NetworkActivity.of(driver);
     }
 
     public LoginPage open() {
-        driver.get(baseUrl + "/login");
-        return this;
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.open")) {
+            invalidateSnapshot();
+            driver.get(baseUrl + "/login");
+            return this;
+        }
     }
 
     public WebElement getEmailInput() {
+        invalidateSnapshot();
         try {
-            return driver.findElement(emailInputSelector);
-        } catch (NoSuchElementException e) {
+            return wait.until(ExpectedConditions.presenceOfElementLocated(emailInputSelector));
+        } catch (TimeoutException e) {
             throw new RuntimeException("Le champ email n'a pas été trouvé sur la page", e);
         }
     }
 
     public WebElement getPasswordInput() {
+        invalidateSnapshot();
         try {
-            return driver.findElement(passwordInputSelector);
-        } catch (NoSuchElementException e) {
+            return wait.until(ExpectedConditions.presenceOfElementLocated(passwordInputSelector));
+        } catch (TimeoutException e) {
             throw new RuntimeException("Le champ mot de passe n'a pas été trouvé sur la page", e);
         }
     }
 
     public WebElement getSubmitButton() {
+        invalidateSnapshot();
         try {
-            return driver.findElement(submitButtonSelector);
-        } catch (NoSuchElementException e) {
+            return wait.until(ExpectedConditions.presenceOfElementLocated(submitButtonSelector));
+        } catch (TimeoutException e) {
             throw new RuntimeException("Le bouton de soumission n'a pas été trouvé sur la page", e);
         }
     }
 
     public String getTitle() {
-        try {
-            return driver.findElement(titleSelector).getText();
-        } catch (NoSuchElementException e) {
-            throw new RuntimeException("Le titre n'a pas été trouvé sur la page", e);
+        LoginFormSnapshot.ElementState title = snapshot().title();
+        if (!title.isPresent()) {
+            throw new RuntimeException("Le titre n'a pas été trouvé sur la page");
+        }
+        return title.getText();
+    }
+
+    /**
+     * État de tous les éléments du formulaire (texte, attributs, classes, visibilité), lu en un seul
+     * aller-retour et conservé jusqu'à la prochaine navigation ou interaction de cette page.
+     * Le message d'erreur, qui change de façon asynchrone, se lit plutôt via {@link #isErrorVisible()}.
+     */
+    public LoginFormSnapshot snapshot() {
+        if (formSnapshot == null) {
+            try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.snapshot")) {
+                formSnapshot = LoginFormSnapshot.capture(driver);
+            }
+        }
+        return formSnapshot;
+    }
+
+    /**
+     * Mesures de performance de la page actuellement chargée (voir {@link PageMetrics}) :
+     * à appeler juste après {@link #open()} ou après la redirection d'une connexion.
+     */
+    public PageMetrics pageMetrics() {
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.pageMetrics")) {
+            PageMetrics metrics = PageMetrics.collect(driver);
+            EventLog.info("LoginPage.pageMetrics", metrics.toString());
+            return metrics;
+        }
+    }
+
+    /**
+     * Capture d'écran (PNG) stable pour la régression visuelle : le champ actif perd le focus pour que
+     * le curseur clignotant n'apparaisse pas sur une capture sur deux.
+     */
+    public byte[] captureForVisualCheck() {
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.captureForVisualCheck")) {
+            ((JavascriptExecutor) driver).executeScript("if (document.activeElement) { document.activeElement.blur(); }");
+            invalidateSnapshot();
+            return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
         }
     }
 
+    private void invalidateSnapshot() {
+        formSnapshot = null;
+    }
+
     public String getCurrentUrl() {
         return driver.getCurrentUrl();
     }
@@ -79,10 +151,11 @@ public class LoginPage {
         }
     }
 
+    // Lectures sans attente : sans implicit wait, un message absent est constaté immédiatement
     public String getErrorMessage() {
         try {
-            WebElement errorElement = driver.findElement(errorMessageSelector);
-            return errorElement.getText();
+            List<WebElement> errorElements = driver.findElements(errorMessageSelector);
+            return errorElements.isEmpty() ? "" : errorElements.get(0).getText();
         } catch (Exception e) {
             return "";
         }
@@ -90,16 +163,17 @@ public class LoginPage {
 
     public boolean isErrorVisible() {
         try {
-            WebElement errorElement = driver.findElement(errorMessageSelector);
-            String classAttribute = errorElement.getAttribute("class");
-            return !classAttribute.contains("offscreen");
+            List<WebElement> errorElements = driver.findElements(errorMessageSelector);
+            return !errorElements.isEmpty() && !errorElements.get(0).getAttribute("class").contains("offscreen");
         } catch (Exception e) {
             return false;
         }
     }
 
     public LoginPage fillLoginForm(String email, String password) {
-        try {
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.fillLoginForm")) {
+            invalidateSnapshot();
+            EventLog.registerSecret(password);
             WebElement emailInput = getEmailInput();
             WebElement passwordInput = getPasswordInput();
 
@@ -112,9 +186,9 @@ public class LoginPage {
             ((JavascriptExecutor) driver).executeScript("arguments[0].value = '';", passwordInput);
             passwordInput.sendKeys(password);
 
-            System.out.println("Formulaire rempli - Email: " + email + ", Password: " + password);
+            EventLog.info("LoginPage.fillLoginForm", email);
         } catch (Exception e) {
-            System.out.println("Erreur lors du remplissage du formulaire: " + e.getMessage());
+            EventLog.error("LoginPage.fillLoginForm", e);
             throw new RuntimeException("Erreur lors du remplissage du formulaire", e);
         }
 
@@ -122,8 +196,10 @@ public class LoginPage {
     }
 
     public LoginPage submitLoginForm() {
-        try {
-            System.out.println("Soumission du formulaire de connexion...");
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.submitLoginForm")) {
+            invalidateSnapshot();
+            EventLog.step("LoginPage.submitLoginForm");
+            formSubmissions++;
             WebElement submitButton = getSubmitButton();
 
             // S'assurer que le bouton est cliquable
@@ -134,160 +210,269 @@ public class LoginPage {
 
             // Si cela ne fonctionne pas, essayer avec JavaScript
             try {
-                Thread.sleep(500);
-                if (driver.getCurrentUrl().contains("/login")) {
-                    System.out.println("Essai de clic avec JavaScript...");
+                boolean acknowledged = timeouts.readiness(driver, TimeoutCalibration.Operation.SUBMIT_ACK)
+                        .tryUntil(ReadinessWait.PageState::hasLoginOutcome)
+                        .isPresent();
+                if (!acknowledged) {
+                    EventLog.info("LoginPage.submitLoginForm", "clic JavaScript");
                     ((JavascriptExecutor) driver).executeScript("arguments[0].click();", submitButton);
                 }
             } catch (Exception e) {
-                System.out.println("Exception lors du clic JS: " + e.getMessage());
+                EventLog.error("LoginPage.submitLoginForm", e);
             }
 
-            System.out.println("Formulaire soumis, URL actuelle: " + driver.getCurrentUrl());
+            EventLog.url("LoginPage.submitLoginForm", driver.getCurrentUrl());
         } catch (Exception e) {
-            System.out.println("Erreur lors de la soumission du formulaire: " + e.getMessage());
+            EventLog.error("LoginPage.submitLoginForm", e);
             throw new RuntimeException("Erreur lors de la soumission du formulaire", e);
         }
         return this;
     }
 
     public LoginPage login(String email, String password) {
-        System.out.println("Tentative de connexion avec: " + email);
-        fillLoginForm(email, password);
-        submitLoginForm();
-
-        // Attendre que la page se charge après connexion
-        try {
-            Thread.sleep(3000);
-            System.out.println("Après attente, URL: " + driver.getCurrentUrl());
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.login")) {
+            invalidateSnapshot();
+            EventLog.info("LoginPage.login", email);
+            network.ifPresent(n -> n.release(loginMark));
+            loginMark = network.map(NetworkActivity::mark).orElse(-1);
+            lastAuthResponse = null;
+            fillLoginForm(email, password);
+            submitLoginForm();
+
+            // Attendre la réponse de l'API d'authentification (événement DevTools, sans sondage)
+            network.filter(n -> n.awaitRequest(NetworkActivity.AUTH_ENDPOINT, loginMark,
+                            timeouts.timeout(TimeoutCalibration.Operation.SUBMIT_ACK)))
+                    .flatMap(n -> n.awaitResponse(NetworkActivity.AUTH_ENDPOINT, loginMark,
+                            timeouts.timeout(TimeoutCalibration.Operation.LOGIN_OUTCOME)))
+                    .ifPresent(response -> {
+                        lastAuthResponse = response;
+                        EventLog.info("LoginPage.login", response.toString());
+                    });
+
+            // Attendre le résultat de la connexion : redirection, jeton d'authentification ou message d'erreur
+            ReadinessWait.PageState state = timeouts.readiness(driver, TimeoutCalibration.Operation.LOGIN_OUTCOME)
+                    .tryUntil(ReadinessWait.PageState::hasLoginOutcome)
+                    .orElse(null);
+            if (state == null) {
+                EventLog.timeout("LoginPage.login", "aucun résultat de connexion");
+            }
+            EventLog.url("LoginPage.login", driver.getCurrentUrl());
 
             // Afficher les cookies pour débogage
             printCookies();
 
             // Si toujours sur login mais pas d'erreur, on considère la connexion réussie
-            if (driver.getCurrentUrl().contains("/login") && !isErrorVisible()) {
-                System.out.println("Toujours sur /login mais pas d'erreur - navigation manuelle vers la racine");
+            boolean errorVisible = state != null ? state.isErrorVisible() : isErrorVisible();
+            if (driver.getCurrentUrl().contains("/login") && !errorVisible) {
+                EventLog.info("LoginPage.login", "navigation manuelle vers la racine");
                 driver.get(baseUrl);
-                Thread.sleep(1000);
+                waitForAppRendered();
             }
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+
+            return this;
         }
+    }
 
+    /**
+     * Connexion via le {@link SessionCache} : l'interface n'est utilisée que pour la première
+     * connexion avec ces identifiants, les appels suivants injectent la session capturée.
+     */
+    public LoginPage loginWithCachedSession(String email, String password) {
+        invalidateSnapshot();
+        boolean authenticated = SessionCache.shared().authenticate(driver, baseUrl, email, password, () -> {
+            open();
+            login(email, password);
+            waitForRedirect();
+            return isAuthenticated();
+        });
+        EventLog.info("LoginPage.loginWithCachedSession", (authenticated ? "authentifiée: " : "non authentifiée: ") + email);
         return this;
     }
 
     public void printCookies() {
         Set<Cookie> cookies = driver.manage().getCookies();
-        System.out.println("Cookies après connexion (" + cookies.size() + ") :");
+        // Noms seulement : les valeurs des cookies de session sont des secrets
         for (Cookie cookie : cookies) {
-            System.out.println("  - " + cookie.getName() + ": " + cookie.getValue().substring(0, Math.min(10, cookie.getValue().length())) + "...");
+            EventLog.info("LoginPage.printCookies", cookie.getName());
         }
     }
 
     public LoginPage waitForErrorMessage() {
+        invalidateSnapshot();
         try {
             wait.until(ExpectedConditions.visibilityOfElementLocated(errorMessageSelector));
-            System.out.println("Message d'erreur détecté");
+            EventLog.selector("LoginPage.waitForErrorMessage", ERROR_MESSAGE_CSS, true);
         } catch (Exception e) {
-            System.out.println("Le message d'erreur n'est jamais apparu: " + e.getMessage());
+            EventLog.selector("LoginPage.waitForErrorMessage", ERROR_MESSAGE_CSS, false);
+            if (e instanceof TimeoutException) {
+                EventLog.timeout("LoginPage.waitForErrorMessage", ERROR_MESSAGE_CSS);
+            }
         }
         return this;
     }
 
     public LoginPage waitForErrorToDisappear() {
+        invalidateSnapshot();
         try {
-            wait.until(driver -> {
-                try {
-                    WebElement errorElement = driver.findElement(errorMessageSelector);
-                    String classAttribute = errorElement.getAttribute("class");
-                    boolean isGone = classAttribute.contains("offscreen");
-                    System.out.println("Message d'erreur disparu: " + isGone);
-                    return isGone;
-                } catch (Exception e) {
-                    return true; // Si l'élément n'existe plus, le test passe
-                }
-            });
+            // Si l'élément n'existe plus, le test passe
+            wait.until(driver -> !isErrorVisible());
+        } catch (TimeoutException e) {
+            EventLog.timeout("LoginPage.waitForErrorToDisappear", ERROR_MESSAGE_CSS + " toujours visible");
         } catch (Exception e) {
-            System.out.println("Le message d'erreur n'a pas disparu: " + e.getMessage());
+            EventLog.error("LoginPage.waitForErrorToDisappear", e);
         }
         return this;
     }
 
+    /**
+     * Nombre de soumissions du formulaire de connexion par cette page.
+     */
+    public int getFormSubmissions() {
+        return formSubmissions;
+    }
+
+    /**
+     * Dernière réponse de l'API d'authentification observée pendant {@link #login}, ou null
+     * si DevTools n'est pas disponible ou si aucune requête n'a été vue.
+     */
+    public NetworkActivity.ApiResponse getLastAuthResponse() {
+        return lastAuthResponse;
+    }
+
     public LoginPage waitForRedirect() {
-        String startUrl = driver.getCurrentUrl();
-        System.out.println("Attente de redirection, URL initiale: " + startUrl);
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.waitForRedirect")) {
+            invalidateSnapshot();
+            String startUrl = driver.getCurrentUrl();
+            EventLog.url("LoginPage.waitForRedirect", startUrl);
 
-        try {
-            // Attendre que l'URL change ou qu'un élément de la page d'accueil apparaisse
-            longWait.until(driver -> {
-                String currentUrl = driver.getCurrentUrl();
-                boolean redirected = !currentUrl.contains("/login");
-                System.out.println("Vérification de redirection - URL actuelle: " + currentUrl + ", Redirigé: " + redirected);
-
-                // Si l'URL a changé, on considère qu'il y a eu redirection
-                if (redirected) {
-                    return true;
+            if (network.isPresent()) {
+                return waitForRedirectOnNetwork(network.get(), startUrl);
+            }
+
+            try {
+                // Attendre que l'URL change ou qu'un élément de la page d'accueil apparaisse
+                longWait.until(driver -> {
+                    String currentUrl = driver.getCurrentUrl();
+                    boolean redirected = !currentUrl.contains("/login");
+
+                    // Si l'URL a changé, on considère qu'il y a eu redirection
+                    if (redirected) {
+                        return true;
+                    }
+
+                    // Sinon, vérifier si des éléments de la page d'accueil sont présents
+                    try {
+                        boolean hasHomeElements = !driver.findElements(By.tagName("table")).isEmpty() ||
+                                !driver.findElements(By.cssSelector("h1")).isEmpty();
+                        return hasHomeElements && !isErrorVisible();
+                    } catch (Exception e) {
+                        return false;
+                    }
+                });
+
+                EventLog.url("LoginPage.waitForRedirect", driver.getCurrentUrl());
+            } catch (Exception e) {
+                if (e instanceof TimeoutException) {
+                    EventLog.timeout("LoginPage.waitForRedirect", "pas de redirection");
+                } else {
+                    EventLog.error("LoginPage.waitForRedirect", e);
                 }
 
-                // Sinon, vérifier si des éléments de la page d'accueil sont présents
-                try {
-                    boolean hasHomeElements = !driver.findElements(By.tagName("table")).isEmpty() ||
-                            !driver.findElements(By.cssSelector("h1")).isEmpty();
-                    return hasHomeElements && !isErrorVisible();
-                } catch (Exception e) {
-                    return false;
+                // Si pas redirigé mais pas d'erreur visible non plus, tenter navigation manuelle
+                if (driver.getCurrentUrl().contains("/login") && !isErrorVisible()) {
+                    EventLog.info("LoginPage.waitForRedirect", "navigation manuelle vers la racine");
+                    driver.get(baseUrl);
                 }
-            });
+            }
+            return this;
+        }
+    }
 
-            System.out.println("Redirection détectée ou éléments de page d'accueil trouvés");
-        } catch (Exception e) {
-            System.out.println("Exception lors de l'attente de redirection: " + e.getMessage());
+    /**
+     * Variante de {@link #waitForRedirect()} pilotée par les événements réseau : on attend la réponse
+     * d'authentification puis que le réseau soit au repos, et on ne lit l'URL qu'une fois à la fin.
+     */
+    private LoginPage waitForRedirectOnNetwork(NetworkActivity activity, String startUrl) {
+        if (!startUrl.contains("/login")) {
+            EventLog.info("LoginPage.waitForRedirect", "redirection déjà effectuée");
+            return this;
+        }
 
-            // Si pas redirigé mais pas d'erreur visible non plus, tenter navigation manuelle
-            if (driver.getCurrentUrl().contains("/login") && !isErrorVisible()) {
-                System.out.println("Navigation manuelle vers la racine");
-                driver.get(baseUrl);
+        Duration redirectBudget = timeouts.timeout(TimeoutCalibration.Operation.REDIRECT);
+        long deadline = System.nanoTime() + redirectBudget.toNanos();
+        if (lastAuthResponse == null) {
+            lastAuthResponse = activity.awaitResponse(NetworkActivity.AUTH_ENDPOINT, loginMark, redirectBudget).orElse(null);
+            if (lastAuthResponse == null) {
+                EventLog.timeout("LoginPage.waitForRedirect", "aucune réponse d'authentification");
             }
         }
+        if (lastAuthResponse != null && !lastAuthResponse.isSuccess()) {
+            EventLog.info("LoginPage.waitForRedirect", "authentification refusée: " + lastAuthResponse);
+            return this;
+        }
+
+        // Laisser l'application terminer les requêtes déclenchées par la connexion
+        Duration remaining = Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+        boolean idle = activity.awaitIdle(NETWORK_QUIET_PERIOD, remaining);
+        String currentUrl = driver.getCurrentUrl();
+        EventLog.info("LoginPage.waitForRedirect", idle ? "réseau au repos" : "réseau toujours actif");
+        EventLog.url("LoginPage.waitForRedirect", currentUrl);
+
+        // Si pas redirigé mais pas d'erreur visible non plus, tenter navigation manuelle
+        if (currentUrl.contains("/login") && !isErrorVisible()) {
+            EventLog.info("LoginPage.waitForRedirect", "navigation manuelle vers la racine");
+            driver.get(baseUrl);
+            waitForAppRendered();
+        }
         return this;
     }
 
-    public boolean isAuthenticated() {
-        // Méthode simplifiée pour vérifier l'authentification
-        // On considère l'utilisateur authentifié si :
-        // 1. Il n'est pas sur la page de login, OU
-        // 2. Il est sur la page de login mais sans message d'erreur (cas spécial)
+    /**
+     * Attend que l'application ait fini de charger et de router : soit elle a renvoyé vers /login,
+     * soit la page protégée est rendue.
+     */
+    private void waitForAppRendered() {
+        boolean rendered = timeouts.readiness(driver, TimeoutCalibration.Operation.PAGE_READY)
+                .tryUntil(state -> state.isLoaded() && (state.isOnLoginPage() || state.isRendered()))
+                .isPresent();
+        if (!rendered) {
+            EventLog.timeout("LoginPage.waitForAppRendered", "application non rendue");
+        }
+    }
 
-        String currentUrl = driver.getCurrentUrl();
+    public boolean isAuthenticated() {
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("LoginPage.isAuthenticated")) {
+            invalidateSnapshot();
+            // Méthode simplifiée pour vérifier l'authentification
+            // On considère l'utilisateur authentifié si :
+            // 1. Il n'est pas sur la page de login, OU
+            // 2. Il est sur la page de login mais sans message d'erreur (cas spécial)
+
+            String currentUrl = driver.getCurrentUrl();
+
+            if (!currentUrl.contains("/login")) {
+                EventLog.url("LoginPage.isAuthenticated", currentUrl);
+                return true;
+            }
 
-        if (!currentUrl.contains("/login")) {
-            System.out.println("Authentification vérifiée : l'utilisateur est sur une page protégée");
-            return true;
-        }
+            // Si sur login mais pas d'erreur, tenter une navigation vers la racine
+            if (currentUrl.contains("/login") && !isErrorVisible()) {
+                EventLog.info("LoginPage.isAuthenticated", "navigation manuelle vers la racine");
 
-        // Si sur login mais pas d'erreur, tenter une navigation vers la racine
-        if (currentUrl.contains("/login") && !isErrorVisible()) {
-            System.out.println("Sur login sans erreur - tentative de navigation vers la racine");
+                // Sauvegarder les cookies
+                Set<Cookie> cookies = driver.manage().getCookies();
 
-            // Sauvegarder les cookies
-            Set<Cookie> cookies = driver.manage().getCookies();
+                driver.get(baseUrl);
+                waitForAppRendered();
 
-            driver.get(baseUrl);
+                // Vérifier si redirigé vers login
+                boolean redirectedToLogin = driver.getCurrentUrl().contains("/login");
+                EventLog.info("LoginPage.isAuthenticated", redirectedToLogin ? "redirigé vers login" : "resté sur la page protégée");
 
-            try {
-                Thread.sleep(2000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+                return !redirectedToLogin;
             }
 
-            // Vérifier si redirigé vers login
-            boolean redirectedToLogin = driver.getCurrentUrl().contains("/login");
-            System.out.println("Après navigation manuelle : " + (redirectedToLogin ? "redirigé vers login" : "resté sur la page protégée"));
-
-            return !redirectedToLogin;
+            return false;
         }
-
-        return false;
     }
 }
\ No newline at end of file
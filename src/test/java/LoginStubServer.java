@@ -0,0 +1,178 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serveur HTTP embarqué qui remplace l'application React et son backend d'authentification :
+ * il sert une page de connexion avec les mêmes sélecteurs ({@code #username}, {@code #password},
+ * {@code .form-submit}, {@code .errmsg}) et un endpoint {@code POST /auth} configurable
+ * (latence et pannes injectables).
+ *
+ * <p>Activé avec {@code -Dapp.stub=true} (profil Maven {@code stub}) : voir {@link TestEnvironment}.</p>
+ */
+public class LoginStubServer implements AutoCloseable {
+
+    private static final String APP_PAGE = "/stub/login-app.html";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] page;
+    private final Json json = new Json();
+    private final Map<String, String> users = new ConcurrentHashMap<>();
+
+    private volatile Duration authLatency = Duration.ZERO;
+    private volatile double authFailureRate;
+    private final AtomicInteger failNextAuth = new AtomicInteger();
+    private final AtomicLong authRequests = new AtomicLong();
+
+    public LoginStubServer(int port) throws IOException {
+        this.page = readPage();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "login-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/auth", this::handleAuth);
+        server.createContext("/favicon.ico", exchange -> respond(exchange, 204, null, new byte[0]));
+        // Application monopage : toutes les autres routes servent la même page
+        server.createContext("/", exchange -> respond(exchange, 200, "text/html; charset=utf-8", page));
+    }
+
+    public LoginStubServer start() {
+        server.start();
+        System.out.println("Serveur de connexion simulé démarré sur " + baseUrl());
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public LoginStubServer withUser(String email, String password) {
+        users.put(email, password);
+        return this;
+    }
+
+    /**
+     * Délai ajouté à chaque réponse de {@code /auth}.
+     */
+    public LoginStubServer withAuthLatency(Duration latency) {
+        this.authLatency = latency;
+        return this;
+    }
+
+    Duration authLatency() {
+        return authLatency;
+    }
+
+    /**
+     * Proportion (0 à 1) des requêtes {@code /auth} qui répondent 503.
+     */
+    public LoginStubServer withAuthFailureRate(double rate) {
+        this.authFailureRate = rate;
+        return this;
+    }
+
+    /**
+     * Les {@code count} prochaines requêtes {@code /auth} échouent (503).
+     */
+    public LoginStubServer failNextAuth(int count) {
+        failNextAuth.set(count);
+        return this;
+    }
+
+    public long authRequests() {
+        return authRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleAuth(HttpExchange exchange) throws IOException {
+        authRequests.incrementAndGet();
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, null, new byte[0]);
+            return;
+        }
+        Map<String, Object> body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = json.toType(new String(in.readAllBytes(), StandardCharsets.UTF_8), Json.MAP_TYPE);
+        } catch (RuntimeException e) {
+            respond(exchange, 400, null, new byte[0]);
+            return;
+        }
+        sleep(authLatency);
+
+        if (failNextAuth.getAndUpdate(n -> Math.max(0, n - 1)) > 0
+                || (authFailureRate > 0 && ThreadLocalRandom.current().nextDouble() < authFailureRate)) {
+            respond(exchange, 503, null, new byte[0]);
+            return;
+        }
+
+        String email = String.valueOf(body.get("email"));
+        String password = String.valueOf(body.get("password"));
+        if (!password.equals(users.get(email))) {
+            respond(exchange, 401, "application/json", "{\"message\":\"Unauthorized\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        exchange.getResponseHeaders().add("Set-Cookie", "jwt=" + token + "; Path=/; HttpOnly; SameSite=Lax");
+        respond(exchange, 200, "application/json",
+                json.toJson(Map.of("accessToken", token)).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] readPage() {
+        try (InputStream in = LoginStubServer.class.getResourceAsStream(APP_PAGE)) {
+            if (in == null) {
+                throw new IllegalStateException("Ressource introuvable: " + APP_PAGE);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du serveur de connexion simulé, sans navigateur.
+ */
+public class LoginStubServerTest {
+
+    private LoginStubServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new LoginStubServer(0).withUser("admin@medical.com", "00001991").start();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> postAuth(String email, String password) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + "/auth"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testEveryRouteServesTheLoginApp() throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(server.baseUrl() + "/login")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("id=\"username\""));
+        assertTrue(response.body().contains("form-submit"));
+        assertTrue(response.body().contains("errmsg offscreen"));
+    }
+
+    @Test
+    public void testValidCredentialsReturnToken() throws Exception {
+        HttpResponse<String> response = postAuth("admin@medical.com", "00001991");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("accessToken"));
+        assertTrue(response.headers().firstValue("Set-Cookie").orElse("").startsWith("jwt="));
+    }
+
+    @Test
+    public void testInvalidCredentialsAreRejected() throws Exception {
+        assertEquals(401, postAuth("utilisateur@test.com", "mauvais_mot_de_passe").statusCode());
+    }
+
+    @Test
+    public void testInjectedFailuresAndLatency() throws Exception {
+        server.failNextAuth(1).withAuthLatency(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertEquals(503, postAuth("admin@medical.com", "00001991").statusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 200);
+        assertEquals(200, postAuth("admin@medical.com", "00001991").statusCode());
+        assertEquals(2, server.authRequests());
+    }
+}
@@ -1,23 +1,23 @@
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.RuleChain;
 import org.junit.rules.TestName;
 import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.WebDriverException;
 
-import java.io.File;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -26,13 +26,19 @@ public class LoginTest {
     private WebDriver driver;
     private LoginPage loginPage;
     // URL mise à jour avec le bon port
-    private final String BASE_URL = "http://localhost:3005";
+    private final String BASE_URL = TestEnvironment.baseUrl();
 
     @Rule
     public TestName testName = new TestName();
 
-    @Rule
-    public TestWatcher screenshotOnFailure = new TestWatcher() {
+    // Session empruntée au pool partagé, rendue (et nettoyée) après chaque test
+    private final PooledDriverRule pooledDriver = new PooledDriverRule();
+
+    // Mesure de départ prise par le @Before, page ouverte
+    private final ResourceMonitorRule resources =
+            new ResourceMonitorRule(pooledDriver::driver, () -> pooledDriver.lease().markBroken());
+
+    private final TestWatcher screenshotOnFailure = new TestWatcher() {
         @Override
         protected void failed(Throwable e, Description description) {
             if (driver != null) {
@@ -41,90 +47,69 @@ public class LoginTest {
         }
     };
 
+    // Chaque test dans un contexte de navigation isolé de la session empruntée ;
+    // la capture d'écran doit être prise avant que le contexte soit jeté et la session rendue au pool,
+    // et le journal d'événements écrit après elle. Un échec dû au timing est relancé sur une session
+    // fraîchement empruntée : la relance entoure l'emprunt et le @Before. Une session trop chargée
+    // (mémoire, tas JS, nombre de tests) est évincée au lieu d'être rendue au pool
+    @Rule
+    public RuleChain driverChain = RuleChain.outerRule(new ShardRule())
+            .around(new TimingRule())
+            .around(new EventLogRule())
+            .around(new RetryRule())
+            .around(pooledDriver)
+            .around(new IsolatedContextRule(pooledDriver::driver))
+            .around(resources)
+            .around(screenshotOnFailure);
+
     @Before
     public void setUp() {
-        try {
-            // Utiliser WebDriverManager pour télécharger et configurer ChromeDriver
-            WebDriverManager.chromedriver().setup();
-
-            ChromeOptions options = new ChromeOptions();
-            // Ajouter des options pour éviter les problèmes courants
-            options.addArguments("--remote-allow-origins=*");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--disable-dev-shm-usage");
+        driver = pooledDriver.driver();
+        loginPage = new LoginPage(driver, BASE_URL);
 
-            // Décommentez la ligne suivante pour exécuter en mode headless
-            // options.addArguments("--headless=new");
-
-            driver = new ChromeDriver(options);
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-            driver.manage().window().maximize();
-
-            loginPage = new LoginPage(driver, BASE_URL);
-
-            // Créer le dossier screenshots s'il n'existe pas
-            try {
-                Files.createDirectories(Paths.get("screenshots"));
-            } catch (IOException e) {
-                System.err.println("Erreur lors de la création du dossier screenshots: " + e.getMessage());
-            }
-
-            // Accéder à la page de connexion
-            loginPage.open();
-        } catch (Exception e) {
-            System.err.println("Erreur lors de l'initialisation du WebDriver: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
-    }
-
-    @After
-    public void tearDown() {
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                System.err.println("Erreur lors de la fermeture du WebDriver: " + e.getMessage());
-            }
-        }
+        // Accéder à la page de connexion
+        loginPage.open();
+        resources.pageReady();
     }
 
     private void captureScreenshot(String testMethod) {
         if (driver == null) {
-            System.err.println("Impossible de prendre une capture d'écran: driver est null");
+            EventLog.error("captureScreenshot", "driver est null");
             return;
         }
 
         try {
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Path destination = Paths.get("screenshots", testMethod + ".png");
-            Files.copy(screenshot.toPath(), destination);
-            System.out.println("Screenshot saved: " + destination);
-        } catch (IOException e) {
-            System.err.println("Failed to capture screenshot: " + e.getMessage());
+            // Capture en mémoire sur le thread de test, écriture sur disque en arrière-plan
+            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            ScreenshotWriter.shared().submit(Workers.screenshotDir(), testMethod, screenshot);
+        } catch (WebDriverException e) {
+            EventLog.error("captureScreenshot", e);
         }
     }
 
     @Test
     public void testLoginPageElements() {
+        // Un seul aller-retour pour l'état de tout le formulaire
+        LoginFormSnapshot form = loginPage.snapshot();
+
         // Vérifier le titre de la page
-        String titleText = loginPage.getTitle();
+        String titleText = form.title().getText();
         assertTrue("Le titre devrait contenir 'Se connecter'", titleText.contains("Se connecter"));
 
         // Vérifier que les champs du formulaire sont présents et visibles
-        assertTrue("Le champ email devrait être visible", loginPage.getEmailInput().isDisplayed());
-        assertTrue("Le champ mot de passe devrait être visible", loginPage.getPasswordInput().isDisplayed());
-        assertTrue("Le bouton de connexion devrait être visible", loginPage.getSubmitButton().isDisplayed());
+        assertTrue("Le champ email devrait être visible", form.emailInput().isDisplayed());
+        assertTrue("Le champ mot de passe devrait être visible", form.passwordInput().isDisplayed());
+        assertTrue("Le bouton de connexion devrait être visible", form.submitButton().isDisplayed());
 
         // Vérifier les placeholders
-        assertEquals("email", loginPage.getEmailInput().getAttribute("placeholder"));
-        assertEquals("password", loginPage.getPasswordInput().getAttribute("placeholder"));
+        assertEquals("email", form.emailInput().getAttribute("placeholder"));
+        assertEquals("password", form.passwordInput().getAttribute("placeholder"));
     }
 
     @Test
     public void testEmailFieldHasFocus() {
         // Vérifier que le champ email a le focus
-        assertEquals("username", loginPage.getActiveElementId());
+        assertEquals("username", loginPage.snapshot().activeElementId());
     }
 
     @Test
@@ -142,6 +127,30 @@ public class LoginTest {
         );
     }
 
+    @Test
+    public void testAsyncPageReportsInvalidCredentials() throws Exception {
+        try (AsyncLoginPage asyncPage = AsyncLoginPage.attach(driver, BASE_URL).get()) {
+            asyncPage.open().get();
+
+            // Lectures indépendantes envoyées ensemble sur la websocket DevTools
+            LoginFormSnapshot form = asyncPage.snapshot()
+                    .thenCombine(asyncPage.currentUrl(), (snapshot, url) -> {
+                        assertTrue("L'URL devrait être celle de la page de connexion", url.contains("/login"));
+                        return snapshot;
+                    })
+                    .get();
+            assertTrue("Le champ email devrait être visible", form.emailInput().isDisplayed());
+
+            AsyncLoginPage.Outcome outcome = asyncPage.login("utilisateur@test.com", "mauvais_mot_de_passe").get();
+            assertFalse("L'utilisateur ne devrait pas être authentifié", outcome.isAuthenticated());
+            assertTrue(
+                    "Le message d'erreur devrait indiquer des identifiants invalides",
+                    outcome.errorMessage().contains("Email ou mot de passe invalide") ||
+                            outcome.errorMessage().contains("No Server Response")
+            );
+        }
+    }
+
     @Test
     public void testErrorDisappearsOnInputChange() {
         // Provoquer d'abord une erreur
@@ -178,6 +187,107 @@ public class LoginTest {
         }
     }
 
+    @Test
+    public void testSlowAuthenticationIsRetriedAsTimeout() throws Throwable {
+        Assume.assumeTrue("Nécessite le serveur simulé (-Pstub)", TestEnvironment.isStubbed());
+        LoginStubServer stub = TestEnvironment.stub();
+        Duration configured = stub.authLatency();
+        TimeoutCalibration timeouts = TimeoutCalibration.current();
+        // Réponse plus lente que toutes les attentes de la connexion : la page les absorbe et rend la main
+        Duration slow = timeouts.timeout(TimeoutCalibration.Operation.SUBMIT_ACK)
+                .plus(timeouts.timeout(TimeoutCalibration.Operation.LOGIN_OUTCOME))
+                .plus(timeouts.timeout(TimeoutCalibration.Operation.REDIRECT))
+                .plusSeconds(1);
+        Path flaky = Files.createTempDirectory("flaky").resolve("flaky.json");
+        FlakinessHistory history = new FlakinessHistory(flaky, 0.3);
+        AtomicInteger attempts = new AtomicInteger();
+
+        Statement login = new Statement() {
+            @Override
+            public void evaluate() {
+                // Seule la première réponse d'authentification est retardée
+                stub.withAuthLatency(attempts.incrementAndGet() == 1 ? slow : Duration.ZERO);
+                loginPage.open();
+                loginPage.login("admin@medical.com", "00001991").waitForRedirect();
+                assertFalse("L'utilisateur devrait être redirigé après connexion", loginPage.getCurrentUrl().contains("/login"));
+            }
+        };
+        try {
+            new RetryRule(history, () -> {
+            }).apply(login, Description.createTestDescription(getClass(), testName.getMethodName())).evaluate();
+        } finally {
+            stub.withAuthLatency(configured);
+        }
+
+        assertEquals("L'échec dû à la lenteur devrait être relancé", 2, attempts.get());
+        history.save();
+        assertTrue(Files.readString(flaky).contains("\"flaky\": 1"));
+    }
+
+    @Test
+    public void testLoginPagePerformanceBudget() {
+        assumeUninterceptedPage();
+        // La page vient d'être ouverte dans setUp()
+        assertWithinBudget("open", loginPage.pageMetrics());
+    }
+
+    @Test
+    public void testLoginPageMatchesVisualBaseline() {
+        // Comparaison à la référence de ce viewport (créée au premier passage)
+        VisualRegression.Result result = VisualRegression.shared().check("loginPage", loginPage.captureForVisualCheck());
+        assertFalse("Écart visuel avec la référence: " + result, result.isMismatch());
+    }
+
+    @Test
+    public void testLoginRedirectPerformanceBudget() {
+        assumeUninterceptedPage();
+        loginPage.login("admin@medical.com", "00001991").waitForRedirect();
+        assertFalse("L'utilisateur devrait être redirigé après connexion", loginPage.getCurrentUrl().contains("/login"));
+
+        assertWithinBudget("login", loginPage.pageMetrics());
+    }
+
+    // Requêtes bloquées ou servies depuis le cache : tailles et temps ne seraient pas ceux de la vraie page
+    private static void assumeUninterceptedPage() {
+        Assume.assumeFalse("Budgets mesurés sans interception des requêtes (mvn test -Pperf)", AssetInterceptor.isEnabled());
+    }
+
+    private void assertWithinBudget(String phase, PageMetrics metrics) {
+        List<String> violations = PerformanceBudget.shared()
+                .check(getClass().getSimpleName() + "." + testName.getMethodName(), phase, metrics);
+        assertTrue("Budget de performance dépassé: " + violations, violations.isEmpty());
+    }
+
+    @Test
+    public void testCachedSessionSkipsLoginForm() {
+        // La première connexion passe par le formulaire (sauf si un test précédent l'a déjà mise en cache)
+        loginPage.loginWithCachedSession("admin@medical.com", "00001991");
+        assertTrue("L'utilisateur devrait être authentifié", loginPage.isAuthenticated());
+
+        // La seconde réutilise la session capturée : ni soumission du formulaire ni requête d'authentification
+        driver.manage().deleteAllCookies();
+        int submissions = loginPage.getFormSubmissions();
+        long authRequests = TestEnvironment.isStubbed() ? TestEnvironment.stub().authRequests() : 0;
+        Optional<NetworkActivity> network = NetworkActivity.of(driver);
+        int mark = network.map(NetworkActivity::mark).orElse(-1);
+        try {
+            loginPage.loginWithCachedSession("admin@medical.com", "00001991");
+
+            assertEquals("Le formulaire ne devrait pas être soumis", submissions, loginPage.getFormSubmissions());
+            network.ifPresent(n -> assertFalse("Aucune requête d'authentification ne devrait partir",
+                    n.awaitRequest(NetworkActivity.AUTH_ENDPOINT, mark, Duration.ZERO)));
+            if (TestEnvironment.isStubbed()) {
+                assertEquals(authRequests, TestEnvironment.stub().authRequests());
+            }
+        } finally {
+            network.ifPresent(n -> n.release(mark));
+        }
+
+        String currentUrl = loginPage.getCurrentUrl();
+        assertFalse("La session en cache devrait donner accès aux pages protégées", currentUrl.contains("/login"));
+        assertTrue("L'utilisateur devrait être authentifié", loginPage.isAuthenticated());
+    }
+
     @Test
     public void testEmailValidation() {
         // Tenter de se connecter avec un email mal formaté
@@ -1,44 +1,48 @@
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.junit.AfterClass;
 import org.junit.Before;
-import org.junit.BeforeClass;
+import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.RuleChain;
 import org.junit.rules.TestName;
 import org.junit.rules.TestWatcher;
 import org.junit.runner.Description;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import org.openqa.selenium.WebDriverException;
+
 import java.time.Duration;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
 
 /**
  * Version alternative qui n'ouvre qu'une seule instance de navigateur pour tous les tests
+ * (en mode parallèle, une session empruntée par test, comme {@link LoginTest}). Chaque test
+ * s'exécute dans son propre contexte isolé (cookies et storage) : une connexion réussie ne fuit
+ * pas dans le test suivant.
  */
 public class LoginTest_SingleInstance {
 
-    // Variables statiques pour partager l'instance entre tous les tests
-    private static WebDriver driver;
-    private static final String BASE_URL = "http://localhost:3005";
+    // Une session par thread d'exécution, empruntée au pool et rendue après le dernier test de la classe
+    // (après chaque test en mode parallèle)
+    @ClassRule
+    public static PerWorkerDriverRule workerDrivers = new PerWorkerDriverRule();
+
+    private static final String BASE_URL = TestEnvironment.baseUrl();
 
-    // Variable d'instance pour la page
+    // Variables d'instance : chaque thread a son propre driver et sa propre page
+    private WebDriver driver;
     private LoginPage loginPage;
 
     @Rule
     public TestName testName = new TestName();
 
-    @Rule
-    public TestWatcher screenshotOnFailure = new TestWatcher() {
+    // Mémoire et CPU de la session mesurés dans le contexte du test ; mesure de départ prise par le @Before
+    private final ResourceMonitorRule resources =
+            new ResourceMonitorRule(() -> workerDrivers.driver(), () -> workerDrivers.recycleCurrent());
+
+    private final TestWatcher screenshotOnFailure = new TestWatcher() {
         @Override
         protected void failed(Throwable e, Description description) {
             if (driver != null) {
@@ -47,89 +51,68 @@ public class LoginTest_SingleInstance {
         }
     };
 
-    @BeforeClass
-    public static void setUpClass() {
-        try {
-            // Configuration initiale - exécutée une seule fois avant tous les tests
-            WebDriverManager.chromedriver().setup();
-
-            ChromeOptions options = new ChromeOptions();
-            options.addArguments("--remote-allow-origins=*");
-            options.addArguments("--no-sandbox");
-            options.addArguments("--disable-dev-shm-usage");
-
-            driver = new ChromeDriver(options);
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-            driver.manage().window().maximize();
-
-            // Créer le dossier screenshots s'il n'existe pas
-            try {
-                Files.createDirectories(Paths.get("screenshots"));
-            } catch (IOException e) {
-                System.err.println("Erreur lors de la création du dossier screenshots: " + e.getMessage());
-            }
-        } catch (Exception e) {
-            System.err.println("Erreur lors de l'initialisation du WebDriver: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
-    }
+    // Même ordre que LoginTest : les tests d'un autre shard sont ignorés avant tout le reste ; un échec dû
+    // au timing est relancé avec le @Before, la session du thread remplacée si elle a planté ; en parallèle
+    // la session est rendue au pool une fois le contexte isolé refermé ; le contexte neuf de chaque test est
+    // jeté après la capture d'écran éventuelle, et le journal d'événements écrit après elle. Une session trop
+    // chargée est remplacée au test suivant
+    @Rule
+    public RuleChain driverChain = RuleChain.outerRule(new ShardRule())
+            .around(new TimingRule())
+            .around(new EventLogRule())
+            .around(new RetryRule(() -> workerDrivers.discardCurrent()))
+            .around(workerDrivers.perTestWhenParallel())
+            .around(new IsolatedContextRule(() -> workerDrivers.driver()))
+            .around(resources)
+            .around(screenshotOnFailure);
 
     @Before
     public void setUp() {
         // Exécuté avant chaque test individuel
+        driver = workerDrivers.driver();
         loginPage = new LoginPage(driver, BASE_URL);
         loginPage.open(); // Aller à la page de connexion avant chaque test
-    }
-
-    @AfterClass
-    public static void tearDownClass() {
-        // Nettoyage final - exécuté une seule fois après tous les tests
-        if (driver != null) {
-            try {
-                driver.quit();
-            } catch (Exception e) {
-                System.err.println("Erreur lors de la fermeture du WebDriver: " + e.getMessage());
-            }
-        }
+        resources.pageReady();
     }
 
     private void captureScreenshot(String testMethod) {
         if (driver == null) {
-            System.err.println("Impossible de prendre une capture d'écran: driver est null");
+            EventLog.error("captureScreenshot", "driver est null");
             return;
         }
 
         try {
-            File screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Path destination = Paths.get("screenshots", testMethod + ".png");
-            Files.copy(screenshot.toPath(), destination);
-            System.out.println("Screenshot saved: " + destination);
-        } catch (IOException e) {
-            System.err.println("Failed to capture screenshot: " + e.getMessage());
+            // Capture en mémoire sur le thread de test, écriture sur disque en arrière-plan
+            byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            ScreenshotWriter.shared().submit(Workers.screenshotDir(), testMethod, screenshot);
+        } catch (WebDriverException e) {
+            EventLog.error("captureScreenshot", e);
         }
     }
 
     @Test
     public void testLoginPageElements() {
+        // Un seul aller-retour pour l'état de tout le formulaire
+        LoginFormSnapshot form = loginPage.snapshot();
+
         // Vérifier le titre de la page
-        String titleText = loginPage.getTitle();
+        String titleText = form.title().getText();
         assertTrue("Le titre devrait contenir 'Se connecter'", titleText.contains("Se connecter"));
 
         // Vérifier que les champs du formulaire sont présents et visibles
-        assertTrue("Le champ email devrait être visible", loginPage.getEmailInput().isDisplayed());
-        assertTrue("Le champ mot de passe devrait être visible", loginPage.getPasswordInput().isDisplayed());
-        assertTrue("Le bouton de connexion devrait être visible", loginPage.getSubmitButton().isDisplayed());
+        assertTrue("Le champ email devrait être visible", form.emailInput().isDisplayed());
+        assertTrue("Le champ mot de passe devrait être visible", form.passwordInput().isDisplayed());
+        assertTrue("Le bouton de connexion devrait être visible", form.submitButton().isDisplayed());
 
         // Vérifier les placeholders
-        assertEquals("email", loginPage.getEmailInput().getAttribute("placeholder"));
-        assertEquals("password", loginPage.getPasswordInput().getAttribute("placeholder"));
+        assertEquals("email", form.emailInput().getAttribute("placeholder"));
+        assertEquals("password", form.passwordInput().getAttribute("placeholder"));
     }
 
     @Test
     public void testEmailFieldHasFocus() {
         // Vérifier que le champ email a le focus
-        assertEquals("username", loginPage.getActiveElementId());
+        assertEquals("username", loginPage.snapshot().activeElementId());
     }
 
     @Test
@@ -183,6 +166,36 @@ public class LoginTest_SingleInstance {
         }
     }
 
+    @Test
+    public void testCachedSessionSkipsLoginForm() {
+        // La première connexion passe par le formulaire (sauf si un test précédent l'a déjà mise en cache)
+        loginPage.loginWithCachedSession("admin@medical.com", "00001991");
+        assertTrue("L'utilisateur devrait être authentifié", loginPage.isAuthenticated());
+
+        // La seconde réutilise la session capturée : ni soumission du formulaire ni requête d'authentification
+        driver.manage().deleteAllCookies();
+        int submissions = loginPage.getFormSubmissions();
+        long authRequests = TestEnvironment.isStubbed() ? TestEnvironment.stub().authRequests() : 0;
+        Optional<NetworkActivity> network = NetworkActivity.of(driver);
+        int mark = network.map(NetworkActivity::mark).orElse(-1);
+        try {
+            loginPage.loginWithCachedSession("admin@medical.com", "00001991");
+
+            assertEquals("Le formulaire ne devrait pas être soumis", submissions, loginPage.getFormSubmissions());
+            network.ifPresent(n -> assertFalse("Aucune requête d'authentification ne devrait partir",
+                    n.awaitRequest(NetworkActivity.AUTH_ENDPOINT, mark, Duration.ZERO)));
+            if (TestEnvironment.isStubbed()) {
+                assertEquals(authRequests, TestEnvironment.stub().authRequests());
+            }
+        } finally {
+            network.ifPresent(n -> n.release(mark));
+        }
+
+        String currentUrl = loginPage.getCurrentUrl();
+        assertFalse("La session en cache devrait donner accès aux pages protégées", currentUrl.contains("/login"));
+        assertTrue("L'utilisateur devrait être authentifié", loginPage.isAuthenticated());
+    }
+
     @Test
     public void testEmailValidation() {
         // Tenter de se connecter avec un email mal formaté
@@ -0,0 +1,331 @@
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Suivi des requêtes fetch/XHR du navigateur via le Chrome DevTools Protocol (domaine Network).
+ * Les événements arrivent par la websocket DevTools : attendre une réponse ou le "network idle"
+ * ne coûte aucun aller-retour WebDriver.
+ *
+ * <p>Une seule instance par driver ({@link #of(WebDriver)}) : les sessions du pool sont réutilisées
+ * par plusieurs {@link LoginPage} et les listeners ne doivent être enregistrés qu'une fois.</p>
+ *
+ * <p>L'historique ne garde que les échanges émis depuis le plus ancien repère vivant : un repère l'est de
+ * {@link #mark()} à {@link #release(int)}, ou jusqu'au prochain {@link #follow(String)} (changement d'onglet,
+ * donc de test).</p>
+ */
+public class NetworkActivity {
+
+    /**
+     * Requêtes d'authentification de l'application, surchargeable avec {@code -Dauth.endpoint.pattern=...}.
+     */
+    public static final Pattern AUTH_ENDPOINT = Pattern.compile(
+            System.getProperty("auth.endpoint.pattern", ".*/(auth|login|signin)([/?#].*)?$"));
+
+    private static final Logger LOG = LoggerFactory.getLogger(NetworkActivity.class);
+    private static final Set<String> TRACKED_TYPES = Set.of("XHR", "Fetch");
+    private static final Map<WebDriver, Optional<NetworkActivity>> INSTANCES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final DevTools devTools;
+    private final Object lock = new Object();
+    private final Set<String> inFlight = new HashSet<>();
+    private final Map<String, ApiResponse> exchanges = new HashMap<>();
+    // Échanges fetch/XHR dans l'ordre d'émission des requêtes, à partir du numéro historyStart
+    private final List<ApiResponse> history = new ArrayList<>();
+    private int historyStart;
+    // Repères vivants et leur nombre de détenteurs
+    private final TreeMap<Integer, Integer> liveMarks = new TreeMap<>();
+    private long lastActivityNanos = System.nanoTime();
+
+    NetworkActivity(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * Suivi réseau du driver, ou Optional vide si le driver n'expose pas DevTools
+     * (les appelants retombent alors sur le sondage du DOM).
+     */
+    public static Optional<NetworkActivity> of(WebDriver driver) {
+        return INSTANCES.computeIfAbsent(driver, NetworkActivity::attach);
+    }
+
+    private static Optional<NetworkActivity> attach(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            return Optional.empty();
+        }
+        try {
+            Optional<DevTools> maybeDevTools = ((HasDevTools) driver).maybeGetDevTools();
+            if (maybeDevTools.isEmpty()) {
+                return Optional.empty();
+            }
+            DevTools devTools = maybeDevTools.get();
+            devTools.createSessionIfThereIsNotOne();
+
+            NetworkActivity activity = new NetworkActivity(devTools);
+            devTools.addListener(event("Network.requestWillBeSent"), activity::onRequest);
+            devTools.addListener(event("Network.responseReceived"), activity::onResponse);
+            devTools.addListener(event("Network.loadingFinished"), activity::onFinished);
+            devTools.addListener(event("Network.loadingFailed"), activity::onFinished);
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            return Optional.of(activity);
+        } catch (Exception e) {
+            LOG.warn("DevTools indisponible, suivi réseau désactivé: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rattache le suivi à une autre fenêtre du même driver (par exemple l'onglet d'un
+     * {@link IsolatedContext}) : la session DevTools suit la cible, les listeners restent en place.
+     */
+    public void follow(String windowHandle) {
+        devTools.createSession(windowHandle);
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        forgetTarget();
+    }
+
+    // Les requêtes de l'ancienne cible ne recevront plus d'événement de fin
+    void forgetTarget() {
+        synchronized (lock) {
+            inFlight.clear();
+            exchanges.clear();
+            liveMarks.clear();
+            trim();
+            touch();
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        Function<JsonInput, Map<String, Object>> mapper = input -> input.read(Json.MAP_TYPE);
+        return new Event<>(method, mapper);
+    }
+
+    /**
+     * Repère à passer à {@link #awaitRequest} / {@link #awaitResponse} pour ne considérer
+     * que les requêtes émises après ce point.
+     */
+    public int mark() {
+        synchronized (lock) {
+            int mark = historyStart + history.size();
+            liveMarks.merge(mark, 1, Integer::sum);
+            return mark;
+        }
+    }
+
+    /**
+     * Le repère ne sert plus : les échanges émis avant le plus ancien repère restant sont oubliés.
+     */
+    public void release(int mark) {
+        synchronized (lock) {
+            if (liveMarks.computeIfPresent(mark, (m, holders) -> holders > 1 ? holders - 1 : null) == null) {
+                trim();
+            }
+        }
+    }
+
+    private void trim() {
+        int keepFrom = liveMarks.isEmpty() ? historyStart + history.size() : liveMarks.firstKey();
+        int dropped = Math.min(history.size(), keepFrom - historyStart);
+        if (dropped > 0) {
+            history.subList(0, dropped).clear();
+            historyStart += dropped;
+        }
+    }
+
+    int historySize() {
+        synchronized (lock) {
+            return history.size();
+        }
+    }
+
+    int exchangeCount() {
+        synchronized (lock) {
+            return exchanges.size();
+        }
+    }
+
+    /**
+     * Attend qu'une requête fetch/XHR dont l'URL correspond au motif soit émise après le repère.
+     */
+    public boolean awaitRequest(Pattern urlPattern, int mark, Duration timeout) {
+        return await(urlPattern, mark, timeout, false).isPresent();
+    }
+
+    /**
+     * Attend la réponse d'une requête fetch/XHR dont l'URL correspond au motif, émise après le repère.
+     */
+    public Optional<ApiResponse> awaitResponse(Pattern urlPattern, int mark, Duration timeout) {
+        return await(urlPattern, mark, timeout, true);
+    }
+
+    private Optional<ApiResponse> await(Pattern urlPattern, int mark, Duration timeout, boolean completed) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (lock) {
+            while (true) {
+                for (int i = Math.max(0, mark - historyStart); i < history.size(); i++) {
+                    ApiResponse exchange = history.get(i);
+                    if (urlPattern.matcher(exchange.url()).matches() && (!completed || exchange.isCompleted())) {
+                        return Optional.of(exchange);
+                    }
+                }
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return Optional.empty();
+                }
+                if (!waitOnLock(remainingNanos)) {
+                    return Optional.empty();
+                }
+            }
+        }
+    }
+
+    /**
+     * Attend qu'aucune requête fetch/XHR ne soit en cours depuis {@code quietPeriod}.
+     *
+     * @return false si le réseau n'a pas été au repos avant l'échéance
+     */
+    public boolean awaitIdle(Duration quietPeriod, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (lock) {
+            while (true) {
+                long now = System.nanoTime();
+                long quietFor = now - lastActivityNanos;
+                if (inFlight.isEmpty() && quietFor >= quietPeriod.toNanos()) {
+                    return true;
+                }
+                long remainingNanos = deadline - now;
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                long waitNanos = inFlight.isEmpty() ? quietPeriod.toNanos() - quietFor : remainingNanos;
+                if (!waitOnLock(Math.min(waitNanos, remainingNanos))) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    public int inFlightCount() {
+        synchronized (lock) {
+            return inFlight.size();
+        }
+    }
+
+    private boolean waitOnLock(long nanos) {
+        try {
+            long millis = Math.max(1, Duration.ofNanos(nanos).toMillis());
+            lock.wait(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    void onRequest(Map<String, Object> params) {
+        if (!TRACKED_TYPES.contains(String.valueOf(params.get("type")))) {
+            return;
+        }
+        Map<?, ?> request = (Map<?, ?>) params.get("request");
+        synchronized (lock) {
+            String requestId = String.valueOf(params.get("requestId"));
+            ApiResponse exchange = new ApiResponse(request == null ? "" : String.valueOf(request.get("url")));
+            inFlight.add(requestId);
+            exchanges.put(requestId, exchange);
+            if (liveMarks.isEmpty()) {
+                // Aucun repère ne peut le voir : seul le numéro avance
+                historyStart++;
+            } else {
+                history.add(exchange);
+            }
+            touch();
+        }
+    }
+
+    void onResponse(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        Map<?, ?> response = (Map<?, ?>) params.get("response");
+        synchronized (lock) {
+            ApiResponse exchange = exchanges.get(requestId);
+            if (exchange == null || response == null) {
+                return;
+            }
+            exchange.status = ((Number) response.get("status")).intValue();
+            touch();
+        }
+    }
+
+    void onFinished(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        synchronized (lock) {
+            if (inFlight.remove(requestId)) {
+                ApiResponse exchange = exchanges.remove(requestId);
+                if (!exchange.isCompleted()) {
+                    // Requête échouée sans réponse HTTP (serveur injoignable, annulation...)
+                    exchange.status = 0;
+                }
+                touch();
+            }
+        }
+    }
+
+    private void touch() {
+        lastActivityNanos = System.nanoTime();
+        lock.notifyAll();
+    }
+
+    /**
+     * Échange fetch/XHR observé ; un statut 0 signifie que la requête a échoué sans réponse,
+     * -1 qu'elle est encore en attente.
+     */
+    public static final class ApiResponse {
+        private final String url;
+        private volatile int status = -1;
+
+        ApiResponse(String url) {
+            this.url = url;
+        }
+
+        boolean isCompleted() {
+            return status >= 0;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + url;
+        }
+    }
+}
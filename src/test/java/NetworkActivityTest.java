@@ -0,0 +1,115 @@
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests des attentes réseau avec des événements DevTools simulés, sans navigateur.
+ */
+public class NetworkActivityTest {
+
+    private static final Pattern AUTH = Pattern.compile(".*/auth$");
+
+    private final NetworkActivity network = new NetworkActivity(null);
+
+    private void request(String id, String url) {
+        network.onRequest(Map.of("requestId", id, "type", "Fetch", "request", Map.of("url", url)));
+    }
+
+    private void response(String id, int status) {
+        network.onResponse(Map.of("requestId", id, "response", Map.of("status", status)));
+        network.onFinished(Map.of("requestId", id));
+    }
+
+    @Test
+    public void testAwaitResponseOnlySeesRequestsAfterTheMark() {
+        int before = network.mark();
+        request("1", "http://localhost:3005/auth");
+        response("1", 401);
+
+        int mark = network.mark();
+        assertFalse(network.awaitRequest(AUTH, mark, Duration.ofMillis(50)));
+
+        request("2", "http://localhost:3005/auth");
+        response("2", 200);
+        Optional<NetworkActivity.ApiResponse> auth = network.awaitResponse(AUTH, mark, Duration.ofMillis(50));
+        assertEquals(200, auth.map(NetworkActivity.ApiResponse::status).orElse(-1).intValue());
+        assertEquals(401, network.awaitResponse(AUTH, before, Duration.ofMillis(50)).orElseThrow().status());
+    }
+
+    @Test
+    public void testAwaitResponseWakesUpOnLateEvent() throws Exception {
+        int mark = network.mark();
+        request("1", "http://localhost:3005/auth");
+        ScheduledExecutorService events = Executors.newSingleThreadScheduledExecutor();
+        try {
+            events.schedule(() -> response("1", 200), 100, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            Optional<NetworkActivity.ApiResponse> auth = network.awaitResponse(AUTH, mark, Duration.ofSeconds(5));
+            assertTrue(auth.isPresent() && auth.get().isSuccess());
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        } finally {
+            events.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testIdleWaitsForInFlightRequestsAndQuietPeriod() {
+        request("1", "http://localhost:3005/api/profile");
+        assertEquals(1, network.inFlightCount());
+        assertFalse(network.awaitIdle(Duration.ofMillis(20), Duration.ofMillis(100)));
+
+        response("1", 200);
+        long start = System.nanoTime();
+        assertTrue(network.awaitIdle(Duration.ofMillis(50), Duration.ofSeconds(1)));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 40);
+    }
+
+    @Test
+    public void testHistoryIsTrimmedToTheOldestLiveMark() {
+        request("0", "http://localhost:3005/auth");
+        assertEquals("Sans repère vivant rien n'est conservé", 0, network.historySize());
+
+        int first = network.mark();
+        request("1", "http://localhost:3005/auth");
+        int second = network.mark();
+        request("2", "http://localhost:3005/api/profile");
+        assertEquals(2, network.historySize());
+
+        network.release(first);
+        assertEquals(1, network.historySize());
+        assertFalse(network.awaitRequest(AUTH, second, Duration.ofMillis(20)));
+        assertTrue(network.awaitRequest(Pattern.compile(".*/profile$"), second, Duration.ofMillis(20)));
+
+        network.release(second);
+        assertEquals(0, network.historySize());
+        request("3", "http://localhost:3005/api/profile");
+        assertEquals(0, network.historySize());
+
+        // Un nouveau repère recommence à conserver les échanges
+        network.mark();
+        request("4", "http://localhost:3005/auth");
+        assertEquals(1, network.historySize());
+    }
+
+    @Test
+    public void testExchangesInFlightAreForgottenWhenTheTargetChanges() {
+        network.mark();
+        request("1", "http://localhost:3005/api/profile");
+        request("2", "http://localhost:3005/auth");
+        response("2", 200);
+        assertEquals(1, network.exchangeCount());
+
+        // Changement d'onglet : la fin de la requête 1 ne sera jamais signalée
+        network.forgetTarget();
+        assertEquals(0, network.exchangeCount());
+        assertEquals(0, network.inFlightCount());
+    }
+}
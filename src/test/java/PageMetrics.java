@@ -0,0 +1,93 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mesures de performance de la page courante lues dans le navigateur en un seul script :
+ * Navigation Timing, first-paint / first-contentful-paint, largest-contentful-paint, tas JavaScript
+ * et nombre / taille des ressources transférées. Une mesure indisponible (navigateur, page
+ * {@code about:blank}...) est simplement absente.
+ */
+public final class PageMetrics {
+
+    public static final String TTFB_MS = "ttfbMs";
+    public static final String DOM_CONTENT_LOADED_MS = "domContentLoadedMs";
+    public static final String LOAD_MS = "loadMs";
+    public static final String FIRST_PAINT_MS = "firstPaintMs";
+    public static final String FIRST_CONTENTFUL_PAINT_MS = "firstContentfulPaintMs";
+    public static final String LARGEST_CONTENTFUL_PAINT_MS = "largestContentfulPaintMs";
+    public static final String JS_HEAP_USED_BYTES = "jsHeapUsedBytes";
+    public static final String RESOURCE_COUNT = "resourceCount";
+    public static final String TRANSFERRED_BYTES = "transferredBytes";
+
+    // LCP n'est exposé que par un PerformanceObserver (entrées bufferisées) : script asynchrone
+    private static final String COLLECT_SCRIPT =
+            "var done = arguments[arguments.length - 1], m = {};"
+                    + "var nav = performance.getEntriesByType('navigation')[0];"
+                    + "if (nav) {"
+                    + "  m.ttfbMs = nav.responseStart;"
+                    + "  if (nav.domContentLoadedEventEnd > 0) { m.domContentLoadedMs = nav.domContentLoadedEventEnd; }"
+                    + "  if (nav.loadEventEnd > 0) { m.loadMs = nav.loadEventEnd; }"
+                    + "}"
+                    + "performance.getEntriesByType('paint').forEach(function (p) {"
+                    + "  if (p.name === 'first-paint') { m.firstPaintMs = p.startTime; }"
+                    + "  if (p.name === 'first-contentful-paint') { m.firstContentfulPaintMs = p.startTime; }"
+                    + "});"
+                    + "if (performance.memory) { m.jsHeapUsedBytes = performance.memory.usedJSHeapSize; }"
+                    + "var resources = performance.getEntriesByType('resource');"
+                    + "m.resourceCount = resources.length;"
+                    + "m.transferredBytes = resources.reduce(function (sum, r) { return sum + (r.transferSize || 0); }, "
+                    + "  nav ? (nav.transferSize || 0) : 0);"
+                    + "var finished = false;"
+                    + "function finish() { if (!finished) { finished = true; done(m); } }"
+                    + "try {"
+                    + "  new PerformanceObserver(function (list) {"
+                    + "    var entries = list.getEntries();"
+                    + "    if (entries.length) { m.largestContentfulPaintMs = entries[entries.length - 1].startTime; }"
+                    + "    finish();"
+                    + "  }).observe({type: 'largest-contentful-paint', buffered: true});"
+                    + "  setTimeout(finish, 100);"
+                    + "} catch (e) { finish(); }";
+
+    private final String url;
+    private final Map<String, Double> values;
+
+    PageMetrics(String url, Map<String, Double> values) {
+        this.url = url;
+        this.values = Collections.unmodifiableMap(new LinkedHashMap<>(values));
+    }
+
+    public static PageMetrics collect(WebDriver driver) {
+        Object raw = ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT);
+        Map<String, Double> values = new LinkedHashMap<>();
+        if (raw instanceof Map) {
+            ((Map<?, ?>) raw).forEach((name, value) -> {
+                if (value instanceof Number) {
+                    values.put(String.valueOf(name), ((Number) value).doubleValue());
+                }
+            });
+        }
+        return new PageMetrics(driver.getCurrentUrl(), values);
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public Optional<Double> get(String metric) {
+        return Optional.ofNullable(values.get(metric));
+    }
+
+    public Map<String, Double> values() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return url + " " + values;
+    }
+}
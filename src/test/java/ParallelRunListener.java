@@ -0,0 +1,22 @@
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Listener Surefire du profil {@code parallel} : isole la sortie de chaque thread de test
+ * dans son propre fichier de log pendant l'exécution.
+ */
+@RunListener.ThreadSafe
+public class ParallelRunListener extends RunListener {
+
+    @Override
+    public void testRunStarted(Description description) {
+        System.out.println("Exécution parallèle sur " + Workers.threadCount() + " threads, logs dans target/worker-logs/");
+        Workers.isolateOutput(Thread.currentThread());
+    }
+
+    @Override
+    public void testRunFinished(Result result) {
+        Workers.restoreOutput();
+    }
+}
@@ -0,0 +1,102 @@
+import org.junit.rules.ExternalResource;
+import org.junit.rules.TestRule;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Règle de classe qui associe une session du {@link DriverPool} à chaque thread d'exécution.
+ * En séquentiel il n'y a qu'un thread, donc une seule session pour toute la classe.
+ * En parallèle, avec la règle {@link #perTestWhenParallel()}, chaque worker rend sa session après chaque test :
+ * le pool, dimensionné à une session par thread, est partagé avec les classes qui empruntent par test
+ * et un worker n'en détient jamais deux à la fois.
+ */
+public class PerWorkerDriverRule extends ExternalResource {
+    private final DriverPool pool;
+    private final Map<Thread, DriverLease> leases = new ConcurrentHashMap<>();
+    private final Set<Thread> recycling = ConcurrentHashMap.newKeySet();
+
+    public PerWorkerDriverRule() {
+        this(DriverPool.shared());
+    }
+
+    public PerWorkerDriverRule(DriverPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Session du thread courant, empruntée au pool lors du premier appel.
+     */
+    public WebDriver driver() {
+        if (recycling.remove(Thread.currentThread())) {
+            discardCurrent();
+        }
+        return leases.computeIfAbsent(Thread.currentThread(), t -> {
+            DriverLease lease = pool.acquire();
+            TimeoutCalibration.calibrateOnce(lease.driver(), TestEnvironment.baseUrl());
+            return lease;
+        }).driver();
+    }
+
+    /**
+     * Écarte la session plantée du thread courant ; le prochain appel à {@link #driver()} en emprunte une autre.
+     */
+    public void discardCurrent() {
+        DriverLease lease = leases.remove(Thread.currentThread());
+        if (lease != null) {
+            lease.markBroken();
+            lease.close();
+        }
+    }
+
+    /**
+     * Remplace la session du thread courant au prochain appel à {@link #driver()} : le test en cours
+     * garde sa page (contexte isolé, capture d'écran) jusqu'à la fin de ses règles.
+     */
+    public void recycleCurrent() {
+        recycling.add(Thread.currentThread());
+    }
+
+    /**
+     * Rend au pool la session du thread courant ; le prochain appel à {@link #driver()} en emprunte une.
+     */
+    public void releaseCurrent() {
+        DriverLease lease = leases.remove(Thread.currentThread());
+        if (lease != null) {
+            if (recycling.remove(Thread.currentThread())) {
+                lease.markBroken();
+            }
+            lease.close();
+        }
+    }
+
+    /**
+     * Règle de test qui rend la session du thread après chaque test en mode parallèle (sans effet en séquentiel).
+     * Doit entourer les règles qui utilisent la page du test (contexte isolé, capture d'écran).
+     */
+    public TestRule perTestWhenParallel() {
+        return new ExternalResource() {
+            @Override
+            protected void after() {
+                if (Workers.isParallel()) {
+                    releaseCurrent();
+                }
+            }
+        };
+    }
+
+    @Override
+    protected void after() {
+        // Une session signalée au dernier test de la classe est évincée, pas rendue au pool
+        leases.forEach((thread, lease) -> {
+            if (recycling.contains(thread)) {
+                lease.markBroken();
+            }
+            lease.close();
+        });
+        recycling.clear();
+        leases.clear();
+    }
+}
@@ -0,0 +1,124 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Budgets de performance de la page de connexion, lus depuis {@code perf-budgets.properties}
+ * (ressource de test, ou fichier {@code perf.budget.file}) sous la forme {@code <phase>.<mesure>=<max>},
+ * par exemple {@code open.largestContentfulPaintMs=2500}. Chaque vérification est ajoutée à
+ * l'historique {@code perf.history.file} (par défaut {@code perf-history.csv} à la racine du projet) ;
+ * un dépassement est signalé avec la médiane des exécutions précédentes pour situer la régression.
+ * Les mesures n'ont de sens que sans {@link AssetInterceptor} ({@code mvn test -Pperf}).
+ */
+public class PerformanceBudget {
+
+    private static final String DEFAULT_BUDGETS = "/perf-budgets.properties";
+    private static final String HISTORY_HEADER = "timestamp,test,phase,metric,value,budget";
+
+    private static PerformanceBudget shared;
+
+    private final Properties budgets;
+    private final Path history;
+
+    PerformanceBudget(Properties budgets, Path history) {
+        this.budgets = budgets;
+        this.history = history;
+    }
+
+    public static synchronized PerformanceBudget shared() {
+        if (shared == null) {
+            shared = new PerformanceBudget(loadBudgets(System.getProperty("perf.budget.file")),
+                    Paths.get(System.getProperty("perf.history.file", "perf-history.csv")));
+        }
+        return shared;
+    }
+
+    /**
+     * Compare les mesures aux budgets de la phase et les ajoute à l'historique.
+     *
+     * @return les dépassements, vide si la page tient ses budgets
+     */
+    public List<String> check(String test, String phase, PageMetrics metrics) {
+        List<String[]> rows = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        String timestamp = Instant.now().toString();
+        for (Map.Entry<String, Double> metric : metrics.values().entrySet()) {
+            String budget = budgets.getProperty(phase + "." + metric.getKey());
+            rows.add(new String[]{timestamp, test, phase, metric.getKey(), format(metric.getValue()), budget == null ? "" : budget.trim()});
+            if (budget != null && metric.getValue() > Double.parseDouble(budget.trim())) {
+                violations.add(String.format(Locale.ROOT, "%s.%s = %s > %s (médiane précédente: %s)", phase, metric.getKey(),
+                        format(metric.getValue()), budget.trim(), previousMedian(phase, metric.getKey())));
+            }
+        }
+        // Ajout après le calcul des médianes, qui ne portent que sur les exécutions précédentes
+        append(rows);
+        return violations;
+    }
+
+    private String previousMedian(String phase, String metric) {
+        List<Double> values = new ArrayList<>();
+        try {
+            for (String line : new SharedFile(history).read().split("\n")) {
+                String[] columns = line.split(",", -1);
+                if (columns.length >= 5 && columns[2].equals(phase) && columns[3].equals(metric)) {
+                    values.add(Double.parseDouble(columns[4]));
+                }
+            }
+        } catch (UncheckedIOException | NumberFormatException e) {
+            return "inconnue";
+        }
+        if (values.isEmpty()) {
+            return "aucune";
+        }
+        Collections.sort(values);
+        return format(values.get(values.size() / 2));
+    }
+
+    private void append(List<String[]> rows) {
+        StringBuilder csv = new StringBuilder();
+        for (String[] row : rows) {
+            csv.append(String.join(",", row)).append('\n');
+        }
+        try {
+            // Plusieurs JVM de tests peuvent ajouter des lignes en même temps
+            new SharedFile(history).append(HISTORY_HEADER, csv.toString());
+        } catch (IOException e) {
+            System.err.println("Erreur lors de l'écriture de l'historique de performance: " + e.getMessage());
+        }
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    static Properties loadBudgets(String file) {
+        Properties budgets = new Properties();
+        try {
+            if (file != null) {
+                try (InputStream in = Files.newInputStream(Paths.get(file))) {
+                    budgets.load(in);
+                }
+            } else {
+                try (InputStream in = PerformanceBudget.class.getResourceAsStream(DEFAULT_BUDGETS)) {
+                    if (in == null) {
+                        throw new IllegalStateException("Ressource introuvable: " + DEFAULT_BUDGETS);
+                    }
+                    budgets.load(in);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return budgets;
+    }
+}
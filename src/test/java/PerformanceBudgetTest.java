@@ -0,0 +1,64 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la vérification des budgets de performance et de leur historique.
+ */
+public class PerformanceBudgetTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PerformanceBudget budget(Path history) {
+        Properties budgets = new Properties();
+        budgets.setProperty("open.largestContentfulPaintMs", "2500");
+        budgets.setProperty("open.resourceCount", "60");
+        return new PerformanceBudget(budgets, history);
+    }
+
+    private static PageMetrics metrics(double lcp, double resources) {
+        return new PageMetrics("http://localhost:3005/login", Map.of(
+                PageMetrics.LARGEST_CONTENTFUL_PAINT_MS, lcp,
+                PageMetrics.RESOURCE_COUNT, resources,
+                PageMetrics.TTFB_MS, 42.5));
+    }
+
+    @Test
+    public void testMetricsWithinBudgetPassAndAreRecorded() throws Exception {
+        Path history = folder.getRoot().toPath().resolve("perf-history.csv");
+
+        assertTrue(budget(history).check("LoginTest.test", "open", metrics(1200, 12)).isEmpty());
+
+        List<String> lines = Files.readAllLines(history);
+        assertEquals("timestamp,test,phase,metric,value,budget", lines.get(0));
+        assertEquals(4, lines.size());
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith(",LoginTest.test,open,ttfbMs,42.5,")));
+    }
+
+    @Test
+    public void testOverBudgetReportsPreviousMedian() {
+        Path history = folder.getRoot().toPath().resolve("perf-history.csv");
+        PerformanceBudget budget = budget(history);
+        budget.check("LoginTest.test", "open", metrics(1000, 10));
+        budget.check("LoginTest.test", "open", metrics(1400, 10));
+
+        List<String> violations = budget.check("LoginTest.test", "open", metrics(3100, 10));
+
+        assertEquals(List.of("open.largestContentfulPaintMs = 3100 > 2500 (médiane précédente: 1400)"), violations);
+    }
+
+    @Test
+    public void testDefaultBudgetsAreOnTheClasspath() {
+        Properties budgets = PerformanceBudget.loadBudgets(null);
+        assertEquals("2500", budgets.getProperty("open.largestContentfulPaintMs"));
+    }
+}
@@ -0,0 +1,63 @@
+import org.junit.rules.ExternalResource;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Règle JUnit qui emprunte une session au {@link DriverPool} pour la durée d'un test
+ * (en {@code @Rule}) ou d'une classe (en {@code @ClassRule}) et la rend ensuite.
+ * Le premier emprunt de la JVM calibre les délais d'attente ({@link TimeoutCalibration}).
+ */
+public class PooledDriverRule extends ExternalResource {
+    private final DriverPool pool;
+    private DriverLease lease;
+
+    public PooledDriverRule() {
+        this(DriverPool.shared());
+    }
+
+    public PooledDriverRule(DriverPool pool) {
+        this.pool = pool;
+    }
+
+    public WebDriver driver() {
+        return lease == null ? null : lease.driver();
+    }
+
+    public DriverLease lease() {
+        return lease;
+    }
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        // Une session plantée pendant le test est évincée au lieu d'être rendue au pool
+        Statement evictingOnCrash = new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                try {
+                    base.evaluate();
+                } catch (Throwable failure) {
+                    if (lease != null && FailureCategory.classify(failure) == FailureCategory.DRIVER_CRASH) {
+                        lease.markBroken();
+                    }
+                    throw failure;
+                }
+            }
+        };
+        return super.apply(evictingOnCrash, description);
+    }
+
+    @Override
+    protected void before() {
+        lease = pool.acquire();
+        TimeoutCalibration.calibrateOnce(lease.driver(), TestEnvironment.baseUrl());
+    }
+
+    @Override
+    protected void after() {
+        if (lease != null) {
+            lease.close();
+            lease = null;
+        }
+    }
+}
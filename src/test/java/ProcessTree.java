@@ -0,0 +1,190 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Lecture de l'arbre de processus d'un pid dans {@code /proc} (Linux) : mémoire résidente (VmRSS)
+ * et temps CPU cumulé (utime + stime) du processus et de tous ses descendants.
+ * Sur un système sans {@code /proc}, {@link #isAvailable()} est faux et aucune mesure n'est faite.
+ */
+public class ProcessTree {
+
+    // Tics d'horloge par seconde (sysconf(_SC_CLK_TCK)), 100 sur les noyaux Linux courants
+    private static final long CLOCK_TICKS_PER_SECOND = Long.getLong("monitor.clock.ticks", 100);
+
+    private final Path proc;
+
+    ProcessTree(Path proc) {
+        this.proc = proc;
+    }
+
+    public static ProcessTree system() {
+        return new ProcessTree(Paths.get("/proc"));
+    }
+
+    public boolean isAvailable() {
+        return Files.isDirectory(proc.resolve("self")) || Files.isDirectory(proc.resolve("1"));
+    }
+
+    /**
+     * Processus parent, s'il existe encore.
+     */
+    public Optional<Long> parent(long pid) {
+        return stat(pid).map(stat -> stat.ppid);
+    }
+
+    /**
+     * Nom de l'exécutable ({@code /proc/<pid>/comm}), vide si le processus n'existe plus.
+     */
+    public String command(long pid) {
+        try {
+            return Files.readString(proc.resolve(pid + "/comm"), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Processus dont la ligne de commande contient cet argument (le plus ancien ancêtre si plusieurs correspondent).
+     */
+    public Optional<Long> findByArgument(String argument) {
+        List<Long> matching = new ArrayList<>();
+        for (long pid : pids()) {
+            try {
+                String cmdline = Files.readString(proc.resolve(pid + "/cmdline"), StandardCharsets.UTF_8);
+                for (String arg : cmdline.split("\u0000")) {
+                    if (arg.equals(argument)) {
+                        matching.add(pid);
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // Processus terminé ou illisible
+            }
+        }
+        return matching.stream().filter(pid -> !parent(pid).map(matching::contains).orElse(false)).findFirst();
+    }
+
+    private List<Long> pids() {
+        try (Stream<Path> entries = Files.list(proc)) {
+            List<Long> pids = new ArrayList<>();
+            entries.map(path -> path.getFileName().toString())
+                    .filter(name -> !name.isEmpty() && name.chars().allMatch(Character::isDigit))
+                    .forEach(name -> pids.add(Long.parseLong(name)));
+            return pids;
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Mesure du processus et de ses descendants à cet instant.
+     */
+    public Usage usage(long root) {
+        if (!isAvailable()) {
+            return Usage.NONE;
+        }
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (long pid : pids()) {
+            stat(pid).ifPresent(stat -> children.computeIfAbsent(stat.ppid, p -> new ArrayList<>()).add(pid));
+        }
+
+        long rssBytes = 0;
+        long cpuTicks = 0;
+        int processes = 0;
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            long pid = pending.pop();
+            Optional<Stat> stat = stat(pid);
+            if (stat.isEmpty()) {
+                continue;
+            }
+            processes++;
+            cpuTicks += stat.get().cpuTicks;
+            rssBytes += rssBytes(pid);
+            children.getOrDefault(pid, List.of()).forEach(pending::push);
+        }
+        return new Usage(processes, rssBytes, cpuTicks * 1000 / CLOCK_TICKS_PER_SECOND);
+    }
+
+    private long rssBytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(proc.resolve(pid + "/status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    // "VmRSS:	  123456 kB"
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Processus terminé entre deux lectures
+        }
+        return 0;
+    }
+
+    private Optional<Stat> stat(long pid) {
+        try {
+            String stat = Files.readString(proc.resolve(pid + "/stat"), StandardCharsets.UTF_8);
+            // Le nom de commande, entre parenthèses, peut contenir des espaces : les champs suivent la dernière ')'
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split("\\s+");
+            return Optional.of(new Stat(Long.parseLong(fields[1]), Long.parseLong(fields[11]) + Long.parseLong(fields[12])));
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static final class Stat {
+        final long ppid;
+        final long cpuTicks;
+
+        Stat(long ppid, long cpuTicks) {
+            this.ppid = ppid;
+            this.cpuTicks = cpuTicks;
+        }
+    }
+
+    /**
+     * Consommation d'un arbre de processus.
+     */
+    public static final class Usage {
+        static final Usage NONE = new Usage(0, -1, -1);
+
+        private final int processes;
+        private final long rssBytes;
+        private final long cpuMillis;
+
+        Usage(int processes, long rssBytes, long cpuMillis) {
+            this.processes = processes;
+            this.rssBytes = rssBytes;
+            this.cpuMillis = cpuMillis;
+        }
+
+        public int processes() {
+            return processes;
+        }
+
+        /**
+         * Mémoire résidente cumulée, -1 si non mesurée.
+         */
+        public long rssBytes() {
+            return rssBytes;
+        }
+
+        /**
+         * Temps CPU cumulé depuis le démarrage des processus, -1 si non mesuré.
+         */
+        public long cpuMillis() {
+            return cpuMillis;
+        }
+    }
+}
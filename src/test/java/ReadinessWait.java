@@ -0,0 +1,183 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Attente "événementielle" de l'état de la page : rend la main dès que la condition est vraie
+ * au lieu de dormir une durée fixe. Chaque appel dispose d'un budget de temps unique et
+ * l'intervalle entre deux sondages augmente progressivement (25 ms, 37 ms, 56 ms... plafonné).
+ * Un sondage = un seul executeScript qui renvoie tout l'état utile ({@link PageState}).
+ */
+public class ReadinessWait {
+
+    private static final Duration DEFAULT_INITIAL_POLL = Duration.ofMillis(25);
+    private static final Duration DEFAULT_MAX_POLL = Duration.ofMillis(400);
+    private static final double BACKOFF_FACTOR = 1.5;
+
+    // Un seul aller-retour vers chromedriver pour lire URL, erreur, jeton et rendu
+    private static final String PROBE_SCRIPT =
+            "var err = document.querySelector('" + LoginPage.ERROR_MESSAGE_CSS + "');"
+                    + "var tokenPattern = /token|auth|jwt|session/i;"
+                    + "var hasToken = false;"
+                    + "try {"
+                    + "  [window.localStorage, window.sessionStorage].forEach(function (s) {"
+                    + "    for (var i = 0; s && i < s.length; i++) { if (tokenPattern.test(s.key(i))) { hasToken = true; } }"
+                    + "  });"
+                    + "} catch (e) {}"
+                    + "document.cookie.split(';').forEach(function (c) {"
+                    + "  if (tokenPattern.test(c.split('=')[0])) { hasToken = true; }"
+                    + "});"
+                    + "return {"
+                    + "  url: window.location.href,"
+                    + "  readyState: document.readyState,"
+                    + "  errorVisible: !!err && !err.classList.contains('offscreen'),"
+                    + "  errorText: err ? err.textContent : '',"
+                    + "  hasAuthToken: hasToken,"
+                    + "  rendered: !!document.body && document.body.innerText.trim().length > 0,"
+                    + "  formInvalid: !!document.querySelector('form input:invalid')"
+                    + "};";
+
+    private final WebDriver driver;
+    private final Duration budget;
+    private Duration initialPoll = DEFAULT_INITIAL_POLL;
+    private Duration maxPoll = DEFAULT_MAX_POLL;
+
+    public ReadinessWait(WebDriver driver, Duration budget) {
+        this.driver = driver;
+        this.budget = budget;
+    }
+
+    public ReadinessWait polling(Duration initial, Duration max) {
+        this.initialPoll = initial;
+        this.maxPoll = max;
+        return this;
+    }
+
+    /**
+     * Attend que la condition soit vraie et renvoie l'état de la page correspondant.
+     *
+     * @throws TimeoutException si le budget est épuisé
+     */
+    public PageState until(String description, Predicate<PageState> condition) {
+        return tryUntil(condition).orElseThrow(() -> new TimeoutException(
+                "Condition non atteinte après " + budget.toMillis() + " ms: " + description));
+    }
+
+    /**
+     * Comme {@link #until} mais renvoie un Optional vide si le budget est épuisé.
+     */
+    public Optional<PageState> tryUntil(Predicate<PageState> condition) {
+        long deadline = System.nanoTime() + budget.toNanos();
+        long pollMillis = initialPoll.toMillis();
+        while (true) {
+            PageState state = PageState.probe(driver);
+            if (state != null && condition.test(state)) {
+                return Optional.of(state);
+            }
+            long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remainingMillis <= 0) {
+                return Optional.empty();
+            }
+            try {
+                Thread.sleep(Math.min(pollMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+            pollMillis = Math.min(maxPoll.toMillis(), Math.max(pollMillis + 1, (long) (pollMillis * BACKOFF_FACTOR)));
+        }
+    }
+
+    /**
+     * Instantané de l'état de la page lu en un seul appel JavaScript.
+     */
+    public static final class PageState {
+        private final String url;
+        private final String readyState;
+        private final boolean errorVisible;
+        private final String errorText;
+        private final boolean hasAuthToken;
+        private final boolean rendered;
+        private final boolean formInvalid;
+
+        PageState(String url, String readyState, boolean errorVisible, String errorText,
+                  boolean hasAuthToken, boolean rendered, boolean formInvalid) {
+            this.url = url;
+            this.readyState = readyState;
+            this.errorVisible = errorVisible;
+            this.errorText = errorText;
+            this.hasAuthToken = hasAuthToken;
+            this.rendered = rendered;
+            this.formInvalid = formInvalid;
+        }
+
+        static PageState probe(WebDriver driver) {
+            try {
+                Object result = ((JavascriptExecutor) driver).executeScript(PROBE_SCRIPT);
+                if (!(result instanceof Map)) {
+                    return null;
+                }
+                Map<?, ?> map = (Map<?, ?>) result;
+                return new PageState(
+                        String.valueOf(map.get("url")),
+                        String.valueOf(map.get("readyState")),
+                        Boolean.TRUE.equals(map.get("errorVisible")),
+                        map.get("errorText") == null ? "" : String.valueOf(map.get("errorText")),
+                        Boolean.TRUE.equals(map.get("hasAuthToken")),
+                        Boolean.TRUE.equals(map.get("rendered")),
+                        Boolean.TRUE.equals(map.get("formInvalid")));
+            } catch (Exception e) {
+                // Page en cours de navigation : on retentera au prochain sondage
+                return null;
+            }
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public boolean isOnLoginPage() {
+            return url.contains("/login");
+        }
+
+        public boolean isLoaded() {
+            return "complete".equals(readyState);
+        }
+
+        public boolean isErrorVisible() {
+            return errorVisible;
+        }
+
+        public String errorText() {
+            return errorText;
+        }
+
+        public boolean hasAuthToken() {
+            return hasAuthToken;
+        }
+
+        public boolean isRendered() {
+            return rendered;
+        }
+
+        /**
+         * Le navigateur a bloqué la soumission (validation HTML5 d'un champ).
+         */
+        public boolean isFormInvalid() {
+            return formInvalid;
+        }
+
+        /**
+         * La soumission du formulaire a produit un résultat observable :
+         * redirection, jeton, erreur affichée ou formulaire refusé par le navigateur.
+         */
+        public boolean hasLoginOutcome() {
+            return !isOnLoginPage() || hasAuthToken || errorVisible || formInvalid;
+        }
+    }
+}
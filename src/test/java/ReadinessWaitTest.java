@@ -0,0 +1,71 @@
+import org.junit.Test;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de l'attente de disponibilité avec un driver simulé dont l'état évolue à chaque sondage.
+ */
+public class ReadinessWaitTest {
+
+    private final AtomicInteger probes = new AtomicInteger();
+
+    private WebDriver driverRedirectingAfter(int probesBeforeRedirect) {
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    if (!"executeScript".equals(method.getName())) {
+                        return null;
+                    }
+                    int probe = probes.incrementAndGet();
+                    Map<String, Object> state = new HashMap<>();
+                    state.put("url", probe > probesBeforeRedirect ? "http://localhost:3005/" : "http://localhost:3005/login");
+                    state.put("readyState", "complete");
+                    state.put("errorVisible", false);
+                    state.put("hasAuthToken", false);
+                    state.put("rendered", true);
+                    state.put("formInvalid", false);
+                    return state;
+                });
+    }
+
+    @Test
+    public void testReturnsAsSoonAsConditionHolds() {
+        WebDriver driver = driverRedirectingAfter(3);
+
+        long start = System.nanoTime();
+        ReadinessWait.PageState state = new ReadinessWait(driver, Duration.ofSeconds(10))
+                .until("redirection", s -> !s.isOnLoginPage());
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertFalse(state.isOnLoginPage());
+        assertEquals(4, probes.get());
+        assertTrue("L'attente devrait se terminer bien avant le budget: " + elapsedMillis + " ms", elapsedMillis < 1000);
+    }
+
+    @Test
+    public void testTimeoutRespectsBudgetWithBackoff() {
+        WebDriver driver = driverRedirectingAfter(Integer.MAX_VALUE);
+
+        long start = System.nanoTime();
+        try {
+            new ReadinessWait(driver, Duration.ofMillis(300)).until("redirection", s -> !s.isOnLoginPage());
+            fail("Une TimeoutException était attendue");
+        } catch (TimeoutException expected) {
+            assertTrue(expected.getMessage().contains("redirection"));
+        }
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis >= 300 && elapsedMillis < 1000);
+        // Intervalles croissants : bien moins de sondages qu'avec un intervalle fixe de 25 ms
+        assertTrue("Trop de sondages: " + probes.get(), probes.get() < 12);
+    }
+}
@@ -0,0 +1,287 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Surveillance des ressources d'une session : mémoire résidente et CPU de l'arbre chromedriver / Chrome
+ * (via {@code /proc}, voir {@link ProcessTree}) et tas JavaScript de la page ({@code performance.memory}).
+ * Une session est recyclée quand elle dépasse {@code monitor.max.rss.mb} (1500), {@code monitor.max.js.heap.mb}
+ * (512) ou {@code monitor.max.uses} tests (50, 0 = illimité). La croissance mémoire de chaque test et la tendance
+ * de chaque session sur l'ensemble de ses tests sont rapportées en fin d'exécution
+ * ({@code target/resource-monitor/report.csv}, {@code sessions.csv} et les plus fortes croissances) pour rendre
+ * visibles les fuites de l'application. Désactivable avec {@code -Dmonitor.enabled=false}.
+ */
+public class ResourceMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceMonitor.class);
+    private static final long MB = 1024 * 1024;
+    private static final int REPORTED_TESTS = 5;
+    private static final String JS_HEAP_SCRIPT =
+            "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : -1;";
+
+    private static ResourceMonitor shared;
+
+    private final ProcessTree processes;
+    private final long maxRssBytes;
+    private final long maxJsHeapBytes;
+    private final int maxUses;
+    // Racine de l'arbre de processus et nombre de tests de chaque session
+    private final Map<WebDriver, Optional<Long>> roots = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<WebDriver, AtomicInteger> uses = Collections.synchronizedMap(new WeakHashMap<>());
+    // Numéro de chaque session dans les rapports, dans l'ordre de leur premier test
+    private final Map<WebDriver, Integer> sessionIds = Collections.synchronizedMap(new WeakHashMap<>());
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final List<TestUsage> tests = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger recycled = new AtomicInteger();
+
+    ResourceMonitor(ProcessTree processes, long maxRssBytes, long maxJsHeapBytes, int maxUses) {
+        this.processes = processes;
+        this.maxRssBytes = maxRssBytes;
+        this.maxJsHeapBytes = maxJsHeapBytes;
+        this.maxUses = maxUses;
+    }
+
+    public static synchronized ResourceMonitor shared() {
+        if (shared == null) {
+            shared = new ResourceMonitor(ProcessTree.system(),
+                    Long.getLong("monitor.max.rss.mb", 1500) * MB,
+                    Long.getLong("monitor.max.js.heap.mb", 512) * MB,
+                    Integer.getInteger("monitor.max.uses", 50));
+            ResourceMonitor monitor = shared;
+            ShutdownHooks.register("resource-monitor-report",
+                    () -> monitor.writeReport(Paths.get(System.getProperty("monitor.report.dir", "target/resource-monitor"))));
+        }
+        return shared;
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("monitor.enabled", "true"));
+    }
+
+    /**
+     * Mesure courante de la session.
+     */
+    public Sample sample(WebDriver driver) {
+        ProcessTree.Usage usage = roots.computeIfAbsent(driver, this::findRoot)
+                .map(processes::usage)
+                .orElse(ProcessTree.Usage.NONE);
+        long jsHeap = -1;
+        try {
+            Object heap = ((JavascriptExecutor) driver).executeScript(JS_HEAP_SCRIPT);
+            jsHeap = heap instanceof Number ? ((Number) heap).longValue() : -1;
+        } catch (RuntimeException e) {
+            // Page en cours de navigation ou fermée : tas non mesuré
+        }
+        return new Sample(usage, jsHeap);
+    }
+
+    /**
+     * Chromedriver de la session (parent du navigateur), retrouvé par le port de débogage de Chrome.
+     */
+    private Optional<Long> findRoot(WebDriver driver) {
+        if (!processes.isAvailable()) {
+            return Optional.empty();
+        }
+        Optional<String> address = CdpSession.debuggerAddress(driver);
+        if (address.isEmpty()) {
+            return Optional.empty();
+        }
+        String port = address.get().substring(address.get().lastIndexOf(':') + 1);
+        return processes.findByArgument("--remote-debugging-port=" + port).map(browser -> {
+            Optional<Long> parent = processes.parent(browser);
+            return parent.isPresent() && processes.command(parent.get()).contains("chromedriver") ? parent.get() : browser;
+        });
+    }
+
+    /**
+     * Enregistre la consommation d'un test et renvoie la raison de recycler sa session, le cas échéant.
+     */
+    public Optional<String> testFinished(String test, WebDriver driver, Sample before, Sample after) {
+        tests.add(new TestUsage(test, sessionIds.computeIfAbsent(driver, d -> sessions.incrementAndGet()), before, after));
+        int count = uses.computeIfAbsent(driver, d -> new AtomicInteger()).incrementAndGet();
+        Optional<String> reason = recycleReason(after, count);
+        reason.ifPresent(r -> recycled.incrementAndGet());
+        return reason;
+    }
+
+    Optional<String> recycleReason(Sample sample, int testCount) {
+        if (sample.rssBytes() > maxRssBytes) {
+            return Optional.of(String.format(Locale.ROOT, "mémoire %d Mo > %d Mo", sample.rssBytes() / MB, maxRssBytes / MB));
+        }
+        if (sample.jsHeapBytes() > maxJsHeapBytes) {
+            return Optional.of(String.format(Locale.ROOT, "tas JS %d Mo > %d Mo", sample.jsHeapBytes() / MB, maxJsHeapBytes / MB));
+        }
+        if (maxUses > 0 && testCount >= maxUses) {
+            return Optional.of(testCount + " tests sur la même session");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Croissances par test et tendances par session en CSV, résumé des plus fortes croissances de mémoire.
+     */
+    public void writeReport(Path dir) {
+        List<TestUsage> snapshot;
+        synchronized (tests) {
+            snapshot = new ArrayList<>(tests);
+        }
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        StringBuilder csv = new StringBuilder("test,rss_before_bytes,rss_growth_bytes,js_heap_before_bytes,js_heap_growth_bytes,cpu_ms,processes,session\n");
+        for (TestUsage usage : snapshot) {
+            csv.append(usage.test).append(',')
+                    .append(usage.before.rssBytes()).append(',').append(usage.rssGrowth()).append(',')
+                    .append(usage.before.jsHeapBytes()).append(',').append(usage.jsHeapGrowth()).append(',')
+                    .append(usage.cpuMillis()).append(',').append(usage.after.processes()).append(',')
+                    .append(usage.session).append('\n');
+        }
+        StringBuilder sessionsCsv = new StringBuilder("session,tests,rss_first_bytes,rss_last_bytes,js_heap_first_bytes,js_heap_last_bytes\n");
+        for (SessionTrend trend : trends(snapshot)) {
+            sessionsCsv.append(trend.session).append(',').append(trend.tests).append(',')
+                    .append(trend.first.rssBytes()).append(',').append(trend.last.rssBytes()).append(',')
+                    .append(trend.first.jsHeapBytes()).append(',').append(trend.last.jsHeapBytes()).append('\n');
+        }
+        try {
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("report.csv"), csv, StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve("sessions.csv"), sessionsCsv, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOG.warn("Impossible d'écrire le rapport de ressources dans {}: {}", dir, e.getMessage());
+        }
+        LOG.info(summary(snapshot));
+    }
+
+    String summary(List<TestUsage> usages) {
+        StringBuilder summary = new StringBuilder("Ressources des sessions : " + recycled.get() + " session(s) recyclée(s)");
+        usages.stream()
+                .filter(usage -> usage.jsHeapGrowth() > 0 || usage.rssGrowth() > 0)
+                .sorted(Comparator.comparingLong(TestUsage::jsHeapGrowth).thenComparingLong(TestUsage::rssGrowth).reversed())
+                .limit(REPORTED_TESTS)
+                .forEach(usage -> summary.append(String.format(Locale.ROOT, "%n  %s : tas JS %+.1f Mo, mémoire %+.1f Mo, CPU %d ms",
+                        usage.test, usage.jsHeapGrowth() / (double) MB, usage.rssGrowth() / (double) MB, usage.cpuMillis())));
+        trends(usages).stream()
+                .filter(trend -> trend.tests > 1 && (trend.jsHeapGrowth() > 0 || trend.rssGrowth() > 0))
+                .sorted(Comparator.comparingLong(SessionTrend::rssGrowth).thenComparingLong(SessionTrend::jsHeapGrowth).reversed())
+                .limit(REPORTED_TESTS)
+                .forEach(trend -> summary.append(String.format(Locale.ROOT, "%n  session %d (%d tests) : mémoire %+.1f Mo, tas JS %+.1f Mo",
+                        trend.session, trend.tests, trend.rssGrowth() / (double) MB, trend.jsHeapGrowth() / (double) MB)));
+        return summary.toString();
+    }
+
+    /**
+     * Tendance de chaque session : de la mesure avant son premier test à la mesure après son dernier.
+     */
+    static List<SessionTrend> trends(List<TestUsage> usages) {
+        Map<Integer, SessionTrend> trends = new TreeMap<>();
+        for (TestUsage usage : usages) {
+            SessionTrend trend = trends.computeIfAbsent(usage.session, session -> new SessionTrend(session, usage.before));
+            trend.tests++;
+            trend.last = usage.after;
+        }
+        return new ArrayList<>(trends.values());
+    }
+
+    /**
+     * Mesure ponctuelle d'une session ; -1 pour une valeur non mesurée.
+     */
+    public static final class Sample {
+        private final ProcessTree.Usage processes;
+        private final long jsHeapBytes;
+
+        Sample(ProcessTree.Usage processes, long jsHeapBytes) {
+            this.processes = processes;
+            this.jsHeapBytes = jsHeapBytes;
+        }
+
+        public long rssBytes() {
+            return processes.rssBytes();
+        }
+
+        public long cpuMillis() {
+            return processes.cpuMillis();
+        }
+
+        public int processes() {
+            return processes.processes();
+        }
+
+        public long jsHeapBytes() {
+            return jsHeapBytes;
+        }
+    }
+
+    /**
+     * Consommation d'un test : mesures avant et après, et session qui l'a exécuté.
+     */
+    static final class TestUsage {
+        private final String test;
+        private final int session;
+        private final Sample before;
+        private final Sample after;
+
+        TestUsage(String test, int session, Sample before, Sample after) {
+            this.test = test;
+            this.session = session;
+            this.before = before;
+            this.after = after;
+        }
+
+        static long growth(long before, long after) {
+            return before < 0 || after < 0 ? 0 : after - before;
+        }
+
+        long rssGrowth() {
+            return growth(before.rssBytes(), after.rssBytes());
+        }
+
+        long jsHeapGrowth() {
+            return growth(before.jsHeapBytes(), after.jsHeapBytes());
+        }
+
+        long cpuMillis() {
+            return growth(before.cpuMillis(), after.cpuMillis());
+        }
+    }
+
+    /**
+     * Évolution d'une session sur tous ses tests.
+     */
+    static final class SessionTrend {
+        private final int session;
+        private final Sample first;
+        private Sample last;
+        private int tests;
+
+        SessionTrend(int session, Sample first) {
+            this.session = session;
+            this.first = first;
+            this.last = first;
+        }
+
+        long rssGrowth() {
+            return TestUsage.growth(first.rssBytes(), last.rssBytes());
+        }
+
+        long jsHeapGrowth() {
+            return TestUsage.growth(first.jsHeapBytes(), last.jsHeapBytes());
+        }
+    }
+}
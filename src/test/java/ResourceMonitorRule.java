@@ -0,0 +1,53 @@
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+import org.openqa.selenium.WebDriver;
+
+import java.util.function.Supplier;
+
+/**
+ * Règle JUnit qui mesure la session au début et à la fin de chaque test avec le {@link ResourceMonitor} et
+ * demande le recyclage de la session quand elle dépasse les seuils. La mesure de départ est prise par
+ * {@link #pageReady()}, appelée par le {@code @Before} une fois la page du test ouverte : le contexte isolé
+ * neuf ne contient encore que {@code about:blank}. À placer à l'intérieur du contexte isolé : la mesure de fin
+ * est prise pendant que la page du test est encore ouverte.
+ */
+public class ResourceMonitorRule extends TestWatcher {
+    private final Supplier<WebDriver> driver;
+    private final Runnable recycle;
+    private ResourceMonitor.Sample before;
+
+    /**
+     * @param recycle écarte la session courante après le test (elle est remplacée au prochain emprunt)
+     */
+    public ResourceMonitorRule(Supplier<WebDriver> driver, Runnable recycle) {
+        this.driver = driver;
+        this.recycle = recycle;
+    }
+
+    @Override
+    protected void starting(Description description) {
+        before = null;
+    }
+
+    /**
+     * Mesure de départ du test, page ouverte ; sans elle le test n'est pas mesuré.
+     */
+    public void pageReady() {
+        before = ResourceMonitor.isEnabled() ? ResourceMonitor.shared().sample(driver.get()) : null;
+    }
+
+    @Override
+    protected void finished(Description description) {
+        if (before == null) {
+            return;
+        }
+        WebDriver current = driver.get();
+        ResourceMonitor monitor = ResourceMonitor.shared();
+        String test = TestDurationHistory.key(description.getClassName(), description.getMethodName());
+        monitor.testFinished(test, current, before, monitor.sample(current)).ifPresent(reason -> {
+            EventLog.info("ResourceMonitor", "session recyclée: " + reason);
+            recycle.run();
+        });
+        before = null;
+    }
+}
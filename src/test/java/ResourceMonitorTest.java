@@ -0,0 +1,150 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la mesure de l'arbre de processus sur un faux {@code /proc} et des seuils de recyclage.
+ */
+public class ResourceMonitorTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path proc;
+
+    private void process(long pid, long ppid, String comm, long rssKb, long utime, long stime, String... args) throws IOException {
+        Path dir = Files.createDirectories(proc.resolve(Long.toString(pid)));
+        Files.writeString(dir.resolve("comm"), comm + "\n", StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("cmdline"), String.join("\u0000", args) + "\u0000", StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("status"), "Name:\t" + comm + "\nVmRSS:\t  " + rssKb + " kB\nThreads:\t4\n", StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("stat"), pid + " (" + comm + ") S " + ppid
+                + " 1 1 0 -1 4194304 100 0 0 0 " + utime + " " + stime + " 0 0 20 0 4 0 100 1000 250\n", StandardCharsets.UTF_8);
+    }
+
+    // chromedriver -> chrome -> deux processus enfants, plus un Chrome sans rapport avec la session
+    private ProcessTree chromeTree() throws IOException {
+        proc = folder.newFolder("proc").toPath();
+        process(1, 0, "init", 1000, 0, 0, "/sbin/init");
+        process(100, 1, "chromedriver", 20_000, 50, 10, "chromedriver", "--port=4444");
+        process(101, 100, "chrome", 300_000, 400, 100, "chrome", "--remote-debugging-port=9222", "--headless=new");
+        process(102, 101, "chrome", 150_000, 300, 50, "chrome", "--type=renderer");
+        process(103, 101, "chrome (gpu)", 50_000, 20, 10, "chrome", "--type=gpu-process");
+        process(200, 1, "chrome", 900_000, 9000, 900, "chrome", "--remote-debugging-port=9333");
+        return new ProcessTree(proc);
+    }
+
+    @Test
+    public void testUsageSumsTheWholeProcessTree() throws IOException {
+        ProcessTree tree = chromeTree();
+
+        ProcessTree.Usage usage = tree.usage(100);
+
+        assertEquals(4, usage.processes());
+        assertEquals((20_000 + 300_000 + 150_000 + 50_000) * 1024L, usage.rssBytes());
+        // (60 + 500 + 350 + 30) ticks à 100 Hz
+        assertEquals(9_400, usage.cpuMillis());
+        // Nom de commande avec espaces et parenthèses lu correctement
+        assertEquals(1, tree.usage(103).processes());
+        assertEquals(0, tree.usage(999).processes());
+    }
+
+    @Test
+    public void testBrowserFoundByDebuggingPort() throws IOException {
+        ProcessTree tree = chromeTree();
+
+        assertEquals(Optional.of(101L), tree.findByArgument("--remote-debugging-port=9222"));
+        assertEquals(Optional.of(100L), tree.parent(101));
+        assertEquals("chromedriver", tree.command(100));
+        assertEquals(Optional.empty(), tree.findByArgument("--remote-debugging-port=1"));
+    }
+
+    @Test
+    public void testSampleMeasuresDriverTreeAndJsHeap() throws IOException {
+        ResourceMonitor monitor = new ResourceMonitor(chromeTree(), 1500 * MB, 512 * MB, 50);
+
+        ResourceMonitor.Sample sample = monitor.sample(fakeDriver("127.0.0.1:9222", 64 * MB));
+
+        // Racine au chromedriver parent : le Chrome de l'autre session n'est pas compté
+        assertEquals(4, sample.processes());
+        assertEquals(520_000 * 1024L, sample.rssBytes());
+        assertEquals(64 * MB, sample.jsHeapBytes());
+    }
+
+    @Test
+    public void testSampleWithoutProcWorksWithJsHeapOnly() throws IOException {
+        ResourceMonitor monitor = new ResourceMonitor(new ProcessTree(folder.newFolder("empty").toPath()), 1500 * MB, 512 * MB, 50);
+
+        ResourceMonitor.Sample sample = monitor.sample(fakeDriver("127.0.0.1:9222", 10 * MB));
+
+        assertEquals(-1, sample.rssBytes());
+        assertEquals(-1, sample.cpuMillis());
+        assertEquals(10 * MB, sample.jsHeapBytes());
+    }
+
+    @Test
+    public void testRecycleAfterThresholdsOrMaxUses() throws IOException {
+        ResourceMonitor monitor = new ResourceMonitor(chromeTree(), 400 * MB, 100 * MB, 3);
+        WebDriver light = fakeDriver("127.0.0.1:9333", 10 * MB);
+        ResourceMonitor.Sample before = new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 5 * MB);
+
+        // Mémoire de l'arbre (508 Mo) au-delà du seuil
+        Optional<String> heavy = monitor.testFinished("LoginTest.a", fakeDriver("127.0.0.1:9222", 10 * MB), before,
+                monitor.sample(fakeDriver("127.0.0.1:9222", 10 * MB)));
+        assertTrue(heavy.orElse("").startsWith("mémoire"));
+
+        ResourceMonitor lightMonitor = new ResourceMonitor(new ProcessTree(proc), 4000 * MB, 100 * MB, 3);
+        assertEquals(Optional.of("tas JS 200 Mo > 100 Mo"),
+                lightMonitor.recycleReason(new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 200 * MB), 1));
+        ResourceMonitor.Sample small = new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 10 * MB);
+        assertEquals(Optional.empty(), lightMonitor.testFinished("LoginTest.a", light, before, small));
+        assertEquals(Optional.empty(), lightMonitor.testFinished("LoginTest.b", light, before, small));
+        assertEquals(Optional.of("3 tests sur la même session"), lightMonitor.testFinished("LoginTest.c", light, before, small));
+    }
+
+    @Test
+    public void testReportListsGrowthPerTest() throws IOException {
+        ResourceMonitor monitor = new ResourceMonitor(chromeTree(), 1500 * MB, 512 * MB, 0);
+        WebDriver driver = fakeDriver("127.0.0.1:9222", 0);
+        monitor.testFinished("LoginTest.stable", driver,
+                new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 20 * MB), new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 20 * MB));
+        monitor.testFinished("LoginTest.leaky", driver,
+                new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 20 * MB), new ResourceMonitor.Sample(ProcessTree.Usage.NONE, 52 * MB));
+
+        Path dir = folder.getRoot().toPath().resolve("report");
+        monitor.writeReport(dir);
+
+        List<String> lines = Files.readAllLines(dir.resolve("report.csv"), StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(2).startsWith("LoginTest.leaky,-1,0," + 20 * MB + "," + 32 * MB + ","));
+        assertTrue(lines.get(2).endsWith(",1"));
+        // Tendance de la session sur ses deux tests : du début du premier à la fin du dernier
+        assertEquals(List.of("session,tests,rss_first_bytes,rss_last_bytes,js_heap_first_bytes,js_heap_last_bytes",
+                "1,2,-1,-1," + 20 * MB + "," + 52 * MB), Files.readAllLines(dir.resolve("sessions.csv"), StandardCharsets.UTF_8));
+        String summary = monitor.summary(List.of());
+        assertTrue(summary.startsWith("Ressources des sessions : 0 session(s) recyclée(s)"));
+    }
+
+    private WebDriver fakeDriver(String debuggerAddress, long jsHeapBytes) {
+        return FakeDriver.driver(JavascriptExecutor.class, HasCapabilities.class)
+                .on("getCapabilities", args -> new ImmutableCapabilities("goog:chromeOptions",
+                        Map.of("debuggerAddress", debuggerAddress)))
+                .on("executeScript", args -> jsHeapBytes)
+                .build();
+    }
+}
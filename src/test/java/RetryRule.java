@@ -0,0 +1,139 @@
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Règle JUnit qui relance un test en échec selon la {@link FailureCategory} de l'échec, au lieu de relancer
+ * toute la suite. Seules les catégories dues au timing ou à l'environnement sont relancées
+ * ({@code retry.categories}, par défaut TIMEOUT, STALE_ELEMENT et DRIVER_CRASH) ; une assertion ou un élément
+ * introuvable échoue tout de suite. Une assertion qui suit une attente expirée de la page pendant l'essai
+ * ({@link EventLog#timeout}) compte comme un TIMEOUT. Au plus {@code retry.max} nouveaux essais (2), après une
+ * pause qui double à chaque fois ({@code retry.backoff.ms}, 500 ms).
+ *
+ * <p>Doit entourer la règle qui emprunte la session et le {@code @Before} : chaque essai repart d'une session
+ * fraîchement empruntée et réinitialisée ; après un {@link FailureCategory#DRIVER_CRASH} la session plantée est
+ * évincée. Chaque issue alimente le {@link FlakinessHistory}, où seuls les essais relancés comptent pour la
+ * quarantaine ; les tests en quarantaine sont ignorés, sauf avec
+ * {@code -Dflaky.quarantine=false} (job nocturne qui les exécute pour mettre leur score à jour).</p>
+ */
+public class RetryRule implements TestRule {
+
+    private static final Set<FailureCategory> DEFAULT_RETRYABLE =
+            EnumSet.of(FailureCategory.TIMEOUT, FailureCategory.STALE_ELEMENT, FailureCategory.DRIVER_CRASH);
+
+    private static final Logger LOG = LoggerFactory.getLogger(RetryRule.class);
+
+    private static boolean reported;
+
+    private final FlakinessHistory history;
+    private final Runnable onDriverCrash;
+    private final int maxRetries = Integer.getInteger("retry.max", 2);
+    private final long backoffMillis = Long.getLong("retry.backoff.ms", 500);
+    private final Set<FailureCategory> retryable = retryableCategories();
+
+    public RetryRule() {
+        this(() -> {
+        });
+    }
+
+    /**
+     * @param onDriverCrash écarte la session plantée quand elle n'est pas empruntée par test
+     *                      (session de classe du {@link PerWorkerDriverRule})
+     */
+    public RetryRule(Runnable onDriverCrash) {
+        this(FlakinessHistory.shared(), onDriverCrash);
+    }
+
+    RetryRule(FlakinessHistory history, Runnable onDriverCrash) {
+        this.history = history;
+        this.onDriverCrash = onDriverCrash;
+    }
+
+    private static Set<FailureCategory> retryableCategories() {
+        String configured = System.getProperty("retry.categories");
+        if (configured == null) {
+            return DEFAULT_RETRYABLE;
+        }
+        return Arrays.stream(configured.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> FailureCategory.valueOf(name.toUpperCase(Locale.ROOT)))
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(FailureCategory.class)));
+    }
+
+    private static synchronized void reportQuarantine(FlakinessHistory history) {
+        if (!reported) {
+            reported = true;
+            LOG.info(history.quarantineReport());
+        }
+    }
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        if (!Boolean.parseBoolean(System.getProperty("retry.enabled", "true"))) {
+            return base;
+        }
+        String test = TestDurationHistory.key(description.getClassName(), description.getMethodName());
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                reportQuarantine(history);
+                if (history.isQuarantined(test) && Boolean.parseBoolean(System.getProperty("flaky.quarantine", "true"))) {
+                    throw new AssumptionViolatedException(String.format(Locale.ROOT,
+                            "Test en quarantaine (score d'instabilité %.2f)", history.score(test)));
+                }
+                evaluateWithRetries(base, test);
+            }
+        };
+    }
+
+    private void evaluateWithRetries(Statement base, String test) throws Throwable {
+        Throwable previous = null;
+        for (int attempt = 0; ; attempt++) {
+            int timeouts = EventLog.timeouts();
+            try {
+                base.evaluate();
+                history.record(test, attempt == 0 ? FlakinessHistory.Outcome.PASSED : FlakinessHistory.Outcome.FLAKY);
+                if (attempt > 0) {
+                    EventLog.info("RetryRule", "réussi à l'essai " + (attempt + 1));
+                }
+                return;
+            } catch (AssumptionViolatedException e) {
+                throw e;
+            } catch (Throwable failure) {
+                if (previous != null && previous != failure) {
+                    failure.addSuppressed(previous);
+                }
+                FailureCategory category = FailureCategory.classify(failure, EventLog.timeouts() > timeouts);
+                if (!retryable.contains(category)) {
+                    history.record(test, FlakinessHistory.Outcome.FAILED);
+                    throw failure;
+                }
+                if (attempt >= maxRetries) {
+                    history.record(test, FlakinessHistory.Outcome.EXHAUSTED);
+                    throw failure;
+                }
+                EventLog.info("RetryRule", category + ", nouvel essai " + (attempt + 2) + "/" + (maxRetries + 1));
+                if (category == FailureCategory.DRIVER_CRASH) {
+                    onDriverCrash.run();
+                }
+                previous = failure;
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(backoffMillis << Math.min(attempt, 10));
+    }
+}
@@ -0,0 +1,172 @@
+import org.junit.AssumptionViolatedException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la classification des échecs, des relances et du score d'instabilité.
+ */
+public class RetryRuleTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Description description = Description.createTestDescription("LoginTest", "testSuccessfulLogin");
+    private final AtomicInteger crashes = new AtomicInteger();
+
+    private FlakinessHistory history() {
+        return new FlakinessHistory(folder.getRoot().toPath().resolve("flaky.json"), 0.3);
+    }
+
+    private RetryRule rule(FlakinessHistory history) {
+        System.setProperty("retry.backoff.ms", "1");
+        try {
+            return new RetryRule(history, crashes::incrementAndGet);
+        } finally {
+            System.clearProperty("retry.backoff.ms");
+        }
+    }
+
+    private static Statement failing(AtomicInteger runs, int failures, Throwable failure) {
+        return new Statement() {
+            @Override
+            public void evaluate() throws Throwable {
+                if (runs.incrementAndGet() <= failures) {
+                    throw failure;
+                }
+            }
+        };
+    }
+
+    @Test
+    public void testClassification() {
+        assertEquals(FailureCategory.TIMEOUT, FailureCategory.classify(new TimeoutException("redirection")));
+        assertEquals(FailureCategory.STALE_ELEMENT, FailureCategory.classify(new StaleElementReferenceException("stale")));
+        assertEquals(FailureCategory.ASSERTION, FailureCategory.classify(new AssertionError("attendu")));
+        assertEquals(FailureCategory.DRIVER_CRASH, FailureCategory.classify(new NoSuchSessionException("invalid session id")));
+        assertEquals(FailureCategory.DRIVER_CRASH, FailureCategory.classify(
+                new WebDriverException("unknown error: session deleted because of page crash\nBuild info: ...")));
+        assertEquals(FailureCategory.OTHER, FailureCategory.classify(new IllegalStateException("autre")));
+        // Attente expirée sur un élément jamais apparu : la cause l'emporte sur le délai
+        assertEquals(FailureCategory.ELEMENT_NOT_FOUND, FailureCategory.classify(new RuntimeException("Le champ email n'a pas été trouvé",
+                new TimeoutException("presence of element", new NoSuchElementException("#username")))));
+    }
+
+    @Test
+    public void testTimeoutIsRetriedAndRecordedAsFlaky() throws Throwable {
+        FlakinessHistory history = history();
+        AtomicInteger runs = new AtomicInteger();
+
+        rule(history).apply(failing(runs, 1, new TimeoutException("redirection lente")), description).evaluate();
+
+        assertEquals(2, runs.get());
+        assertEquals(0, crashes.get());
+        history.save();
+        assertTrue(Files.readString(folder.getRoot().toPath().resolve("flaky.json")).contains("\"flaky\": 1"));
+    }
+
+    @Test
+    public void testAssertionAfterAbsorbedWaitTimeoutIsRetried() throws Throwable {
+        FlakinessHistory history = history();
+        AtomicInteger runs = new AtomicInteger();
+        // Premier essai : la page absorbe l'attente expirée, puis l'assertion du test échoue
+        Statement slowRedirect = new Statement() {
+            @Override
+            public void evaluate() {
+                if (runs.incrementAndGet() == 1) {
+                    EventLog.timeout("LoginPage.waitForRedirect", "pas de redirection");
+                    throw new AssertionError("L'utilisateur devrait être redirigé après connexion");
+                }
+            }
+        };
+
+        rule(history).apply(slowRedirect, description).evaluate();
+
+        assertEquals(2, runs.get());
+        history.save();
+        assertTrue(Files.readString(folder.getRoot().toPath().resolve("flaky.json")).contains("\"flaky\": 1"));
+    }
+
+    @Test
+    public void testAssertionIsNotRetried() {
+        AtomicInteger runs = new AtomicInteger();
+        try {
+            rule(history()).apply(failing(runs, 5, new AssertionError("vraie régression")), description).evaluate();
+            fail("L'assertion devrait remonter");
+        } catch (Throwable e) {
+            assertEquals("vraie régression", e.getMessage());
+        }
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testDeterministicFailuresAreNotQuarantined() throws Throwable {
+        Path file = folder.getRoot().toPath().resolve("flaky.json");
+        FlakinessHistory history = history();
+        RetryRule rule = rule(history);
+        for (int i = 0; i < 6; i++) {
+            try {
+                rule.apply(failing(new AtomicInteger(), 1, new AssertionError("vraie régression")), description).evaluate();
+                fail("L'assertion devrait remonter");
+            } catch (AssertionError expected) {
+                // échec déterministe, sans nouvel essai
+            }
+        }
+        history.save();
+
+        FlakinessHistory reloaded = new FlakinessHistory(file, 0.3);
+        assertEquals(0, reloaded.score("LoginTest#testSuccessfulLogin"), 0);
+        assertFalse(reloaded.isQuarantined("LoginTest#testSuccessfulLogin"));
+        assertTrue(Files.readString(file).contains("\"failed\": 6"));
+    }
+
+    @Test
+    public void testRetriesAreCappedAndCrashDiscardsSession() {
+        AtomicInteger runs = new AtomicInteger();
+        try {
+            rule(history()).apply(failing(runs, 10, new NoSuchSessionException("invalid session id")), description).evaluate();
+            fail("L'échec devrait remonter après le dernier essai");
+        } catch (Throwable e) {
+            assertTrue(e instanceof NoSuchSessionException);
+        }
+        assertEquals(3, runs.get());
+        assertEquals(2, crashes.get());
+    }
+
+    @Test
+    public void testChronicallyFlakyTestIsQuarantined() throws Throwable {
+        Path file = folder.getRoot().toPath().resolve("flaky.json");
+        FlakinessHistory history = history();
+        for (int i = 0; i < 6; i++) {
+            history.record("LoginTest#testSuccessfulLogin", i % 2 == 0 ? FlakinessHistory.Outcome.FLAKY : FlakinessHistory.Outcome.PASSED);
+            history.record("LoginTest#testEmailValidation", FlakinessHistory.Outcome.PASSED);
+        }
+        history.save();
+
+        FlakinessHistory reloaded = new FlakinessHistory(file, 0.3);
+        assertTrue(reloaded.isQuarantined("LoginTest#testSuccessfulLogin"));
+        assertFalse(reloaded.isQuarantined("LoginTest#testEmailValidation"));
+        assertTrue(reloaded.quarantineReport().contains("LoginTest#testSuccessfulLogin"));
+
+        AtomicInteger runs = new AtomicInteger();
+        try {
+            rule(reloaded).apply(failing(runs, 0, null), description).evaluate();
+            fail("Un test en quarantaine devrait être ignoré");
+        } catch (AssumptionViolatedException e) {
+            assertEquals(0, runs.get());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Écriture des captures d'écran en arrière-plan : le thread de test ne fait que la capture (octets PNG)
+ * et la dépose dans une file bornée ; un thread dédié encode et écrit les fichiers.
+ * Quand la file est pleine, {@link #submit} bloque le test (contre-pression) plutôt que d'accumuler
+ * des images en mémoire. Un hook d'arrêt vide la file pour ne perdre aucune capture.
+ *
+ * <p>Options : {@code screenshot.queue.capacity} (16), {@code screenshot.scale} (1.0 = taille réelle)
+ * et {@code screenshot.format} ({@code png} ou {@code jpg}).</p>
+ */
+public class ScreenshotWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ScreenshotWriter.class);
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private static ScreenshotWriter shared;
+
+    private final BlockingQueue<Job> queue;
+    private final double scale;
+    private final String format;
+    private final Thread worker;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object drained = new Object();
+    private volatile boolean closed;
+
+    ScreenshotWriter(int capacity, double scale, String format) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.scale = scale;
+        this.format = format;
+        this.worker = new Thread(this::drain, "screenshot-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public static synchronized ScreenshotWriter shared() {
+        if (shared == null) {
+            double scale = Double.parseDouble(System.getProperty("screenshot.scale", "1.0"));
+            String format = "jpg".equalsIgnoreCase(System.getProperty("screenshot.format")) ? "jpg" : "png";
+            shared = new ScreenshotWriter(Integer.getInteger("screenshot.queue.capacity", 16), scale, format);
+            ShutdownHooks.register("screenshot-writer-flush", shared::close);
+        }
+        return shared;
+    }
+
+    /**
+     * Met une capture en file d'écriture. Bloque si la file est pleine.
+     *
+     * @param png octets PNG renvoyés par {@code getScreenshotAs(OutputType.BYTES)}
+     */
+    public void submit(Path directory, String name, byte[] png) {
+        if (closed) {
+            throw new IllegalStateException("L'écrivain de captures est fermé");
+        }
+        pending.incrementAndGet();
+        try {
+            queue.put(new Job(directory, name, png));
+        } catch (InterruptedException e) {
+            pending.decrementAndGet();
+            Thread.currentThread().interrupt();
+            EventLog.error("ScreenshotWriter", "capture abandonnée (interruption): " + name);
+        }
+    }
+
+    /**
+     * Attend que toutes les captures soumises soient écrites.
+     */
+    public void flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (drained) {
+            while (pending.get() > 0) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return;
+                }
+                drained.wait(remaining);
+            }
+        }
+    }
+
+    public void close() {
+        closed = true;
+        try {
+            flush(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (pending.get() > 0) {
+            LOG.warn("{} capture(s) non écrite(s) à l'arrêt", pending.get());
+        }
+        worker.interrupt();
+    }
+
+    private void drain() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                Path destination = write(job);
+                LOG.info("Capture enregistrée: {}", destination);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Écriture de la capture impossible: {}", e.getMessage());
+            } finally {
+                synchronized (drained) {
+                    pending.decrementAndGet();
+                    drained.notifyAll();
+                }
+            }
+        }
+    }
+
+    private Path write(Job job) throws IOException {
+        byte[] data = encode(job.png);
+        Files.createDirectories(job.directory);
+        String base = job.name + "_" + LocalDateTime.now().format(TIMESTAMP);
+        // Nom unique : un suffixe est ajouté si le fichier existe déjà (relance, captures rapprochées)
+        for (int attempt = 0; ; attempt++) {
+            Path destination = job.directory.resolve(base + (attempt == 0 ? "" : "-" + attempt) + "." + format);
+            try {
+                Files.write(destination, data, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                return destination;
+            } catch (FileAlreadyExistsException e) {
+                // Essayer le suffixe suivant
+            }
+        }
+    }
+
+    private byte[] encode(byte[] png) throws IOException {
+        if (scale >= 1.0 && "png".equals(format)) {
+            return png;
+        }
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return png;
+        }
+        int width = Math.max(1, (int) Math.round(source.getWidth() * Math.min(scale, 1.0)));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * Math.min(scale, 1.0)));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if ("jpg".equals(format)) {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(target, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+        } else {
+            ImageIO.write(target, "png", out);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Job {
+        final Path directory;
+        final String name;
+        final byte[] png;
+
+        Job(Path directory, String name, byte[] png) {
+            this.directory = directory;
+            this.name = name;
+            this.png = png;
+        }
+    }
+}
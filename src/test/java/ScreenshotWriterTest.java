@@ -0,0 +1,71 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de l'écriture asynchrone des captures d'écran.
+ */
+public class ScreenshotWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private List<Path> files(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testRepeatedCapturesGetUniqueNames() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        ScreenshotWriter writer = new ScreenshotWriter(2, 1.0, "png");
+
+        byte[] image = png(20, 10);
+        for (int i = 0; i < 5; i++) {
+            writer.submit(dir, "testSuccessfulLogin", image);
+        }
+        writer.flush(10, TimeUnit.SECONDS);
+
+        List<Path> written = files(dir);
+        assertEquals("Aucune capture ne devrait être perdue", 5, written.size());
+        for (Path path : written) {
+            assertTrue(path.getFileName().toString().startsWith("testSuccessfulLogin_"));
+        }
+    }
+
+    @Test
+    public void testDownscaleToJpeg() throws Exception {
+        Path dir = folder.getRoot().toPath();
+        ScreenshotWriter writer = new ScreenshotWriter(4, 0.5, "jpg");
+
+        writer.submit(dir, "redirect_error", png(200, 100));
+        writer.flush(10, TimeUnit.SECONDS);
+
+        List<Path> written = files(dir);
+        assertEquals(1, written.size());
+        assertTrue(written.get(0).toString().endsWith(".jpg"));
+        BufferedImage image = ImageIO.read(written.get(0).toFile());
+        assertEquals(100, image.getWidth());
+        assertEquals(50, image.getHeight());
+    }
+}
@@ -0,0 +1,88 @@
+import org.example.bench.BenchmarkHarness;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Implémentation des opérations mesurées par les benchmarks JMH ({@code org.example.bench}),
+ * déclarée dans {@code META-INF/services/org.example.bench.BenchmarkHarness}.
+ */
+public class SeleniumBenchmarkHarness implements BenchmarkHarness {
+
+    private LoginStubServer server;
+    private WebDriver driver;
+    private LoginPage loginPage;
+
+    @Override
+    public Object startAndQuit(boolean fastStart) {
+        BrowserProfile profile = new BrowserProfile(true, fastStart, BrowserProfile.DEFAULT_WINDOW_SIZE, false);
+        WebDriver session = DriverPool.ChromeSessions.start(profile);
+        try {
+            return session.getWindowHandle();
+        } finally {
+            session.quit();
+        }
+    }
+
+    @Override
+    public void openLoginPage() throws IOException {
+        server = new LoginStubServer(0).withUser(TestEnvironment.VALID_EMAIL, TestEnvironment.VALID_PASSWORD).start();
+        driver = DriverPool.ChromeSessions.start(BrowserProfile.fromSystemProperties().headless());
+        loginPage = new LoginPage(driver, server.baseUrl());
+        loginPage.open();
+        // Quelques cookies pour que printCookies() ait du travail
+        for (int i = 0; i < 5; i++) {
+            driver.manage().addCookie(new Cookie("bench" + i, "valeur-de-cookie-" + i));
+        }
+    }
+
+    @Override
+    public void closeLoginPage() {
+        driver.quit();
+        server.close();
+    }
+
+    @Override
+    public Object open() {
+        return loginPage.open();
+    }
+
+    @Override
+    public Object fillLoginForm() {
+        return loginPage.fillLoginForm(TestEnvironment.VALID_EMAIL, TestEnvironment.VALID_PASSWORD);
+    }
+
+    @Override
+    public Object[] elementLookups() {
+        return new Object[]{
+                loginPage.getEmailInput().isDisplayed(),
+                loginPage.getPasswordInput().isDisplayed(),
+                loginPage.getSubmitButton().isDisplayed(),
+                loginPage.getEmailInput().getAttribute("placeholder"),
+                loginPage.getPasswordInput().getAttribute("placeholder")};
+    }
+
+    @Override
+    public Object batchedSnapshot() {
+        return LoginFormSnapshot.capture(driver);
+    }
+
+    @Override
+    public void printCookies() {
+        loginPage.printCookies();
+    }
+
+    // Attente déjà satisfaite : mesure le coût fixe de la boucle WebDriverWait
+    @Override
+    public Object waitForErrorToDisappear() {
+        return loginPage.waitForErrorToDisappear();
+    }
+
+    // Même chose pour la sonde JavaScript de ReadinessWait
+    @Override
+    public Object readinessWait() {
+        return new ReadinessWait(driver, Duration.ofSeconds(5)).until("page chargée", ReadinessWait.PageState::isLoaded);
+    }
+}
@@ -0,0 +1,208 @@
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cache des sessions authentifiées : la connexion par l'interface n'est faite qu'une fois par
+ * jeu d'identifiants, puis les cookies et le localStorage / sessionStorage capturés sont injectés
+ * directement dans les sessions suivantes.
+ *
+ * <p>Une entrée expire après {@code session.cache.ttl.seconds} (10 minutes par défaut) ou à
+ * l'expiration de son premier cookie ; elle est aussi invalidée si le serveur la refuse
+ * (retour sur /login après injection).</p>
+ */
+public class SessionCache {
+
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(Long.getLong("session.cache.ttl.seconds", 600));
+    private static final Duration VALIDATION_BUDGET = Duration.ofSeconds(5);
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "function dump(s) { var out = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); out[k] = s.getItem(k); } return out; }"
+                    + "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };";
+
+    private static final SessionCache SHARED = new SessionCache(DEFAULT_TTL);
+
+    private final Duration ttl;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private final Json json = new Json();
+
+    SessionCache(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public static SessionCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Authentifie la session du driver : par injection de l'état en cache s'il est valide,
+     * sinon par la connexion UI fournie, dont l'état est ensuite capturé.
+     *
+     * @param uiLogin connexion par l'interface, renvoie true si l'utilisateur est authentifié
+     * @return true si la session est authentifiée
+     */
+    public boolean authenticate(WebDriver driver, String baseUrl, String email, String password, BooleanSupplier uiLogin) {
+        String key = baseUrl + "|" + email + "|" + Integer.toHexString(password.hashCode());
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(Instant.now())) {
+                if (restore(driver, baseUrl, entry)) {
+                    EventLog.info("SessionCache", "session restaurée depuis le cache pour: " + email);
+                    return true;
+                }
+                EventLog.info("SessionCache", "session en cache refusée par le serveur, nouvelle connexion pour: " + email);
+            }
+            entries.remove(key);
+
+            if (!uiLogin.getAsBoolean()) {
+                return false;
+            }
+            entries.put(key, capture(driver));
+            return true;
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private Entry capture(WebDriver driver) {
+        Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+        Map<String, String> local = Collections.emptyMap();
+        Map<String, String> session = Collections.emptyMap();
+        Object storage = ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+        if (storage instanceof Map) {
+            local = toStringMap(((Map<?, ?>) storage).get("local"));
+            session = toStringMap(((Map<?, ?>) storage).get("session"));
+        }
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(expiresAt)) {
+                expiresAt = cookie.getExpiry().toInstant();
+            }
+        }
+        EventLog.info("SessionCache", "session capturée: " + cookies.size() + " cookies, "
+                + local.size() + " clés localStorage, " + session.size() + " clés sessionStorage");
+        return new Entry(cookies, local, session, expiresAt);
+    }
+
+    /**
+     * Injecte l'état puis charge la racine : la session est valide si l'application ne renvoie pas vers /login.
+     */
+    private boolean restore(WebDriver driver, String baseUrl, Entry entry) {
+        String origin = origin(baseUrl);
+        if (driver instanceof HasCdp) {
+            restoreOverDevTools((HasCdp) driver, driver, baseUrl, origin, entry);
+        } else {
+            restoreOverWebDriver(driver, baseUrl, entry);
+        }
+        return new ReadinessWait(driver, VALIDATION_BUDGET)
+                .tryUntil(state -> state.isLoaded() && (state.isOnLoginPage() || state.isRendered()))
+                .map(state -> !state.isOnLoginPage())
+                .orElse(false);
+    }
+
+    // Cookies et storage posés avant le premier script de la page : une seule navigation
+    private void restoreOverDevTools(HasCdp cdp, WebDriver driver, String baseUrl, String origin, Entry entry) {
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : entry.cookies) {
+            Map<String, Object> param = new HashMap<>();
+            param.put("name", cookie.getName());
+            param.put("value", cookie.getValue());
+            param.put("path", cookie.getPath() == null ? "/" : cookie.getPath());
+            param.put("secure", cookie.isSecure());
+            param.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getDomain() != null) {
+                param.put("domain", cookie.getDomain());
+            } else {
+                param.put("url", origin);
+            }
+            if (cookie.getExpiry() != null) {
+                param.put("expires", cookie.getExpiry().getTime() / 1000.0);
+            }
+            if (cookie.getSameSite() != null) {
+                param.put("sameSite", cookie.getSameSite());
+            }
+            cookies.add(param);
+        }
+        cdp.executeCdpCommand("Network.setCookies", Map.of("cookies", cookies));
+
+        String script = "if (window.location.origin === " + json.toJson(origin) + ") {"
+                + "  var local = " + json.toJson(entry.localStorage) + ";"
+                + "  var session = " + json.toJson(entry.sessionStorage) + ";"
+                + "  Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });"
+                + "  Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });"
+                + "}";
+        Map<String, Object> added = cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", script));
+        try {
+            driver.get(baseUrl);
+        } finally {
+            // Le script ne doit s'appliquer qu'à ce chargement (sinon il annulerait une déconnexion)
+            cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument",
+                    Map.of("identifier", added.get("identifier")));
+        }
+    }
+
+    // Sans DevTools : il faut être sur l'origine pour poser cookies et storage
+    private void restoreOverWebDriver(WebDriver driver, String baseUrl, Entry entry) {
+        driver.get(baseUrl + "/login");
+        for (Cookie cookie : entry.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "var local = arguments[0], session = arguments[1];"
+                        + "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });"
+                        + "Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });",
+                entry.localStorage, entry.sessionStorage);
+        driver.get(baseUrl);
+    }
+
+    private static String origin(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private static Map<String, String> toStringMap(Object value) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (value instanceof Map) {
+            ((Map<?, ?>) value).forEach((k, v) -> result.put(String.valueOf(k), String.valueOf(v)));
+        }
+        return result;
+    }
+
+    private static final class Entry {
+        final Set<Cookie> cookies;
+        final Map<String, String> localStorage;
+        final Map<String, String> sessionStorage;
+        final Instant expiresAt;
+
+        Entry(Set<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage, Instant expiresAt) {
+            this.cookies = cookies;
+            this.localStorage = localStorage;
+            this.sessionStorage = sessionStorage;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(Instant now) {
+            return !now.isBefore(expiresAt);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import org.junit.Test;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du cache de sessions avec un driver simulé sans DevTools : l'application accepte ou refuse
+ * la session injectée selon {@code accepted}.
+ */
+public class SessionCacheTest {
+
+    private static final String BASE_URL = "http://localhost:3005";
+
+    private final AtomicBoolean accepted = new AtomicBoolean(true);
+    private final AtomicInteger uiLogins = new AtomicInteger();
+    private final AtomicInteger cookiesAdded = new AtomicInteger();
+    private volatile String currentUrl = "about:blank";
+
+    private WebDriver fakeDriver() {
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getCookies":
+                            return Set.of(new Cookie("jwt", "jeton"));
+                        case "addCookie":
+                            cookiesAdded.incrementAndGet();
+                            return null;
+                        default:
+                            return null;
+                    }
+                });
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "get":
+                            String url = (String) args[0];
+                            // L'application renvoie vers /login une session qu'elle refuse
+                            currentUrl = url.endsWith("/login") || !accepted.get() ? BASE_URL + "/login" : url + "/";
+                            return null;
+                        case "manage":
+                            return options;
+                        case "executeScript":
+                            return script((String) args[0]);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private Object script(String script) {
+        if (script.contains("function dump")) {
+            return Map.of("local", Map.of("token", "jeton"), "session", Map.of());
+        }
+        if (script.contains("localStorage.setItem")) {
+            return null;
+        }
+        // Sonde de ReadinessWait
+        Map<String, Object> state = new HashMap<>();
+        state.put("url", currentUrl);
+        state.put("readyState", "complete");
+        state.put("errorVisible", false);
+        state.put("hasAuthToken", accepted.get());
+        state.put("rendered", true);
+        state.put("formInvalid", false);
+        return state;
+    }
+
+    private boolean authenticate(SessionCache cache, WebDriver driver) {
+        return cache.authenticate(driver, BASE_URL, "admin@medical.com", "00001991", () -> {
+            uiLogins.incrementAndGet();
+            currentUrl = BASE_URL + "/";
+            return true;
+        });
+    }
+
+    @Test
+    public void testValidEntryIsRestoredWithoutUiLogin() {
+        SessionCache cache = new SessionCache(Duration.ofMinutes(10));
+        WebDriver driver = fakeDriver();
+
+        assertTrue(authenticate(cache, driver));
+        assertTrue(authenticate(cache, driver));
+
+        assertEquals(1, uiLogins.get());
+        assertEquals("Les cookies capturés devraient être réinjectés", 1, cookiesAdded.get());
+    }
+
+    @Test
+    public void testExpiredEntryFallsBackToUiLogin() {
+        SessionCache cache = new SessionCache(Duration.ZERO);
+        WebDriver driver = fakeDriver();
+
+        assertTrue(authenticate(cache, driver));
+        assertTrue(authenticate(cache, driver));
+
+        assertEquals(2, uiLogins.get());
+        assertEquals("Une entrée expirée ne devrait pas être injectée", 0, cookiesAdded.get());
+    }
+
+    @Test
+    public void testRejectedEntryIsReplacedByANewLogin() {
+        SessionCache cache = new SessionCache(Duration.ofMinutes(10));
+        WebDriver driver = fakeDriver();
+        assertTrue(authenticate(cache, driver));
+
+        // Session révoquée côté serveur : retour sur /login après injection, nouvelle connexion UI
+        accepted.set(false);
+        assertTrue(authenticate(cache, driver));
+        assertEquals(2, uiLogins.get());
+
+        // La nouvelle session capturée est de nouveau réutilisée
+        accepted.set(true);
+        assertTrue(authenticate(cache, driver));
+        assertEquals(2, uiLogins.get());
+    }
+}
@@ -0,0 +1,162 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Répartition des méthodes de test en shards équilibrés d'après le {@link TestDurationHistory} :
+ * les tests les plus longs sont placés d'abord, chacun dans le shard le moins chargé, pour qu'un test
+ * lent ne se retrouve pas seul en fin d'exécution. Le résultat ne dépend que de la liste des tests et
+ * de l'historique : tous les workers qui partagent le même historique calculent le même plan.
+ */
+public final class ShardPlan {
+
+    private final List<Shard> shards;
+    private final Map<String, Integer> assignment = new HashMap<>();
+
+    private ShardPlan(List<Shard> shards) {
+        this.shards = shards;
+        for (Shard shard : shards) {
+            shard.tests.forEach(test -> assignment.put(test, shard.index));
+        }
+    }
+
+    public static ShardPlan of(Collection<String> tests, int count, TestDurationHistory history) {
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, count); i++) {
+            shards.add(new Shard(i));
+        }
+        PriorityQueue<Shard> byLoad = new PriorityQueue<>(
+                Comparator.comparingLong((Shard shard) -> shard.loadMillis).thenComparingInt(shard -> shard.index));
+        byLoad.addAll(shards);
+
+        Map<String, Long> estimates = new HashMap<>();
+        tests.forEach(test -> estimates.put(test, history.estimateMillis(test)));
+        List<String> longestFirst = tests.stream()
+                .distinct()
+                .sorted(Comparator.comparingLong((String test) -> estimates.get(test)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+        for (String test : longestFirst) {
+            Shard lightest = byLoad.poll();
+            lightest.tests.add(test);
+            lightest.loadMillis += estimates.get(test);
+            byLoad.add(lightest);
+        }
+        return new ShardPlan(shards);
+    }
+
+    /**
+     * Index du shard qui exécute ce test, ou -1 s'il ne fait pas partie du plan.
+     */
+    public int shardOf(String test) {
+        return assignment.getOrDefault(test, -1);
+    }
+
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    /**
+     * Durée idéale : temps total estimé divisé par le nombre de shards.
+     */
+    public long idealMillis() {
+        return shards.stream().mapToLong(shard -> shard.loadMillis).sum() / shards.size();
+    }
+
+    /**
+     * Durée estimée de l'exécution : celle du shard le plus chargé.
+     */
+    public long makespanMillis() {
+        return shards.stream().mapToLong(shard -> shard.loadMillis).max().orElse(0);
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("=== Plan de shards : %d shards, estimé %d ms (idéal %d ms) ===",
+                shards.size(), makespanMillis(), idealMillis()));
+        for (Shard shard : shards) {
+            summary.append(String.format("%n  shard %d : %d tests, %d ms", shard.index, shard.tests.size(), shard.loadMillis));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Méthodes {@code @Test} ({@code Classe#méthode}) des classes compilées sous {@code classesDir}.
+     * Les classes sont chargées sans être initialisées.
+     */
+    public static List<String> discover(Path classesDir, ClassLoader loader) {
+        List<String> tests = new ArrayList<>();
+        for (Class<?> testClass : discoverClasses(classesDir, loader)) {
+            for (Method method : testClass.getMethods()) {
+                if (method.isAnnotationPresent(Test.class)) {
+                    tests.add(TestDurationHistory.key(testClass.getName(), method.getName()));
+                }
+            }
+        }
+        tests.sort(Comparator.naturalOrder());
+        return tests;
+    }
+
+    public static List<Class<?>> discoverClasses(Path classesDir, ClassLoader loader) {
+        try (Stream<Path> files = Files.walk(classesDir)) {
+            return files
+                    .map(path -> classesDir.relativize(path).toString())
+                    .filter(name -> name.endsWith(".class") && !name.contains("$"))
+                    .map(name -> name.substring(0, name.length() - ".class".length()).replace('/', '.').replace('\\', '.'))
+                    .sorted()
+                    .map(name -> load(name, loader))
+                    .filter(type -> type != null && Modifier.isPublic(type.getModifiers())
+                            && !Modifier.isAbstract(type.getModifiers())
+                            && Stream.of(type.getMethods()).anyMatch(method -> method.isAnnotationPresent(Test.class)))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Class<?> load(String name, ClassLoader loader) {
+        try {
+            return Class.forName(name, false, loader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Un shard : ses tests, dans l'ordre où ils ont été placés (du plus long au plus court).
+     */
+    public static final class Shard {
+        private final int index;
+        private final List<String> tests = new ArrayList<>();
+        private long loadMillis;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public List<String> tests() {
+            return tests;
+        }
+
+        public long loadMillis() {
+            return loadMillis;
+        }
+    }
+}
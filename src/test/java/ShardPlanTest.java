@@ -0,0 +1,61 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la répartition en shards et de l'historique des durées.
+ */
+public class ShardPlanTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestDurationHistory history(String json) throws Exception {
+        Path file = folder.getRoot().toPath().resolve("durations.json");
+        Files.writeString(file, json);
+        return new TestDurationHistory(file);
+    }
+
+    @Test
+    public void testLongestTestsArePlacedFirstOnLeastLoadedShard() throws Exception {
+        TestDurationHistory history = history(
+                "{\"A#slow\": 9000, \"A#medium\": 5000, \"B#medium\": 4000, \"B#fast\": 1000, \"B#faster\": 1000}");
+
+        ShardPlan plan = ShardPlan.of(List.of("B#fast", "A#medium", "B#faster", "A#slow", "B#medium"), 2, history);
+
+        assertEquals(0, plan.shardOf("A#slow"));
+        assertEquals(List.of("A#slow", "B#fast"), plan.shards().get(0).tests());
+        assertEquals(List.of("A#medium", "B#medium", "B#faster"), plan.shards().get(1).tests());
+        assertEquals(10000, plan.makespanMillis());
+        assertEquals(10000, plan.idealMillis());
+    }
+
+    @Test
+    public void testNewTestsAreEstimatedFromTheirClassThenTheSuite() throws Exception {
+        TestDurationHistory history = history("{\"A#one\": 1000, \"A#two\": 3000, \"A#three\": 2000, \"B#one\": 8000}");
+
+        assertEquals(2000, history.estimateMillis("A#nouveau"));
+        assertEquals(3000, history.estimateMillis("C#nouveau"));
+        assertFalse(history.isKnown("C#nouveau"));
+    }
+
+    @Test
+    public void testSaveMergesMeasurementsIntoTheFile() throws Exception {
+        TestDurationHistory history = history("{\"A#one\": 1000, \"B#one\": 500}");
+        history.record("A#one", TimeUnit.MILLISECONDS.toNanos(3000));
+        history.record("C#one", TimeUnit.MILLISECONDS.toNanos(700));
+        history.save();
+
+        TestDurationHistory reloaded = new TestDurationHistory(folder.getRoot().toPath().resolve("durations.json"));
+        assertEquals(2000, reloaded.estimateMillis("A#one"));
+        assertEquals(500, reloaded.estimateMillis("B#one"));
+        assertEquals(700, reloaded.estimateMillis("C#one"));
+    }
+}
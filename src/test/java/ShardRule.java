@@ -0,0 +1,76 @@
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Règle JUnit qui n'exécute que les tests attribués au shard courant par le {@link ShardPlan}
+ * ({@code mvn test -Dshard.index=i -Dshard.count=n}) ; les autres sont ignorés avant toute acquisition de driver.
+ * Sans {@code shard.count}, tous les tests s'exécutent. Doit être la règle la plus externe.
+ * <p>
+ * Seules les classes qui portent cette règle sont réparties : les autres s'exécutent sur chaque worker, et le
+ * plan les compte alors à tort. Pour répartir toute la suite, préférer {@code -Pshards}
+ * ({@link ShardedRunLauncher}), dont les JVM reçoivent leur liste de tests et n'appliquent pas cette règle.
+ */
+public class ShardRule implements TestRule {
+
+    private static ShardPlan plan;
+
+    static int shardCount() {
+        return Integer.getInteger("shard.count", 1);
+    }
+
+    static int shardIndex() {
+        return Integer.getInteger("shard.index", 0);
+    }
+
+    static synchronized ShardPlan plan() {
+        if (plan == null) {
+            plan = ShardPlan.of(shardedTests(), shardCount(), TestDurationHistory.shared());
+            System.out.println(plan.summary());
+        }
+        return plan;
+    }
+
+    /**
+     * Tests répartis entre les shards (ou les workers de la grille) : toute la suite, sauf les lanceurs eux-mêmes.
+     */
+    static List<String> shardedTests() {
+        return ShardPlan.discover(testClassesDir(), ShardRule.class.getClassLoader()).stream()
+                .filter(test -> !test.startsWith(ShardedRunLauncher.class.getName() + "#"))
+                .filter(test -> !test.startsWith(GridRunLauncher.class.getName() + "#"))
+                .collect(Collectors.toList());
+    }
+
+    static Path testClassesDir() {
+        try {
+            return Paths.get(ShardRule.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Répertoire des classes de test introuvable", e);
+        }
+    }
+
+    @Override
+    public Statement apply(Statement base, Description description) {
+        if (shardCount() <= 1) {
+            return base;
+        }
+        // Un test absent du plan (classe générée, paramétrée...) est exécuté par le shard 0
+        int shard = Math.max(0, plan().shardOf(TestDurationHistory.key(description.getClassName(), description.getMethodName())));
+        if (shard == shardIndex()) {
+            return base;
+        }
+        return new Statement() {
+            @Override
+            public void evaluate() {
+                throw new AssumptionViolatedException("Test attribué au shard " + shard);
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Lance la suite répartie sur {@code shard.count} JVM forkées (profil Maven {@code shards}) :
+ * {@code mvn test -Pshards -Dshard.count=4}. Chaque JVM ne reçoit que les méthodes que le {@link ShardPlan} lui
+ * attribue ({@code target/shards/shard-N.tests}) : un test sans {@link ShardRule}, lanceurs compris, ne s'exécute
+ * qu'une fois. Journaux dans {@code target/shards/shard-N.log}. Sur plusieurs workers CI, lancer
+ * {@code mvn test -Pshards -Dshard.count=n -Dshard.index=i} sur chaque worker : seul le shard {@code i} est forké,
+ * et toutes les classes sont réparties, avec ou sans {@link ShardRule}.
+ */
+public class ShardedRunLauncher {
+
+    // Propriétés système transmises aux JVM des shards (et des workers de la grille)
+    static final List<String> FORWARDED_PREFIXES = List.of(
+            "headless", "app.", "auth.", "browser.", "driver.", "session.", "screenshot.", "timing.", "test.history.",
+            "shard.default.");
+
+    @Test
+    public void runShards() throws Exception {
+        Assume.assumeTrue("Exécution en shards désactivée (activer avec -Pshards)", Boolean.getBoolean("shard.launch"));
+
+        int count = ShardRule.shardCount();
+        ShardPlan plan = ShardPlan.of(ShardRule.shardedTests(), count, TestDurationHistory.shared());
+        System.out.println(plan.summary());
+
+        Path logs = Files.createDirectories(Paths.get("target", "shards"));
+
+        // Worker CI : uniquement le shard demandé
+        Integer only = Integer.getInteger("shard.index");
+        int first = only != null ? only : 0;
+        int last = only != null ? only + 1 : count;
+        assertTrue("shard.index hors de [0, " + count + ")", first >= 0 && last <= count);
+
+        long start = System.nanoTime();
+        List<Process> processes = new ArrayList<>();
+        for (int i = first; i < last; i++) {
+            Path tests = Files.write(logs.resolve("shard-" + i + ".tests"), plan.shards().get(i).tests(), StandardCharsets.UTF_8);
+            processes.add(command(i, tests)
+                    .redirectErrorStream(true)
+                    .redirectOutput(logs.resolve("shard-" + i + ".log").toFile())
+                    .start());
+        }
+
+        List<String> failures = new ArrayList<>();
+        for (int i = first; i < last; i++) {
+            int exit = processes.get(i - first).waitFor();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println(String.format("  shard %d : terminé après %d ms (estimé %d ms), code %d",
+                    i, elapsed, plan.shards().get(i).loadMillis(), exit));
+            if (exit != 0) {
+                failures.add("shard-" + i + ".log");
+            }
+        }
+        System.out.println(String.format("Durée totale %d ms, idéal estimé %d ms",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), plan.idealMillis()));
+        assertTrue("Shards en échec, voir target/shards/" + failures, failures.isEmpty());
+    }
+
+    /**
+     * Point d'entrée d'une JVM de shard : exécute les tests ({@code Classe#méthode}) listés dans le fichier.
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> tests = Files.readAllLines(Paths.get(args[0]), StandardCharsets.UTF_8);
+        boolean passed = true;
+        if (!tests.isEmpty()) {
+            try (JUnitTestExecutor executor = new JUnitTestExecutor()) {
+                passed = executor.run(tests, System.out::println);
+            }
+        }
+        // Rapports et historiques déjà écrits à la fermeture de l'exécuteur
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ProcessBuilder command(int index, Path tests) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        for (Map.Entry<Object, Object> property : System.getProperties().entrySet()) {
+            String name = String.valueOf(property.getKey());
+            if (FORWARDED_PREFIXES.stream().anyMatch(name::startsWith)) {
+                command.add("-D" + name + "=" + property.getValue());
+            }
+        }
+        // Ni shard.index ni shard.count : la liste du fichier fait foi, ShardRule ne recalcule pas de plan
+        // Rapports de latence séparés par shard
+        command.add("-Dtiming.report.dir=target" + File.separator + "timing" + File.separator + "shard-" + index);
+        command.add(ShardedRunLauncher.class.getName());
+        command.add(tests.toString());
+        return new ProcessBuilder(command);
+    }
+}
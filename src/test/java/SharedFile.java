@@ -0,0 +1,136 @@
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fichier partagé entre les JVM de tests (forks, workers de la grille) : historiques et index des caches.
+ * Les lectures prennent un verrou partagé et les mises à jour un verrou exclusif, sur le fichier voisin
+ * {@code <nom>.lock} ; une mise à jour JSON écrit un fichier temporaire puis le déplace atomiquement, si bien
+ * qu'un lecteur ne voit jamais un fichier à moitié écrit. Un contenu JSON illisible (arrêt brutal pendant une
+ * écriture d'une version précédente) est traité comme vide.
+ */
+final class SharedFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SharedFile.class);
+
+    // Un verrou de fichier est tenu par la JVM entière : les threads d'une même JVM se synchronisent d'abord ici
+    private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Path lock;
+
+    SharedFile(Path file) {
+        this.file = file.toAbsolutePath().normalize();
+        this.lock = this.file.resolveSibling(this.file.getFileName() + ".lock");
+    }
+
+    /**
+     * Modification de l'objet JSON racine, appliquée sous verrou exclusif.
+     */
+    interface Change<T> {
+        T apply(Map<String, Object> json) throws IOException;
+    }
+
+    /**
+     * Contenu du fichier, vide s'il n'existe pas.
+     */
+    String read() {
+        try {
+            return locked(true, this::readContent);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Objet JSON racine du fichier, vide s'il n'existe pas ou s'il est illisible.
+     */
+    Map<String, Object> readJson() {
+        return parse(read());
+    }
+
+    /**
+     * Relit l'objet JSON sous verrou exclusif, lui applique {@code change} et le réécrit (clés triées) s'il a changé.
+     *
+     * @return le résultat de {@code change}
+     */
+    <T> T updateJson(Change<T> change) throws IOException {
+        return locked(false, () -> {
+            Map<String, Object> before = parse(readContent());
+            Map<String, Object> json = new TreeMap<>(before);
+            T result = change.apply(json);
+            if (!json.equals(before)) {
+                Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+                try {
+                    Files.writeString(temp, new Json().toJson(json), StandardCharsets.UTF_8);
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Ajoute des lignes en fin de fichier sous verrou exclusif, précédées de {@code header} si le fichier est vide.
+     */
+    void append(String header, String lines) throws IOException {
+        locked(false, () -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                String text = channel.size() == 0 ? header + "\n" + lines : lines;
+                ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, channel.size());
+                }
+            }
+            return null;
+        });
+    }
+
+    private String readContent() throws IOException {
+        return Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8) : "";
+    }
+
+    private Map<String, Object> parse(String content) {
+        if (content.isBlank()) {
+            return new HashMap<>();
+        }
+        try {
+            return new HashMap<>(new Json().toType(content, Json.MAP_TYPE));
+        } catch (JsonException | ClassCastException e) {
+            LOG.warn("Contenu illisible dans {}, traité comme vide: {}", file, e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
+    private interface Locked<T> {
+        T run() throws IOException;
+    }
+
+    private <T> T locked(boolean shared, Locked<T> action) throws IOException {
+        Files.createDirectories(file.getParent());
+        synchronized (MONITORS.computeIfAbsent(file, f -> new Object())) {
+            try (FileChannel channel = FileChannel.open(lock, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock(0, Long.MAX_VALUE, shared)) {
+                return action.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du fichier partagé entre JVM : contenu illisible, mise à jour atomique, ajout de lignes.
+ */
+public class SharedFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testHalfWrittenJsonIsReadAsEmpty() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("flaky.json");
+        // Fichier tronqué par un arrêt brutal pendant l'écriture
+        Files.writeString(file, "{\"LoginTest#testSuccessfulLogin\": {\"runs\": 3, \"fla", StandardCharsets.UTF_8);
+
+        assertTrue(new SharedFile(file).readJson().isEmpty());
+
+        // L'historique se recharge et se réécrit au lieu de faire échouer chaque test
+        FlakinessHistory history = new FlakinessHistory(file, 0.3);
+        history.record("LoginTest#testSuccessfulLogin", FlakinessHistory.Outcome.FLAKY);
+        history.save();
+        assertTrue(Files.readString(file).contains("\"flaky\": 1"));
+    }
+
+    @Test
+    public void testUpdateReplacesFileAndLeavesNoTemporaryFile() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("index.json");
+        SharedFile shared = new SharedFile(file);
+
+        shared.updateJson(json -> json.put("b", 2L));
+        // Chaque mise à jour part du contenu écrit par la précédente
+        boolean previousKept = shared.updateJson(json -> {
+            json.put("a", 1L);
+            return json.containsKey("b");
+        });
+
+        assertTrue(previousKept);
+        Map<String, Object> json = shared.readJson();
+        assertEquals(2, json.size());
+        assertEquals(1L, ((Number) json.get("a")).longValue());
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertFalse("Aucun fichier temporaire ne devrait rester", files.anyMatch(f -> f.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void testAppendWritesHeaderOnce() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history.csv");
+        SharedFile shared = new SharedFile(file);
+
+        shared.append("a,b", "1,2\n");
+        shared.append("a,b", "3,4\n");
+
+        assertEquals("a,b\n1,2\n3,4\n", shared.read());
+    }
+}
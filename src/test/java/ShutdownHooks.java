@@ -0,0 +1,47 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hooks d'arrêt des singletons de la suite (rapports, historiques, serveur simulé, sessions Chrome).
+ * Dans une JVM de tests ils s'exécutent à la sortie. Le démon de tests, qui recharge les classes de test
+ * après chaque {@code mvn test-compile}, les exécute et les retire avec {@link #runNow()} : sinon chaque
+ * génération garderait son serveur, ses threads et son chargeur de classes jusqu'à l'arrêt du démon.
+ */
+final class ShutdownHooks {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ShutdownHooks.class);
+    private static final List<Thread> HOOKS = new ArrayList<>();
+
+    private ShutdownHooks() {
+    }
+
+    static synchronized void register(String name, Runnable action) {
+        Thread hook = new Thread(action, name);
+        HOOKS.add(hook);
+        Runtime.getRuntime().addShutdownHook(hook);
+    }
+
+    /**
+     * Exécute tout de suite, dans l'ordre d'enregistrement, les hooks pas encore exécutés et les retire de la JVM.
+     */
+    static synchronized void runNow() {
+        List<Thread> hooks = new ArrayList<>(HOOKS);
+        HOOKS.clear();
+        for (Thread hook : hooks) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException e) {
+                // Arrêt de la JVM déjà en cours : le hook s'exécute de lui-même
+                continue;
+            }
+            try {
+                hook.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Hook d'arrêt {} en échec: {}", hook.getName(), e.getMessage());
+            }
+        }
+    }
+}
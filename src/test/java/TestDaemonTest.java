@@ -0,0 +1,117 @@
+import org.example.TestDaemon;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du protocole du démon de tests, avec l'exécuteur JUnit réel sur une classe de test locale.
+ */
+public class TestDaemonTest {
+
+    private TestDaemon daemon;
+    private Thread serving;
+    private final JUnitTestExecutor executor = new JUnitTestExecutor();
+
+    /**
+     * Classe exécutée par le démon pendant les tests (ignorée hors démon).
+     */
+    public static class SampleTests {
+        @org.junit.Test
+        public void passes() {
+        }
+
+        @org.junit.Test
+        public void fails() {
+            fail("attendu");
+        }
+
+        @org.junit.Test
+        public void skipped() {
+            org.junit.Assume.assumeTrue(false);
+        }
+    }
+
+    private void start() throws Exception {
+        daemon = new TestDaemon(0, () -> executor);
+        serving = new Thread(daemon::serve);
+        serving.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (daemon != null) {
+            daemon.close();
+            serving.join(5000);
+        }
+    }
+
+    private List<String> send(String command) throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.port())) {
+            new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8).println(command);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+
+    @Test
+    public void testPing() throws Exception {
+        start();
+        assertEquals(List.of("PONG"), send("PING"));
+    }
+
+    @Test
+    public void testRunStreamsEventsThenSummary() throws Exception {
+        start();
+        List<String> lines = send("RUN TestDaemonTest$SampleTests");
+
+        assertTrue(lines.toString(), lines.contains("PASSED TestDaemonTest$SampleTests#passes"));
+        assertTrue(lines.toString(), lines.contains("SKIPPED TestDaemonTest$SampleTests#skipped"));
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith("FAILED TestDaemonTest$SampleTests#fails attendu")));
+        assertTrue(lines.indexOf("STARTED TestDaemonTest$SampleTests#passes")
+                < lines.indexOf("PASSED TestDaemonTest$SampleTests#passes"));
+        assertTrue(lines.get(lines.size() - 1).startsWith("DONE FAILED"));
+    }
+
+    @Test
+    public void testRunSingleMethod() throws Exception {
+        start();
+        List<String> lines = send("RUN TestDaemonTest$SampleTests#passes");
+
+        assertEquals("STARTED TestDaemonTest$SampleTests#passes", lines.get(0));
+        assertEquals("PASSED TestDaemonTest$SampleTests#passes", lines.get(1));
+        assertTrue(lines.get(2).startsWith("DONE OK"));
+        assertEquals(3, lines.size());
+    }
+
+    @Test
+    public void testUnknownClassReportsErrorAndDaemonStaysUp() throws Exception {
+        start();
+        List<String> lines = send("RUN ClasseInexistante");
+        assertTrue(lines.get(0).startsWith("ERROR"));
+        assertTrue(lines.get(1).startsWith("DONE FAILED"));
+        assertEquals(List.of("PONG"), send("PING"));
+    }
+
+    @Test
+    public void testStopClosesDaemon() throws Exception {
+        start();
+        assertEquals(List.of("BYE"), send("STOP"));
+        serving.join(5000);
+        assertFalse(serving.isAlive());
+    }
+}
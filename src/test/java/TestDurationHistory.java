@@ -0,0 +1,133 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Historique local des durées de test ({@code Classe#méthode} -> durée en ms), lissé d'une exécution
+ * à l'autre. Sert d'estimation au {@link ShardPlan}.
+ *
+ * <p>Fichier {@code test.history.file} (par défaut {@code test-durations.json} à la racine du projet,
+ * à conserver entre les exécutions CI). Les mesures de la JVM sont fusionnées dans le fichier à
+ * l'arrêt, sous verrou, pour que plusieurs JVM de tests puissent écrire en même temps.</p>
+ */
+public class TestDurationHistory {
+
+    // Poids de la nouvelle mesure dans la moyenne lissée
+    private static final double SMOOTHING = 0.5;
+    private static final long DEFAULT_ESTIMATE_MILLIS = 5000;
+
+    private static TestDurationHistory shared;
+
+    private final Path file;
+    private final Map<String, Long> durations;
+    private final Map<String, Long> recorded = new HashMap<>();
+
+    TestDurationHistory(Path file) {
+        this.file = file;
+        this.durations = read(file);
+    }
+
+    public static synchronized TestDurationHistory shared() {
+        if (shared == null) {
+            shared = new TestDurationHistory(Paths.get(System.getProperty("test.history.file", "test-durations.json")));
+            TestDurationHistory history = shared;
+            ShutdownHooks.register("test-history", () -> {
+                try {
+                    history.save();
+                } catch (IOException e) {
+                    System.err.println("Erreur lors de l'écriture de l'historique des durées: " + e.getMessage());
+                }
+            });
+        }
+        return shared;
+    }
+
+    public static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    /**
+     * Durée mesurée d'un test terminé (réussi ou en échec, pas ignoré).
+     */
+    public synchronized void record(String test, long nanos) {
+        recorded.put(test, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    public synchronized boolean isKnown(String test) {
+        return durations.containsKey(test);
+    }
+
+    /**
+     * Durée estimée d'un test : son historique ; pour un test nouveau, la médiane des tests connus de
+     * la même classe, sinon de toute la suite, sinon {@value #DEFAULT_ESTIMATE_MILLIS} ms.
+     */
+    public synchronized long estimateMillis(String test) {
+        Long known = durations.get(test);
+        if (known != null) {
+            return known;
+        }
+        String prefix = test.substring(0, test.indexOf('#') + 1);
+        List<Long> sameClass = new ArrayList<>();
+        durations.forEach((name, millis) -> {
+            if (!prefix.isEmpty() && name.startsWith(prefix)) {
+                sameClass.add(millis);
+            }
+        });
+        if (!sameClass.isEmpty()) {
+            return median(sameClass);
+        }
+        if (!durations.isEmpty()) {
+            return median(new ArrayList<>(durations.values()));
+        }
+        return Long.getLong("shard.default.estimate.ms", DEFAULT_ESTIMATE_MILLIS);
+    }
+
+    /**
+     * Fusionne les mesures de cette JVM dans le fichier ({@link SharedFile}).
+     */
+    public void save() throws IOException {
+        Map<String, Long> measured;
+        synchronized (this) {
+            if (recorded.isEmpty()) {
+                return;
+            }
+            measured = new HashMap<>(recorded);
+            recorded.clear();
+        }
+        Map<String, Long> merged = new SharedFile(file).updateJson(json -> {
+            Map<String, Long> current = parse(json);
+            measured.forEach((test, millis) -> current.merge(test, millis,
+                    (previous, latest) -> Math.round(previous * (1 - SMOOTHING) + latest * SMOOTHING)));
+            json.putAll(current);
+            return current;
+        });
+        synchronized (this) {
+            durations.putAll(merged);
+        }
+    }
+
+    private static Map<String, Long> read(Path file) {
+        return parse(new SharedFile(file).readJson());
+    }
+
+    private static Map<String, Long> parse(Map<String, Object> raw) {
+        Map<String, Long> durations = new HashMap<>();
+        raw.forEach((test, millis) -> {
+            if (millis instanceof Number) {
+                durations.put(test, ((Number) millis).longValue());
+            }
+        });
+        return durations;
+    }
+
+    private static long median(List<Long> values) {
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+}
@@ -0,0 +1,48 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Cible des tests : l'application réelle ({@code app.baseUrl}, par défaut http://localhost:3005)
+ * ou, avec {@code -Dapp.stub=true}, le {@link LoginStubServer} embarqué démarré au premier appel
+ * et arrêté avec la JVM.
+ *
+ * <p>Réglages du serveur simulé : {@code app.stub.port} (0 = port libre),
+ * {@code app.stub.auth.latency.ms} et {@code app.stub.auth.failure.rate}.</p>
+ */
+public final class TestEnvironment {
+
+    public static final String VALID_EMAIL = "admin@medical.com";
+    public static final String VALID_PASSWORD = "00001991";
+
+    private static final String DEFAULT_BASE_URL = "http://localhost:3005";
+
+    private static LoginStubServer stub;
+
+    private TestEnvironment() {
+    }
+
+    public static boolean isStubbed() {
+        return Boolean.getBoolean("app.stub");
+    }
+
+    public static String baseUrl() {
+        return isStubbed() ? stub().baseUrl() : System.getProperty("app.baseUrl", DEFAULT_BASE_URL);
+    }
+
+    public static synchronized LoginStubServer stub() {
+        if (stub == null) {
+            try {
+                stub = new LoginStubServer(Integer.getInteger("app.stub.port", 0))
+                        .withUser(VALID_EMAIL, VALID_PASSWORD)
+                        .withAuthLatency(Duration.ofMillis(Long.getLong("app.stub.auth.latency.ms", 0)))
+                        .withAuthFailureRate(Double.parseDouble(System.getProperty("app.stub.auth.failure.rate", "0")))
+                        .start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible de démarrer le serveur simulé", e);
+            }
+            ShutdownHooks.register("login-stub-shutdown", stub::close);
+        }
+        return stub;
+    }
+}
@@ -0,0 +1,203 @@
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Délais d'attente de {@link LoginPage} déduits des temps de réponse mesurés de l'application plutôt que
+ * codés en dur. Au démarrage de la suite (premier emprunt d'une session), quelques chargements de la page
+ * de connexion et allers-retours d'authentification sont chronométrés : un {@code POST} d'identifiants refusés
+ * sur l'endpoint {@code timeouts.auth.path} ({@code /auth}), comme celui du formulaire, sans rien connecter.
+ * Chaque délai vaut le pire temps observé multiplié
+ * par une marge de sécurité ({@code timeouts.safety.factor}, 4 par défaut), borné par un minimum propre à
+ * l'opération et par {@code timeouts.max.ms} (30 s). L'intervalle de sondage suit l'aller-retour mesuré.
+ *
+ * <p>Sans calibration ({@code -Dtimeouts.calibrate=false}, ou mesure impossible) ce sont les anciens délais fixes.</p>
+ */
+public final class TimeoutCalibration {
+
+    /**
+     * Opérations attendues par la page, chacune avec son délai.
+     */
+    public enum Operation {
+        // Apparition d'un élément après une action sur la page
+        ELEMENT(Duration.ofSeconds(10), Duration.ofSeconds(2)),
+        // Chargement et rendu d'une page
+        PAGE_READY(Duration.ofSeconds(5), Duration.ofSeconds(1)),
+        // Prise en compte d'un clic de soumission
+        SUBMIT_ACK(Duration.ofMillis(1000), Duration.ofMillis(300)),
+        // Réponse d'authentification puis rendu du résultat
+        LOGIN_OUTCOME(Duration.ofSeconds(10), Duration.ofSeconds(2)),
+        // Redirection complète après connexion
+        REDIRECT(Duration.ofSeconds(20), Duration.ofSeconds(3));
+
+        private final Duration fallback;
+        private final Duration minimum;
+
+        Operation(Duration fallback, Duration minimum) {
+            this.fallback = fallback;
+            this.minimum = minimum;
+        }
+    }
+
+    private static final Duration DEFAULT_INITIAL_POLL = Duration.ofMillis(25);
+    private static final Duration DEFAULT_MAX_POLL = Duration.ofMillis(400);
+
+    // Aller-retour d'authentification mesuré dans la page (sans le coût du protocole WebDriver) : toute
+    // réponse HTTP compte, le refus attendu (401) compris
+    private static final String ROUND_TRIP_SCRIPT =
+            "var done = arguments[arguments.length - 1], start = performance.now();"
+                    + "fetch(new URL(arguments[0], window.location.href), {method: 'POST', cache: 'no-store',"
+                    + "    credentials: 'omit', headers: {'Content-Type': 'application/json'},"
+                    + "    body: JSON.stringify({email: 'calibration@invalid', password: 'calibration'})})"
+                    + "  .then(function (r) { return r.text(); })"
+                    + "  .then(function () { done(performance.now() - start); })"
+                    + "  .catch(function () { done(-1); });";
+
+    private static final TimeoutCalibration DEFAULTS = new TimeoutCalibration(defaultTimeouts(),
+            DEFAULT_INITIAL_POLL, DEFAULT_MAX_POLL, "par défaut");
+
+    private static volatile TimeoutCalibration current = DEFAULTS;
+    private static boolean attempted;
+
+    private final Map<Operation, Duration> timeouts;
+    private final Duration initialPoll;
+    private final Duration maxPoll;
+    private final String source;
+
+    private TimeoutCalibration(Map<Operation, Duration> timeouts, Duration initialPoll, Duration maxPoll, String source) {
+        this.timeouts = timeouts;
+        this.initialPoll = initialPoll;
+        this.maxPoll = maxPoll;
+        this.source = source;
+    }
+
+    /**
+     * Délais en vigueur : ceux de la calibration si elle a eu lieu, sinon les délais par défaut.
+     */
+    public static TimeoutCalibration current() {
+        return current;
+    }
+
+    public static TimeoutCalibration defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Calibre les délais sur cette application, une seule fois par JVM (les appels suivants ne font rien).
+     * Laisse le navigateur sur la page de connexion.
+     */
+    public static synchronized TimeoutCalibration calibrateOnce(WebDriver driver, String baseUrl) {
+        if (attempted || !Boolean.parseBoolean(System.getProperty("timeouts.calibrate", "true"))) {
+            return current;
+        }
+        attempted = true;
+        try (LatencyRecorder.Span ignored = LatencyRecorder.start("TimeoutCalibration.calibrate")) {
+            int samples = Math.max(1, Integer.getInteger("timeouts.calibration.samples", 3));
+            long[] pageLoads = new long[samples];
+            long[] roundTrips = new long[samples];
+            // Premier chargement à froid écarté : caches du navigateur et compilation JIT du serveur
+            loadLoginPage(driver, baseUrl);
+            for (int i = 0; i < samples; i++) {
+                pageLoads[i] = loadLoginPage(driver, baseUrl);
+                roundTrips[i] = roundTrip(driver);
+            }
+            current = fromMeasurements(pageLoads, roundTrips);
+        } catch (WebDriverException | IllegalStateException e) {
+            EventLog.error("TimeoutCalibration", "calibration impossible, délais par défaut: " + e.getMessage());
+        }
+        EventLog.info("TimeoutCalibration", current.summary());
+        return current;
+    }
+
+    private static long loadLoginPage(WebDriver driver, String baseUrl) {
+        long start = System.nanoTime();
+        driver.get(baseUrl + "/login");
+        new ReadinessWait(driver, Operation.REDIRECT.fallback)
+                .until("rendu de la page de connexion", state -> state.isLoaded() && state.isRendered());
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    private static long roundTrip(WebDriver driver) {
+        Object millis = ((JavascriptExecutor) driver).executeAsyncScript(ROUND_TRIP_SCRIPT,
+                System.getProperty("timeouts.auth.path", "/auth"));
+        if (!(millis instanceof Number) || ((Number) millis).doubleValue() < 0) {
+            throw new IllegalStateException("aller-retour d'authentification non mesurable");
+        }
+        return Math.round(((Number) millis).doubleValue());
+    }
+
+    /**
+     * Délais déduits des pires temps observés : chargement de page ({@code pageLoads}) et aller-retour
+     * d'authentification ({@code roundTrips}), en millisecondes.
+     */
+    static TimeoutCalibration fromMeasurements(long[] pageLoads, long[] roundTrips) {
+        double factor = Double.parseDouble(System.getProperty("timeouts.safety.factor", "4"));
+        long max = Long.getLong("timeouts.max.ms", 30_000);
+        long page = Arrays.stream(pageLoads).max().orElse(0);
+        long trip = Arrays.stream(roundTrips).max().orElse(0);
+
+        Map<Operation, Duration> timeouts = new EnumMap<>(Operation.class);
+        timeouts.put(Operation.ELEMENT, bounded(Operation.ELEMENT, page * factor, max));
+        timeouts.put(Operation.PAGE_READY, bounded(Operation.PAGE_READY, page * factor, max));
+        timeouts.put(Operation.SUBMIT_ACK, bounded(Operation.SUBMIT_ACK, trip * factor, max));
+        timeouts.put(Operation.LOGIN_OUTCOME, bounded(Operation.LOGIN_OUTCOME, (trip + page) * factor, max));
+        timeouts.put(Operation.REDIRECT, bounded(Operation.REDIRECT, (trip + 2 * page) * factor, max));
+
+        // Sonder plus vite qu'un aller-retour n'apporte rien ; plafond à l'aller-retour lui-même
+        Duration initialPoll = Duration.ofMillis(Math.max(10, Math.min(100, trip / 4)));
+        Duration maxPoll = Duration.ofMillis(Math.max(50, Math.min(DEFAULT_MAX_POLL.toMillis(), trip)));
+        return new TimeoutCalibration(timeouts, initialPoll, maxPoll,
+                String.format(Locale.ROOT, "calibrés (page %d ms, aller-retour %d ms, marge x%.1f)", page, trip, factor));
+    }
+
+    private static Duration bounded(Operation operation, double millis, long max) {
+        return Duration.ofMillis(Math.min(max, Math.max(operation.minimum.toMillis(), (long) Math.ceil(millis))));
+    }
+
+    private static Map<Operation, Duration> defaultTimeouts() {
+        Map<Operation, Duration> timeouts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            timeouts.put(operation, operation.fallback);
+        }
+        return timeouts;
+    }
+
+    public Duration timeout(Operation operation) {
+        return timeouts.get(operation);
+    }
+
+    /**
+     * Premier intervalle de sondage des attentes.
+     */
+    public Duration initialPoll() {
+        return initialPoll;
+    }
+
+    /**
+     * Intervalle de sondage maximal des attentes (après ralentissement progressif).
+     */
+    public Duration maxPoll() {
+        return maxPoll;
+    }
+
+    /**
+     * Attente de l'état de la page avec le délai et les intervalles de sondage de l'opération.
+     */
+    public ReadinessWait readiness(WebDriver driver, Operation operation) {
+        return new ReadinessWait(driver, timeout(operation)).polling(initialPoll, maxPoll);
+    }
+
+    public String summary() {
+        StringJoiner joiner = new StringJoiner(", ", "Délais " + source + ": ", "");
+        timeouts.forEach((operation, timeout) -> joiner.add(operation.name().toLowerCase(Locale.ROOT) + "=" + timeout.toMillis() + " ms"));
+        joiner.add("sondage=" + initialPoll.toMillis() + "-" + maxPoll.toMillis() + " ms");
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,63 @@
+import org.junit.Test;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests du calcul des délais calibrés et des lectures négatives sans attente.
+ */
+public class TimeoutCalibrationTest {
+
+    @Test
+    public void testTimeoutsScaleWithWorstMeasurement() {
+        TimeoutCalibration calibration = TimeoutCalibration.fromMeasurements(new long[]{400, 900, 500}, new long[]{100, 200, 150});
+
+        // Marge x4 sur le pire temps observé
+        assertEquals(Duration.ofMillis(3600), calibration.timeout(TimeoutCalibration.Operation.ELEMENT));
+        assertEquals(Duration.ofMillis(3600), calibration.timeout(TimeoutCalibration.Operation.PAGE_READY));
+        assertEquals(Duration.ofMillis(800), calibration.timeout(TimeoutCalibration.Operation.SUBMIT_ACK));
+        assertEquals(Duration.ofMillis(4400), calibration.timeout(TimeoutCalibration.Operation.LOGIN_OUTCOME));
+        assertEquals(Duration.ofMillis(8000), calibration.timeout(TimeoutCalibration.Operation.REDIRECT));
+        assertEquals(Duration.ofMillis(50), calibration.initialPoll());
+        assertEquals(Duration.ofMillis(200), calibration.maxPoll());
+    }
+
+    @Test
+    public void testFastAppKeepsMinimumsAndSlowAppIsCapped() {
+        TimeoutCalibration fast = TimeoutCalibration.fromMeasurements(new long[]{20}, new long[]{2});
+        assertEquals(Duration.ofSeconds(2), fast.timeout(TimeoutCalibration.Operation.ELEMENT));
+        assertEquals(Duration.ofMillis(300), fast.timeout(TimeoutCalibration.Operation.SUBMIT_ACK));
+        assertEquals(Duration.ofMillis(10), fast.initialPoll());
+        assertEquals(Duration.ofMillis(50), fast.maxPoll());
+
+        TimeoutCalibration slow = TimeoutCalibration.fromMeasurements(new long[]{12_000}, new long[]{3_000});
+        assertEquals(Duration.ofSeconds(30), slow.timeout(TimeoutCalibration.Operation.REDIRECT));
+        assertEquals(Duration.ofMillis(400), slow.maxPoll());
+    }
+
+    @Test
+    public void testDefaultsKeepPreviousFixedTimeouts() {
+        TimeoutCalibration defaults = TimeoutCalibration.defaults();
+        assertEquals(Duration.ofSeconds(10), defaults.timeout(TimeoutCalibration.Operation.ELEMENT));
+        assertEquals(Duration.ofSeconds(20), defaults.timeout(TimeoutCalibration.Operation.REDIRECT));
+        assertTrue(defaults.summary().startsWith("Délais par défaut"));
+    }
+
+    @Test
+    public void testMissingErrorMessageIsReportedImmediately() {
+        WebDriver driver = FakeDriver.driver()
+                .on("findElements", args -> List.of())
+                .build();
+        LoginPage loginPage = new LoginPage(driver, "http://localhost:3005");
+
+        long start = System.nanoTime();
+        assertFalse(loginPage.isErrorVisible());
+        assertEquals("", loginPage.getErrorMessage());
+        loginPage.waitForErrorToDisappear();
+        assertTrue("Un message absent ne doit pas être attendu",
+                Duration.ofNanos(System.nanoTime() - start).toMillis() < 500);
+    }
+}
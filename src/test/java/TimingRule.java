@@ -0,0 +1,46 @@
+import org.junit.AssumptionViolatedException;
+import org.junit.rules.TestWatcher;
+import org.junit.runner.Description;
+
+/**
+ * Règle JUnit qui rattache les mesures du {@link LatencyRecorder} au test en cours
+ * et enregistre la durée totale du test (étape {@code test}), reprise par le
+ * {@link TestDurationHistory} pour répartir les tests en shards.
+ */
+public class TimingRule extends TestWatcher {
+    private long start;
+
+    @Override
+    protected void starting(Description description) {
+        LatencyRecorder.setCurrentTest(description.getClassName() + "." + description.getMethodName());
+        start = System.nanoTime();
+    }
+
+    @Override
+    protected void succeeded(Description description) {
+        recordDuration(description);
+    }
+
+    @Override
+    protected void failed(Throwable e, Description description) {
+        recordDuration(description);
+    }
+
+    // Test ignoré par sa propre hypothèse : sa durée (quasi nulle) reste une bonne estimation
+    @Override
+    protected void skipped(AssumptionViolatedException e, Description description) {
+        recordDuration(description);
+    }
+
+    @Override
+    protected void finished(Description description) {
+        LatencyRecorder.shared().record("test", System.nanoTime() - start);
+        LatencyRecorder.setCurrentTest(null);
+    }
+
+    private void recordDuration(Description description) {
+        TestDurationHistory.shared().record(
+                TestDurationHistory.key(description.getClassName(), description.getMethodName()),
+                System.nanoTime() - start);
+    }
+}
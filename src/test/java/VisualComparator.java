@@ -0,0 +1,347 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Comparaison perceptuelle de deux captures d'écran. Une empreinte perceptuelle (pHash : DCT d'une
+ * réduction 32x32 en niveaux de gris) écarte d'abord les images franchement différentes ; sinon l'image
+ * est découpée en régions carrées et une région n'échoue que si trop de ses pixels diffèrent au-delà d'une
+ * tolérance de couleur. Ne sont pas comptés les pixels d'anticrénelage (rendu du texte, bords arrondis) :
+ * pixels de bord entre une zone sombre et une zone claire, ou dont la couleur se retrouve à un pixel près
+ * dans l'autre image.
+ *
+ * <p>Les images sont manipulées comme tableaux d'entiers RGB sans copie intermédiaire : une comparaison
+ * garde en mémoire les deux images et rien d'autre.</p>
+ */
+public final class VisualComparator {
+
+    private static final int HASH_INPUT = 32;
+    private static final int HASH_BITS = 8;
+    private static final double[][] DCT = dctMatrix();
+
+    private final int hashThreshold;
+    private final int tileSize;
+    private final int pixelTolerance;
+    private final double tileDiffRatio;
+
+    /**
+     * @param hashThreshold  distance de Hamming (sur 64 bits) au-delà de laquelle les images diffèrent sans examen des régions
+     * @param tileSize       côté des régions comparées, en pixels
+     * @param pixelTolerance écart maximal toléré sur un canal de couleur (0-255)
+     * @param tileDiffRatio  part des pixels d'une région qui peuvent différer sans la faire échouer
+     */
+    public VisualComparator(int hashThreshold, int tileSize, int pixelTolerance, double tileDiffRatio) {
+        this.hashThreshold = hashThreshold;
+        this.tileSize = tileSize;
+        this.pixelTolerance = pixelTolerance;
+        this.tileDiffRatio = tileDiffRatio;
+    }
+
+    /**
+     * Comparateur configuré par {@code visual.hash.threshold} (10), {@code visual.tile.size} (32),
+     * {@code visual.pixel.tolerance} (16) et {@code visual.tile.diff.ratio} (0.01).
+     */
+    public static VisualComparator fromSystemProperties() {
+        return new VisualComparator(
+                Integer.getInteger("visual.hash.threshold", 10),
+                Integer.getInteger("visual.tile.size", 32),
+                Integer.getInteger("visual.pixel.tolerance", 16),
+                Double.parseDouble(System.getProperty("visual.tile.diff.ratio", "0.01")));
+    }
+
+    /**
+     * Image sous forme de pixels RGB contigus ; l'image source n'est copiée que si elle n'est pas déjà en {@code TYPE_INT_RGB}.
+     */
+    public static Pixels pixels(BufferedImage image) {
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            try {
+                graphics.drawImage(image, 0, 0, null);
+            } finally {
+                graphics.dispose();
+            }
+        }
+        return new Pixels(rgb.getWidth(), rgb.getHeight(), ((DataBufferInt) rgb.getRaster().getDataBuffer()).getData());
+    }
+
+    public Comparison compare(Pixels baseline, Pixels actual) {
+        int distance = Long.bitCount(perceptualHash(baseline) ^ perceptualHash(actual));
+        if (baseline.width != actual.width || baseline.height != actual.height) {
+            return new Comparison(distance, false, Collections.emptyList(), -1);
+        }
+        if (distance > hashThreshold) {
+            // Différence franche : inutile d'examiner les régions
+            return new Comparison(distance, false, Collections.emptyList(), -1);
+        }
+        if (Arrays.equals(baseline.rgb, actual.rgb)) {
+            return new Comparison(distance, true, Collections.emptyList(), 0);
+        }
+        List<Rectangle> failed = new ArrayList<>();
+        int differing = 0;
+        for (Rectangle tile : tiles(baseline.width, baseline.height)) {
+            int count = differingPixels(baseline, actual, tile, null, 0);
+            differing += count;
+            if (failing(tile, count)) {
+                failed.add(tile);
+            }
+        }
+        return new Comparison(distance, failed.isEmpty(), failed, differing);
+    }
+
+    /**
+     * Empreinte perceptuelle sur 64 bits : signe des basses fréquences de la DCT d'une réduction 32x32
+     * en niveaux de gris, par rapport à leur médiane. Deux rendus visuellement proches ont des empreintes
+     * à faible distance de Hamming.
+     */
+    public static long perceptualHash(Pixels image) {
+        double[][] gray = downscale(image);
+        double[] low = new double[HASH_BITS * HASH_BITS];
+        for (int u = 0; u < HASH_BITS; u++) {
+            for (int v = 0; v < HASH_BITS; v++) {
+                double sum = 0;
+                for (int y = 0; y < HASH_INPUT; y++) {
+                    for (int x = 0; x < HASH_INPUT; x++) {
+                        sum += DCT[u][y] * DCT[v][x] * gray[y][x];
+                    }
+                }
+                low[u * HASH_BITS + v] = sum;
+            }
+        }
+        // Composante continue (luminosité moyenne) exclue de la médiane
+        double[] sorted = Arrays.copyOfRange(low, 1, low.length);
+        Arrays.sort(sorted);
+        double median = sorted[sorted.length / 2];
+        long hash = 0;
+        for (int i = 0; i < low.length; i++) {
+            if (low[i] > median) {
+                hash |= 1L << i;
+            }
+        }
+        return hash;
+    }
+
+    // Réduction par moyenne de zones, en luminance
+    private static double[][] downscale(Pixels image) {
+        double[][] sums = new double[HASH_INPUT][HASH_INPUT];
+        int[][] counts = new int[HASH_INPUT][HASH_INPUT];
+        for (int y = 0; y < image.height; y++) {
+            int row = (int) ((long) y * HASH_INPUT / image.height);
+            for (int x = 0; x < image.width; x++) {
+                int column = (int) ((long) x * HASH_INPUT / image.width);
+                int rgb = image.rgb[y * image.width + x];
+                sums[row][column] += luminance(rgb);
+                counts[row][column]++;
+            }
+        }
+        for (int y = 0; y < HASH_INPUT; y++) {
+            for (int x = 0; x < HASH_INPUT; x++) {
+                sums[y][x] = counts[y][x] == 0 ? 0 : sums[y][x] / counts[y][x];
+            }
+        }
+        return sums;
+    }
+
+    private static double[][] dctMatrix() {
+        double[][] matrix = new double[HASH_BITS][HASH_INPUT];
+        for (int u = 0; u < HASH_BITS; u++) {
+            for (int x = 0; x < HASH_INPUT; x++) {
+                matrix[u][x] = Math.cos((2 * x + 1) * u * Math.PI / (2.0 * HASH_INPUT));
+            }
+        }
+        return matrix;
+    }
+
+    private List<Rectangle> tiles(int width, int height) {
+        List<Rectangle> tiles = new ArrayList<>();
+        for (int top = 0; top < height; top += tileSize) {
+            for (int left = 0; left < width; left += tileSize) {
+                tiles.add(new Rectangle(left, top, Math.min(tileSize, width - left), Math.min(tileSize, height - top)));
+            }
+        }
+        return tiles;
+    }
+
+    private boolean failing(Rectangle tile, int differing) {
+        return differing > tileDiffRatio * tile.width * tile.height;
+    }
+
+    // Nombre de pixels réellement différents de la région ; marqués en rouge dans marks (de largeur marksWidth) si fourni
+    private int differingPixels(Pixels baseline, Pixels actual, Rectangle tile, int[] marks, int marksWidth) {
+        int count = 0;
+        for (int y = tile.y; y < tile.y + tile.height; y++) {
+            for (int x = tile.x; x < tile.x + tile.width; x++) {
+                int expected = baseline.rgb[y * baseline.width + x];
+                int found = actual.rgb[y * actual.width + x];
+                if (close(expected, found)
+                        || (hasCloseNeighbour(actual, x, y, expected) && hasCloseNeighbour(baseline, x, y, found))
+                        || isAntialiased(baseline, x, y) || isAntialiased(actual, x, y)) {
+                    continue;
+                }
+                count++;
+                if (marks != null) {
+                    marks[y * marksWidth + x] = 0xFF0000;
+                }
+            }
+        }
+        return count;
+    }
+
+    private boolean hasCloseNeighbour(Pixels image, int x, int y, int color) {
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx != 0 || dy != 0) && nx >= 0 && ny >= 0 && nx < image.width && ny < image.height
+                        && close(image.rgb[ny * image.width + nx], color)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pixel de bord lissé : entouré à la fois de voisins plus sombres et plus clairs, et presque sans voisin
+     * de même couleur (un pixel à l'intérieur d'un aplat ou d'un glyphe en a plusieurs).
+     */
+    private boolean isAntialiased(Pixels image, int x, int y) {
+        int center = image.rgb[y * image.width + x];
+        double luminance = luminance(center);
+        boolean darker = false;
+        boolean brighter = false;
+        int same = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                int ny = y + dy;
+                if ((dx == 0 && dy == 0) || nx < 0 || ny < 0 || nx >= image.width || ny >= image.height) {
+                    continue;
+                }
+                int neighbour = image.rgb[ny * image.width + nx];
+                if (close(neighbour, center)) {
+                    same++;
+                }
+                double delta = luminance(neighbour) - luminance;
+                darker |= delta < -pixelTolerance;
+                brighter |= delta > pixelTolerance;
+            }
+        }
+        return darker && brighter && same <= 2;
+    }
+
+    private static double luminance(int rgb) {
+        return ((rgb >> 16) & 0xFF) * 0.299 + ((rgb >> 8) & 0xFF) * 0.587 + (rgb & 0xFF) * 0.114;
+    }
+
+    private boolean close(int a, int b) {
+        return Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) <= pixelTolerance
+                && Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) <= pixelTolerance
+                && Math.abs((a & 0xFF) - (b & 0xFF)) <= pixelTolerance;
+    }
+
+    /**
+     * Image de différence : la capture estompée, les pixels différents en rouge et les régions en échec encadrées.
+     * Des images de tailles différentes sont comparées sur leur partie commune, le reste est encadré.
+     */
+    public BufferedImage diffImage(Pixels baseline, Pixels actual) {
+        int width = actual.width;
+        int height = actual.height;
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) diff.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < out.length; i++) {
+            int rgb = actual.rgb[i];
+            int gray = (((rgb >> 16) & 0xFF) * 30 + ((rgb >> 8) & 0xFF) * 59 + (rgb & 0xFF) * 11) / 100;
+            int faded = 255 - (255 - gray) / 3;
+            out[i] = (faded << 16) | (faded << 8) | faded;
+        }
+        int commonWidth = Math.min(baseline.width, width);
+        int commonHeight = Math.min(baseline.height, height);
+        Graphics2D graphics = diff.createGraphics();
+        try {
+            graphics.setColor(Color.RED);
+            for (Rectangle tile : tiles(commonWidth, commonHeight)) {
+                if (failing(tile, differingPixels(baseline, actual, tile, out, width))) {
+                    graphics.drawRect(tile.x, tile.y, tile.width - 1, tile.height - 1);
+                }
+            }
+            if (commonWidth < width || commonHeight < height) {
+                graphics.drawRect(0, 0, commonWidth - 1, commonHeight - 1);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return diff;
+    }
+
+    /**
+     * Pixels RGB d'une image, ligne par ligne.
+     */
+    public static final class Pixels {
+        private final int width;
+        private final int height;
+        private final int[] rgb;
+
+        Pixels(int width, int height, int[] rgb) {
+            this.width = width;
+            this.height = height;
+            this.rgb = rgb;
+        }
+
+        public int width() {
+            return width;
+        }
+
+        public int height() {
+            return height;
+        }
+    }
+
+    /**
+     * Résultat d'une comparaison : distance des empreintes, régions en échec et nombre de pixels différents
+     * (-1 si les régions n'ont pas été examinées : tailles différentes ou empreintes trop éloignées).
+     */
+    public static final class Comparison {
+        private final int hashDistance;
+        private final boolean matches;
+        private final List<Rectangle> failedRegions;
+        private final int differingPixels;
+
+        Comparison(int hashDistance, boolean matches, List<Rectangle> failedRegions, int differingPixels) {
+            this.hashDistance = hashDistance;
+            this.matches = matches;
+            this.failedRegions = Collections.unmodifiableList(failedRegions);
+            this.differingPixels = differingPixels;
+        }
+
+        public boolean matches() {
+            return matches;
+        }
+
+        public int hashDistance() {
+            return hashDistance;
+        }
+
+        public List<Rectangle> failedRegions() {
+            return failedRegions;
+        }
+
+        public int differingPixels() {
+            return differingPixels;
+        }
+
+        @Override
+        public String toString() {
+            return matches ? "identique (distance " + hashDistance + ")"
+                    : "différent (distance " + hashDistance + ", " + failedRegions.size() + " région(s), "
+                    + differingPixels + " pixel(s))";
+        }
+    }
+}
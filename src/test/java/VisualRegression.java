@@ -0,0 +1,231 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Régression visuelle des captures d'écran : chaque capture est comparée par le {@link VisualComparator}
+ * à la référence de son test et de son viewport, {@code visual-baselines/<nom>/<largeur>x<hauteur>.png}
+ * (à versionner). Une capture sans référence devient la référence ; {@code -Dvisual.update=true} remplace
+ * les références existantes. L'image de différence n'est écrite qu'en cas d'écart, dans {@code target/visual-diffs/}.
+ *
+ * <p>Les comparaisons d'un lot s'exécutent en parallèle sur tous les cœurs. La mémoire est bornée par le
+ * nombre de comparaisons en cours ({@code visual.max.in.flight}, par défaut le nombre de cœurs), chacune
+ * ne tenant que deux images décodées ; une capture identique octet pour octet à sa référence n'est pas décodée.</p>
+ */
+public class VisualRegression {
+
+    // Capture horodatée par le ScreenshotWriter : nom_yyyyMMdd-HHmmss-SSS[-n].png
+    private static final Pattern TIMESTAMPED = Pattern.compile("(.+)_\\d{8}-\\d{6}-\\d{3}(-\\d+)?\\.png");
+
+    private static VisualRegression shared;
+
+    private final Path baselineDir;
+    private final Path diffDir;
+    private final boolean update;
+    private final VisualComparator comparator;
+    private final Semaphore inFlight;
+
+    VisualRegression(Path baselineDir, Path diffDir, boolean update, VisualComparator comparator, int maxInFlight) {
+        this.baselineDir = baselineDir;
+        this.diffDir = diffDir;
+        this.update = update;
+        this.comparator = comparator;
+        this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+    }
+
+    public static synchronized VisualRegression shared() {
+        if (shared == null) {
+            shared = new VisualRegression(
+                    Paths.get(System.getProperty("visual.baseline.dir", "visual-baselines")),
+                    Paths.get(System.getProperty("visual.diff.dir", "target/visual-diffs")),
+                    Boolean.getBoolean("visual.update"),
+                    VisualComparator.fromSystemProperties(),
+                    Integer.getInteger("visual.max.in.flight", Runtime.getRuntime().availableProcessors()));
+        }
+        return shared;
+    }
+
+    /**
+     * Compare une capture (octets PNG) à sa référence.
+     */
+    public Result check(String name, byte[] png) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompu en attendant une comparaison", e);
+        }
+        try {
+            return compare(name, png);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Compare un lot de captures (nom -> fichier PNG) en parallèle ; résultats dans l'ordre des noms.
+     */
+    public List<Result> checkAll(Map<String, Path> captures) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(Math.max(1, captures.size()), Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            new TreeMap<>(captures).forEach((name, file) -> futures.add(executor.submit(() -> check(name, Files.readAllBytes(file)))));
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Comparaison visuelle impossible", e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Capture la plus récente de chaque test dans un répertoire de captures (sous-répertoires des workers compris).
+     */
+    public static Map<String, Path> latestCaptures(Path screenshots) throws IOException {
+        if (!Files.isDirectory(screenshots)) {
+            return new TreeMap<>();
+        }
+        try (Stream<Path> files = Files.walk(screenshots)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".png"))
+                    .collect(Collectors.toMap(VisualRegression::captureName, file -> file,
+                            (a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()) >= 0 ? a : b,
+                            TreeMap::new));
+        }
+    }
+
+    static String captureName(Path file) {
+        String fileName = file.getFileName().toString();
+        Matcher matcher = TIMESTAMPED.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : fileName.substring(0, fileName.length() - ".png".length());
+    }
+
+    private Result compare(String name, byte[] png) throws IOException {
+        String viewport = viewport(png);
+        Path baseline = baselineDir.resolve(name).resolve(viewport + ".png");
+        boolean exists = Files.exists(baseline);
+        if (!exists || update) {
+            Files.createDirectories(baseline.getParent());
+            Path temp = Files.createTempFile(baseline.getParent(), viewport, ".tmp");
+            Files.write(temp, png);
+            Files.move(temp, baseline, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return new Result(name, viewport, exists ? Status.UPDATED : Status.NEW_BASELINE, null, null);
+        }
+
+        byte[] expected = Files.readAllBytes(baseline);
+        if (Arrays.equals(expected, png)) {
+            return new Result(name, viewport, Status.MATCH, null, null);
+        }
+        VisualComparator.Pixels baselinePixels = decode(expected, baseline.toString());
+        VisualComparator.Pixels actualPixels = decode(png, name);
+        VisualComparator.Comparison comparison = comparator.compare(baselinePixels, actualPixels);
+        if (comparison.matches()) {
+            return new Result(name, viewport, Status.MATCH, comparison, null);
+        }
+        Path diff = diffDir.resolve(name + "_" + viewport + ".png");
+        Files.createDirectories(diffDir);
+        ImageIO.write(comparator.diffImage(baselinePixels, actualPixels), "png", diff.toFile());
+        return new Result(name, viewport, Status.MISMATCH, comparison, diff);
+    }
+
+    private static VisualComparator.Pixels decode(byte[] png, String source) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            throw new IOException("Image illisible: " + source);
+        }
+        return VisualComparator.pixels(image);
+    }
+
+    /**
+     * Viewport d'une capture, lu dans l'en-tête PNG sans décoder l'image : {@code <largeur>x<hauteur>}.
+     */
+    static String viewport(byte[] png) throws IOException {
+        if (png.length < 24 || png[12] != 'I' || png[13] != 'H' || png[14] != 'D' || png[15] != 'R') {
+            throw new IOException("Capture qui n'est pas au format PNG");
+        }
+        ByteBuffer header = ByteBuffer.wrap(png, 16, 8);
+        return header.getInt() + "x" + header.getInt();
+    }
+
+    /**
+     * Issue de la comparaison d'une capture.
+     */
+    public enum Status {
+        MATCH, NEW_BASELINE, UPDATED, MISMATCH
+    }
+
+    /**
+     * Résultat pour une capture ; l'image de différence n'existe qu'en cas d'écart.
+     */
+    public static final class Result {
+        private final String name;
+        private final String viewport;
+        private final Status status;
+        private final VisualComparator.Comparison comparison;
+        private final Path diff;
+
+        Result(String name, String viewport, Status status, VisualComparator.Comparison comparison, Path diff) {
+            this.name = name;
+            this.viewport = viewport;
+            this.status = status;
+            this.comparison = comparison;
+            this.diff = diff;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public String viewport() {
+            return viewport;
+        }
+
+        public Status status() {
+            return status;
+        }
+
+        public boolean isMismatch() {
+            return status == Status.MISMATCH;
+        }
+
+        public Path diff() {
+            return diff;
+        }
+
+        @Override
+        public String toString() {
+            return name + " [" + viewport + "] " + status
+                    + (comparison != null ? " " + comparison : "")
+                    + (diff != null ? " -> " + diff : "");
+        }
+    }
+}
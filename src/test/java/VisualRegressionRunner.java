@@ -0,0 +1,38 @@
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Comparaison de tout le répertoire des captures à ses références (profil Maven {@code visual}) :
+ * {@code mvn test -Pvisual [-Dvisual.update=true]}. La capture la plus récente de chaque test est comparée ;
+ * les écarts sont listés avec leur image de différence.
+ */
+public class VisualRegressionRunner {
+
+    @Test
+    public void compareScreenshots() throws Exception {
+        Assume.assumeTrue("Régression visuelle désactivée (activer avec -Pvisual)", Boolean.getBoolean("visual.run"));
+
+        Path screenshots = Paths.get(System.getProperty("visual.screenshots.dir", "screenshots"));
+        Map<String, Path> captures = VisualRegression.latestCaptures(screenshots);
+        long start = System.nanoTime();
+        List<VisualRegression.Result> results = VisualRegression.shared().checkAll(captures);
+        results.forEach(System.out::println);
+        System.out.println(results.size() + " capture(s) comparée(s) en "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+
+        List<VisualRegression.Result> mismatches = results.stream()
+                .filter(VisualRegression.Result::isMismatch)
+                .collect(Collectors.toList());
+        assertTrue("Écarts visuels:\n" + mismatches.stream().map(Object::toString).collect(Collectors.joining("\n")),
+                mismatches.isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la comparaison perceptuelle et du stockage des références visuelles.
+ */
+public class VisualRegressionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final VisualComparator comparator = new VisualComparator(10, 32, 16, 0.01);
+
+    // Page simulée : fond clair, un titre et un formulaire
+    private static BufferedImage page(int shiftX, String title, boolean antialiasing) {
+        BufferedImage image = new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, antialiasing
+                    ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 400, 300);
+            graphics.setColor(new Color(30, 60, 120));
+            graphics.fillRect(0, 0, 400, 40);
+            graphics.setColor(Color.BLACK);
+            graphics.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 20));
+            graphics.drawString(title, 20 + shiftX, 80);
+            graphics.setColor(Color.GRAY);
+            graphics.drawRect(20, 120, 360, 30);
+            graphics.drawRect(20, 170, 360, 30);
+            graphics.setColor(new Color(0, 120, 60));
+            graphics.fillRect(20, 230, 120, 35);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private VisualRegression regression(Path root) {
+        return new VisualRegression(root.resolve("baselines"), root.resolve("diffs"), false, comparator, 2);
+    }
+
+    @Test
+    public void testIdenticalImagesMatch() {
+        VisualComparator.Comparison comparison = comparator.compare(
+                VisualComparator.pixels(page(0, "Se connecter", true)), VisualComparator.pixels(page(0, "Se connecter", true)));
+        assertTrue(comparison.matches());
+        assertEquals(0, comparison.hashDistance());
+    }
+
+    @Test
+    public void testAntialiasingDifferencesAreTolerated() {
+        VisualComparator.Comparison comparison = comparator.compare(
+                VisualComparator.pixels(page(0, "Se connecter", true)), VisualComparator.pixels(page(0, "Se connecter", false)));
+        assertTrue(comparison.toString(), comparison.matches());
+    }
+
+    @Test
+    public void testChangedTextFailsItsRegionOnly() {
+        VisualComparator.Comparison comparison = comparator.compare(
+                VisualComparator.pixels(page(0, "Se connecter", true)), VisualComparator.pixels(page(0, "Connexion", true)));
+        assertFalse(comparison.matches());
+        assertFalse(comparison.failedRegions().isEmpty());
+        // Seule la bande du titre (y 60-90) diffère
+        comparison.failedRegions().forEach(region -> assertTrue(region.toString(), region.y >= 32 && region.y < 96));
+    }
+
+    @Test
+    public void testPerceptualHashSeparatesDifferentPages() {
+        BufferedImage inverted = page(0, "Se connecter", true);
+        for (int y = 0; y < inverted.getHeight(); y++) {
+            for (int x = 0; x < inverted.getWidth(); x++) {
+                inverted.setRGB(x, y, ~inverted.getRGB(x, y));
+            }
+        }
+        long original = VisualComparator.perceptualHash(VisualComparator.pixels(page(0, "Se connecter", true)));
+        assertTrue(Long.bitCount(original ^ VisualComparator.perceptualHash(VisualComparator.pixels(inverted))) > 10);
+        assertEquals(-1, comparator.compare(VisualComparator.pixels(page(0, "Se connecter", true)),
+                VisualComparator.pixels(inverted)).differingPixels());
+    }
+
+    @Test
+    public void testFirstCaptureBecomesBaselineAndDiffIsWrittenOnlyOnMismatch() throws Exception {
+        Path root = folder.getRoot().toPath();
+        VisualRegression regression = regression(root);
+
+        assertEquals(VisualRegression.Status.NEW_BASELINE, regression.check("loginPage", png(page(0, "Se connecter", true))).status());
+        assertTrue(Files.exists(root.resolve("baselines/loginPage/400x300.png")));
+
+        assertEquals(VisualRegression.Status.MATCH, regression.check("loginPage", png(page(0, "Se connecter", false))).status());
+        assertFalse("Aucune image de différence sans écart", Files.exists(root.resolve("diffs")));
+
+        VisualRegression.Result mismatch = regression.check("loginPage", png(page(0, "Connexion", true)));
+        assertTrue(mismatch.isMismatch());
+        assertTrue(Files.exists(mismatch.diff()));
+    }
+
+    @Test
+    public void testBatchUsesLatestCapturePerTest() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path screenshots = Files.createDirectories(root.resolve("screenshots/worker-1"));
+        Files.write(screenshots.resolve("testLogin_20240101-120000-000.png"), png(page(0, "Se connecter", true)));
+        Files.write(screenshots.resolve("testLogin_20240102-120000-000.png"), png(page(0, "Connexion", true)));
+        Files.write(screenshots.resolve("redirect_error.png"), png(page(0, "Erreur", true)));
+
+        Map<String, Path> captures = VisualRegression.latestCaptures(root.resolve("screenshots"));
+        assertEquals(List.of("redirect_error", "testLogin"), List.copyOf(new TreeMap<>(captures).keySet()));
+        assertTrue(captures.get("testLogin").toString().endsWith("20240102-120000-000.png"));
+
+        VisualRegression regression = regression(root);
+        regression.check("testLogin", png(page(0, "Se connecter", true)));
+        List<VisualRegression.Result> results = regression.checkAll(captures);
+        assertEquals(VisualRegression.Status.NEW_BASELINE, results.get(0).status());
+        assertEquals(VisualRegression.Status.MISMATCH, results.get(1).status());
+    }
+}
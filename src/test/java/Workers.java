@@ -0,0 +1,135 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Identité des threads d'exécution en mode parallèle ({@code -Dtest.parallel=true}, profil Maven {@code parallel}).
+ * Chaque thread reçoit un identifiant stable ("worker-1", "worker-2"...) qui sert à isoler
+ * ses captures d'écran et ses logs.
+ */
+public final class Workers {
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private static final ThreadLocal<String> ID =
+            ThreadLocal.withInitial(() -> "worker-" + NEXT_ID.incrementAndGet());
+
+    private static PrintStream originalOut;
+    private static PrintStream originalErr;
+    private static final Map<String, PrintStream> LOGS = new ConcurrentHashMap<>();
+
+    private Workers() {
+    }
+
+    public static boolean isParallel() {
+        return Boolean.getBoolean("test.parallel");
+    }
+
+    /**
+     * Nombre de threads visés : {@code parallel.threads} ou, à défaut, le nombre de cœurs.
+     */
+    public static int threadCount() {
+        return Math.max(1, Integer.getInteger("parallel.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    public static String id() {
+        return ID.get();
+    }
+
+    /**
+     * Dossier des captures d'écran de la JVM : {@code screenshots/}, ou {@code screenshots/<nom>/} sur un
+     * worker de la grille locale ({@code grid.worker}) pour que les workers d'une même machine ne se mélangent pas.
+     */
+    public static Path screenshotRoot() {
+        String gridWorker = System.getProperty("grid.worker");
+        return gridWorker == null ? Paths.get("screenshots") : Paths.get("screenshots", gridWorker);
+    }
+
+    /**
+     * Dossier des captures d'écran du thread courant : {@link #screenshotRoot()} en séquentiel,
+     * son sous-dossier {@code worker-N/} en parallèle.
+     */
+    public static Path screenshotDir() {
+        Path dir = isParallel() ? screenshotRoot().resolve(id()) : screenshotRoot();
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la création du dossier screenshots: " + e.getMessage());
+        }
+        return dir;
+    }
+
+    /**
+     * Redirige System.out / System.err des threads de test vers {@code target/worker-logs/worker-N.log}.
+     * Le thread principal continue d'écrire sur la console.
+     */
+    public static synchronized void isolateOutput(Thread mainThread) {
+        if (originalOut != null) {
+            return;
+        }
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(new WorkerOutputStream(mainThread, originalOut), true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(new WorkerOutputStream(mainThread, originalErr), true, StandardCharsets.UTF_8));
+    }
+
+    public static synchronized void restoreOutput() {
+        if (originalOut == null) {
+            return;
+        }
+        System.out.flush();
+        System.err.flush();
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        originalOut = null;
+        originalErr = null;
+        LOGS.values().forEach(PrintStream::close);
+        LOGS.clear();
+    }
+
+    private static PrintStream logFor(String worker) {
+        return LOGS.computeIfAbsent(worker, w -> {
+            try {
+                Path dir = Files.createDirectories(Paths.get("target", "worker-logs"));
+                return new PrintStream(Files.newOutputStream(dir.resolve(w + ".log")), true, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalStateException("Impossible de créer le log de " + w, e);
+            }
+        });
+    }
+
+    private static final class WorkerOutputStream extends OutputStream {
+        private final Thread mainThread;
+        private final PrintStream console;
+
+        WorkerOutputStream(Thread mainThread, PrintStream console) {
+            this.mainThread = mainThread;
+            this.console = console;
+        }
+
+        private OutputStream target() {
+            return Thread.currentThread() == mainThread ? console : logFor(id());
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.bench;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Comparaison des résultats JMH ({@code -rf json}) à la référence versionnée {@code benchmarks/baseline.json}.
+ * Les benchmarks du harnais mesurent des durées (ms/op) : un score plus élevé est une régression.
+ * Une référence vide ({@code []}) ne compare rien ; y copier un {@code target/jmh/results.json} mesuré
+ * sur l'agent de référence suffit à l'établir.
+ */
+public final class BaselineComparison {
+
+    private final Map<String, Double> baseline;
+    private final Map<String, Double> current;
+
+    BaselineComparison(Map<String, Double> baseline, Map<String, Double> current) {
+        this.baseline = baseline;
+        this.current = current;
+    }
+
+    public static BaselineComparison of(Path baseline, Path results) throws IOException {
+        return new BaselineComparison(scores(baseline), scores(results));
+    }
+
+    /**
+     * Score principal de chaque benchmark (avec ses paramètres) d'un fichier de résultats JMH ; vide si le fichier
+     * n'existe pas.
+     */
+    static Map<String, Double> scores(Path file) throws IOException {
+        Map<String, Double> scores = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return scores;
+        }
+        List<Map<String, Object>> entries = new Json().toType(
+                Files.readString(file, StandardCharsets.UTF_8), Json.LIST_OF_MAPS_TYPE);
+        for (Map<String, Object> entry : entries) {
+            String name = String.valueOf(entry.get("benchmark"));
+            Object params = entry.get("params");
+            if (params instanceof Map && !((Map<?, ?>) params).isEmpty()) {
+                name += new TreeMap<>((Map<?, ?>) params);
+            }
+            Object metric = entry.get("primaryMetric");
+            if (metric instanceof Map && ((Map<?, ?>) metric).get("score") instanceof Number) {
+                scores.put(name, ((Number) ((Map<?, ?>) metric).get("score")).doubleValue());
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Benchmarks plus lents que leur référence de plus de {@code maxPercent} %.
+     */
+    public List<String> regressions(double maxPercent) {
+        List<String> regressions = new ArrayList<>();
+        current.forEach((name, score) -> {
+            Double reference = baseline.get(name);
+            if (reference != null && reference > 0 && change(score, reference) > maxPercent) {
+                regressions.add(String.format(Locale.ROOT, "%s : %.3f vs %.3f (%+.1f %%)",
+                        name, score, reference, change(score, reference)));
+            }
+        });
+        return regressions;
+    }
+
+    public String report() {
+        StringBuilder report = new StringBuilder("=== Benchmarks du harnais (ms/op, actuel vs référence) ===");
+        current.forEach((name, score) -> {
+            Double reference = baseline.get(name);
+            report.append("\n  ").append(name).append(" : ").append(reference == null
+                    ? String.format(Locale.ROOT, "%.3f (pas de référence)", score)
+                    : String.format(Locale.ROOT, "%.3f vs %.3f (%+.1f %%)", score, reference, change(score, reference)));
+        });
+        return report.toString();
+    }
+
+    private static double change(double score, double reference) {
+        return (score - reference) / reference * 100;
+    }
+}
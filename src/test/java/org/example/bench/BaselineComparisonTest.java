@@ -0,0 +1,66 @@
+package org.example.bench;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de la comparaison des résultats JMH à la référence versionnée.
+ */
+public class BaselineComparisonTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEmptyBaselineReportsScoresWithoutRegression() throws Exception {
+        Path baseline = write("baseline.json", "[]");
+        Path results = write("results.json", result("LoginPageBenchmark.login", "", 120.0));
+
+        BaselineComparison comparison = BaselineComparison.of(baseline, results);
+
+        assertTrue(comparison.report().contains("120.000 (pas de référence)"));
+        assertTrue(comparison.regressions(0).isEmpty());
+    }
+
+    @Test
+    public void testSlowerBenchmarkIsARegressionBeyondThreshold() throws Exception {
+        Path baseline = write("baseline.json", "[" + result("LoginPageBenchmark.login", "", 100.0) + ","
+                + result("DriverStartupBenchmark.start", "{\"headless\": \"true\"}", 800.0) + "]");
+        Path results = write("results.json", "[" + result("LoginPageBenchmark.login", "", 125.0) + ","
+                + result("DriverStartupBenchmark.start", "{\"headless\": \"true\"}", 760.0) + "]");
+
+        BaselineComparison comparison = BaselineComparison.of(baseline, results);
+
+        // Durées : seul le benchmark plus lent que sa référence compte, les paramètres distinguent les entrées
+        List<String> regressions = comparison.regressions(10);
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0), regressions.get(0).contains("125.000 vs 100.000 (+25.0 %)"));
+        assertTrue(comparison.regressions(30).isEmpty());
+        assertTrue(comparison.report().contains("760.000 vs 800.000 (-5.0 %)"));
+    }
+
+    @Test
+    public void testMissingBaselineFileIsEmpty() throws Exception {
+        assertTrue(BaselineComparison.scores(folder.getRoot().toPath().resolve("absent.json")).isEmpty());
+    }
+
+    private Path write(String name, String content) throws Exception {
+        Path file = folder.getRoot().toPath().resolve(name);
+        Files.writeString(file, content.startsWith("[") ? content : "[" + content + "]", StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String result(String benchmark, String params, double score) {
+        return "{\"benchmark\": \"org.example.bench." + benchmark + "\", \"mode\": \"avgt\""
+                + (params.isEmpty() ? "" : ", \"params\": " + params)
+                + ", \"primaryMetric\": {\"score\": " + score + ", \"scoreUnit\": \"ms/op\"}}";
+    }
+}
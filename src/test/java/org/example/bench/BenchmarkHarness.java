@@ -0,0 +1,51 @@
+package org.example.bench;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * Opérations du harnais mesurées par les benchmarks JMH. JMH refuse les benchmarks du paquet par défaut,
+ * et un paquet nommé ne peut pas importer les classes du harnais qui y vivent : l'implémentation est écrite
+ * à côté d'elles et trouvée par {@link ServiceLoader} ({@code META-INF/services/org.example.bench.BenchmarkHarness}),
+ * comme l'exécuteur du démon de tests. Une instance par état JMH.
+ */
+public interface BenchmarkHarness {
+
+    static BenchmarkHarness load() {
+        Iterator<BenchmarkHarness> found = ServiceLoader.load(BenchmarkHarness.class).iterator();
+        if (!found.hasNext()) {
+            throw new IllegalStateException("Aucun BenchmarkHarness déclaré (compiler avec -Pbench)");
+        }
+        return found.next();
+    }
+
+    /**
+     * Démarre une session Chrome headless, avec ou sans démarrage rapide, jusqu'à sa première commande, puis la ferme.
+     */
+    Object startAndQuit(boolean fastStart);
+
+    /**
+     * Démarre le serveur embarqué et une session ouverte sur sa page de connexion.
+     */
+    void openLoginPage() throws IOException;
+
+    void closeLoginPage();
+
+    Object open();
+
+    Object fillLoginForm();
+
+    /**
+     * Recherches élément par élément, comme les tests avant la lecture groupée.
+     */
+    Object[] elementLookups();
+
+    Object batchedSnapshot();
+
+    void printCookies();
+
+    Object waitForErrorToDisappear();
+
+    Object readinessWait();
+}
@@ -0,0 +1,37 @@
+package org.example.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Démarrage à froid d'une session Chrome headless (jusqu'à la première commande) puis fermeture,
+ * avec et sans les options de démarrage rapide du profil de navigateur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DriverStartupBenchmark {
+
+    @Param({"true", "false"})
+    public boolean fastStart;
+
+    private final BenchmarkHarness harness = BenchmarkHarness.load();
+
+    @Benchmark
+    public Object startAndQuit() {
+        return harness.startAndQuit(fastStart);
+    }
+}
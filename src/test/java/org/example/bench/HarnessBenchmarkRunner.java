@@ -0,0 +1,53 @@
+package org.example.bench;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Point d'entrée des benchmarks JMH du harnais (profil Maven {@code bench}) :
+ * {@code mvn test -Pbench [-Dbench.include=LoginPageBenchmark] [-Dbench.max.regression=10]}.
+ * Les résultats sont écrits dans {@code target/jmh/results.json} ({@code -rf json}) puis comparés à la
+ * référence {@code bench.baseline} (voir {@link BaselineComparison}) ; avec {@code bench.max.regression},
+ * un benchmark plus lent que sa référence de plus de ce pourcentage fait échouer l'exécution.
+ */
+public class HarnessBenchmarkRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HarnessBenchmarkRunner.class);
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        Assume.assumeTrue("Benchmarks désactivés (activer avec -Pbench)", Boolean.getBoolean("bench.run"));
+
+        Path results = Paths.get("target", "jmh", "results.json");
+        Files.createDirectories(results.getParent());
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("bench.include", ".*Benchmark"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+
+        BaselineComparison comparison = BaselineComparison.of(
+                Paths.get(System.getProperty("bench.baseline", "benchmarks/baseline.json")), results);
+        LOG.info(comparison.report());
+        String maxRegression = System.getProperty("bench.max.regression");
+        if (maxRegression != null) {
+            List<String> regressions = comparison.regressions(Double.parseDouble(maxRegression));
+            assertTrue("Régressions au-delà de " + maxRegression + " %: " + regressions, regressions.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des opérations de la page de connexion contre le serveur embarqué,
+ * avec une session Chrome headless ouverte pour toute la mesure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginPageBenchmark {
+
+    private BenchmarkHarness harness;
+
+    @Setup(Level.Trial)
+    public void startBrowser() throws IOException {
+        harness = BenchmarkHarness.load();
+        harness.openLoginPage();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopBrowser() {
+        harness.closeLoginPage();
+    }
+
+    @Benchmark
+    public Object open() {
+        return harness.open();
+    }
+
+    @Benchmark
+    public Object fillLoginForm() {
+        return harness.fillLoginForm();
+    }
+
+    @Benchmark
+    public Object[] elementLookups() {
+        return harness.elementLookups();
+    }
+
+    @Benchmark
+    public Object batchedSnapshot() {
+        return harness.batchedSnapshot();
+    }
+
+    @Benchmark
+    public void printCookies() {
+        harness.printCookies();
+    }
+
+    @Benchmark
+    public Object waitForErrorToDisappear() {
+        return harness.waitForErrorToDisappear();
+    }
+
+    @Benchmark
+    public Object readinessWait() {
+        return harness.readinessWait();
+    }
+}